@@ -7,6 +7,7 @@ plugins {
     alias(libs.plugins.jagr.gradle)
     alias(libs.plugins.javafx)
     alias(libs.plugins.algomate)
+    alias(libs.plugins.jmh)
 }
 
 version = file("version").readLines().first()
@@ -64,6 +65,19 @@ tasks {
         sourceCompatibility = "21"
         targetCompatibility = "21"
     }
+    register<JavaExec>("selfPlay") {
+        group = "application"
+        description = "Plays AI games without a user interface and records their decisions."
+        mainClass.set("hProjekt.controller.ai.SelfPlay")
+        classpath = sourceSets.main.get().runtimeClasspath
+    }
+    register<JavaExec>("townNameModel") {
+        group = "build"
+        description = "Precompiles the town name model from the town name list into the resources."
+        mainClass.set("hProjekt.util.NgramModel")
+        classpath = sourceSets.main.get().runtimeClasspath
+        args(file("src/main/resources/town_names_ger.ngram").absolutePath)
+    }
     withType<GraderRunTask> {
         doFirst {
             throw GradleException("Public tests will be released soon.")
@@ -75,6 +89,13 @@ tasks {
     }
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    // report the allocation per operation next to the time
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
 javafx {
     version = "23"
     modules("javafx.controls", "javafx.graphics", "javafx.base", "javafx.fxml", "javafx.swing", "javafx.media")
@@ -0,0 +1,150 @@
+package hProjekt.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hProjekt.Config;
+import hProjekt.util.NameGenerator;
+import hProjekt.util.NgramModel;
+
+/**
+ * Benchmarks the phases of the construction of a {@link HexGridImpl}.
+ * The phases that need a partially built grid get a fresh one before every
+ * invocation, which is not part of the measurement. Run with the gc profiler
+ * to get the allocation per map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapGenerationBenchmark {
+
+    /**
+     * The scale of the map.
+     */
+    @State(Scope.Thread)
+    public static class MapScale {
+        @Param({ "5", "15", "50", "100" })
+        public int scale;
+    }
+
+    /**
+     * The number of cities of the map.
+     */
+    @State(Scope.Thread)
+    public static class CityCount {
+        @Param({ "10", "36", "100" })
+        public int cities;
+    }
+
+    /**
+     * A grid that only has tiles.
+     */
+    @State(Scope.Thread)
+    public static class TilesOnly {
+        HexGridImpl grid;
+
+        /**
+         * Creates a new grid with tiles.
+         *
+         * @param mapScale the scale of the map
+         */
+        @Setup(Level.Invocation)
+        public void setUp(final MapScale mapScale) {
+            grid = new HexGridImpl();
+            grid.initTiles(mapScale.scale);
+        }
+    }
+
+    /**
+     * A grid that has tiles and edges but no cities.
+     */
+    @State(Scope.Thread)
+    public static class WithoutCities {
+        HexGridImpl grid;
+        NameGenerator nameGenerator;
+
+        /**
+         * Creates the name generator used for all invocations.
+         */
+        @Setup(Level.Trial)
+        public void setUpNameGenerator() {
+            nameGenerator = new NameGenerator(NgramModel.townNames(), Config.RANDOM);
+        }
+
+        /**
+         * Creates a new grid with tiles and edges.
+         *
+         * @param mapScale the scale of the map
+         */
+        @Setup(Level.Invocation)
+        public void setUp(final MapScale mapScale) {
+            grid = new HexGridImpl();
+            grid.initTiles(mapScale.scale);
+            grid.initEdges();
+        }
+    }
+
+    /**
+     * Measures {@link HexGridImpl#initTiles(int)}.
+     *
+     * @param mapScale the scale of the map
+     * @return the grid
+     */
+    @Benchmark
+    public HexGridImpl initTiles(final MapScale mapScale) {
+        final HexGridImpl grid = new HexGridImpl();
+        grid.initTiles(mapScale.scale);
+        return grid;
+    }
+
+    /**
+     * Measures {@link HexGridImpl#initEdges()}.
+     *
+     * @param state the grid with tiles
+     * @return the grid
+     */
+    @Benchmark
+    public HexGridImpl initEdges(final TilesOnly state) {
+        state.grid.initEdges();
+        return state.grid;
+    }
+
+    /**
+     * Measures {@link HexGridImpl#initCities(int, NameGenerator)}.
+     *
+     * @param state     the grid without cities
+     * @param cityCount the number of cities
+     * @return the grid
+     */
+    @Benchmark
+    public HexGridImpl initCities(final WithoutCities state, final CityCount cityCount) {
+        state.grid.initCities(cityCount.cities, state.nameGenerator);
+        return state.grid;
+    }
+
+    /**
+     * Measures the whole construction of a map with the shared town name model.
+     *
+     * @param mapScale  the scale of the map
+     * @param cityCount the number of cities
+     * @return the grid
+     */
+    @Benchmark
+    public HexGridImpl fullMap(final MapScale mapScale, final CityCount cityCount) {
+        return new HexGridImpl(mapScale.scale, cityCount.cities, NgramModel.townNames());
+    }
+}
@@ -0,0 +1,77 @@
+package hProjekt.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hProjekt.Config;
+
+/**
+ * Benchmarks training the {@link NameGenerator} on the town names, loading the
+ * precompiled town name model and generating names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NameGeneratorBenchmark {
+    private String[] names;
+    private NameGenerator nameGenerator;
+
+    /**
+     * Reads the town names and creates the name generator used by
+     * {@link #generateName()}.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = NgramModel.readNames(Config.TOWN_NAMES_RESOURCE);
+        nameGenerator = new NameGenerator(NgramModel.townNames(), Config.RANDOM);
+    }
+
+    /**
+     * Measures training a name generator on the town names.
+     *
+     * @return the name generator
+     */
+    @Benchmark
+    public NameGenerator train() {
+        return new NameGenerator(names, Config.NAME_GENERATOR_ORDER, Config.RANDOM);
+    }
+
+    /**
+     * Measures loading the precompiled town name model.
+     *
+     * @return the model
+     * @throws IOException if the model cannot be read
+     */
+    @Benchmark
+    public NgramModel load() throws IOException {
+        try (InputStream in = NgramModel.class.getResourceAsStream(Config.TOWN_NAME_MODEL_RESOURCE)) {
+            return NgramModel.read(in);
+        }
+    }
+
+    /**
+     * Measures generating a single name.
+     *
+     * @return the name
+     */
+    @Benchmark
+    public String generateName() {
+        return nameGenerator.generateName(10);
+    }
+}
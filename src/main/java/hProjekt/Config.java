@@ -1,18 +1,19 @@
 package hProjekt;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import hProjekt.controller.AiController;
 import hProjekt.controller.BasicAiController;
+import hProjekt.controller.SearchAiController;
+import hProjekt.controller.ai.SearchMode;
 import hProjekt.model.Tile;
+import hProjekt.util.NgramModel;
 import javafx.util.Pair;
 
 public class Config {
@@ -98,6 +99,59 @@ public class Config {
      */
     public static int MAP_SCALE = 5;
 
+    /**
+     * The height below which a position of a noise map is water.
+     */
+    public static double NOISE_WATER_LEVEL = 0.3;
+
+    /**
+     * The height above which a position of a noise map is a mountain.
+     */
+    public static double NOISE_MOUNTAIN_LEVEL = 0.6;
+
+    /**
+     * The file the map is loaded from when a map file is selected, see
+     * {@link hProjekt.model.MapFile}.
+     */
+    public static Path MAP_FILE_PATH = Paths.get("map.bin");
+
+    /**
+     * The number of tiles from which on a generated map only stores the edges
+     * with rails, see {@link hProjekt.model.HexGridImpl}.
+     */
+    public static int LAZY_EDGES_MIN_TILES = 20_000;
+
+    /**
+     * The number of maps generated concurrently of which the fairest is played
+     * on, see {@link hProjekt.model.MapAnalyzer#generateFairest}.
+     */
+    public static int MAP_CANDIDATES = 4;
+
+    /**
+     * The number of nearest cities the access of a starting city is measured
+     * with, see {@link hProjekt.model.MapAnalysis#access()}.
+     */
+    public static int FAIRNESS_NEAREST_CITIES = 5;
+
+    /**
+     * The number of tiles from which on the map is drawn onto a canvas instead of
+     * creating nodes for every tile, edge and city, see
+     * {@link hProjekt.view.CanvasHexGridBuilder}.
+     */
+    public static int CANVAS_RENDERER_MIN_TILES = 1_000;
+
+    /**
+     * The zoom below which rails are drawn without gradients and dashes, see
+     * {@link hProjekt.view.DetailLevel}.
+     */
+    public static double REDUCED_DETAIL_SCALE = 0.6;
+
+    /**
+     * The zoom below which the names of the cities are hidden, see
+     * {@link hProjekt.view.DetailLevel}.
+     */
+    public static double MINIMAL_DETAIL_SCALE = 0.35;
+
     /**
      * The maximum number of tiles a player can rent.
      */
@@ -141,24 +195,133 @@ public class Config {
     /**
      * A set of AI controllers that are available for the game.
      */
-    public static final Set<Class<? extends AiController>> AVAILABLE_AI_CONTROLLER = Set.of(BasicAiController.class);
+    public static final Set<Class<? extends AiController>> AVAILABLE_AI_CONTROLLER = Set.of(BasicAiController.class,
+            SearchAiController.class);
+
+    /**
+     * The pool shared by all parallel computations, like the search of the AI.
+     */
+    public static final ForkJoinPool WORKER_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The way the search based AI distributes a single decision on the
+     * {@link #WORKER_POOL}.
+     */
+    public static SearchMode AI_SEARCH_MODE = SearchMode.ROOT_PARALLEL;
+
+    /**
+     * The time in milliseconds the search based AI may spend on a single decision.
+     */
+    public static long AI_SEARCH_TIME_BUDGET = 500;
+
+    /**
+     * The maximum number of search iterations per worker and decision.
+     */
+    public static int AI_SEARCH_MAX_ITERATIONS = 20000;
+
+    /**
+     * The number of entries of the transposition table of each search AI.
+     */
+    public static int AI_TRANSPOSITION_TABLE_SIZE = 1 << 16;
+
+    /**
+     * The number of building rounds covered by cached opening plans.
+     */
+    public static int OPENING_PLAN_ROUNDS = 3;
+
+    /**
+     * The file the opening plans of the AI are cached in.
+     */
+    public static Path OPENING_PLAN_CACHE_PATH = Paths.get("opening_plans.bin");
+
+    /**
+     * The maximum number of cached opening plans.
+     */
+    public static int OPENING_PLAN_CACHE_SIZE = 256;
+
+    /**
+     * The number of iterations every worker of every search of an opening needs,
+     * so the opening is stored as a plan. Like
+     * {@link #AI_SEARCH_MAX_ITERATIONS} it counts per worker. A worker reaches it
+     * well within {@link #AI_SEARCH_TIME_BUDGET} on the default map, so only
+     * openings found by searches that were cut short, e.g. by a busy machine,
+     * are not cached.
+     */
+    public static int OPENING_PLAN_MIN_ITERATIONS = 2000;
+
+    /**
+     * The time in milliseconds an AI waits before executing an action.
+     */
+    public static long AI_ACTION_DELAY = 100;
+
+    /**
+     * The directory where the records of self played games are stored.
+     */
+    public static Path SELF_PLAY_PATH = Paths.get("selfplay");
+
+    /**
+     * The size in bytes after which the self play records are continued in a new
+     * file.
+     */
+    public static long SELF_PLAY_MAX_FILE_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * The number of self play games played at the same time. The games run on
+     * their own pool, so the search of the AI still has the whole
+     * {@link #WORKER_POOL}.
+     */
+    public static int SELF_PLAY_PARALLEL_GAMES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Whether self play drops games when the record writer falls behind instead
+     * of waiting for it.
+     */
+    public static boolean SELF_PLAY_DROP_WHEN_BEHIND = false;
+
+    /**
+     * The order of the markov chain of the name generator.
+     */
+    public static final int NAME_GENERATOR_ORDER = 3;
+
+    /**
+     * The number of names the name generator draws before it makes a taken name
+     * unique with a numeric suffix.
+     */
+    public static int NAME_GENERATOR_MAX_RETRIES = 32;
+
+    /**
+     * The resource with the list of town names the name generator is trained on.
+     */
+    public static final String TOWN_NAMES_RESOURCE = "/town_names_ger.txt";
+
+    /**
+     * The resource with the name generator model precompiled from
+     * {@link #TOWN_NAMES_RESOURCE}, see {@link hProjekt.util.NgramModel#townNames()}.
+     */
+    public static final String TOWN_NAME_MODEL_RESOURCE = "/town_names_ger.ngram";
+
+    /**
+     * A list of town names to train the name generator on, read from
+     * {@link #TOWN_NAMES_RESOURCE}. Games use the precompiled
+     * {@link hProjekt.util.NgramModel#townNames()} instead of training on it.
+     */
+    public static final String[] TOWN_NAMES = NgramModel.readNames(TOWN_NAMES_RESOURCE);
+
+    /**
+     * Whether the diagnostics overlay is shown on the game board and the frame and
+     * queue latencies are measured, see {@link hProjekt.util.Diagnostics}.
+     */
+    public static boolean ENABLE_DIAGNOSTICS = false;
 
     /**
-     * A list of town names to train the name generator on.
+     * The number of recent samples the diagnostics compute percentiles over.
      */
-    public static final String[] TOWN_NAMES;
+    public static final int DIAGNOSTICS_WINDOW = 512;
 
     /**
-     * Loads the town names from a file.
+     * The time in milliseconds between two probes of the
+     * {@code Platform.runLater} queue and between two updates of the diagnostics
+     * overlay.
      */
-    static {
-        String[] names = new String[0];
-        try {
-            names = Files.readAllLines(Paths.get(Config.class.getResource("/town_names_ger.txt").toURI()))
-                    .toArray(String[]::new);
-        } catch (IOException | URISyntaxException e) {
-            e.printStackTrace();
-        }
-        TOWN_NAMES = names;
-    }
+    public static long DIAGNOSTICS_INTERVAL = 250;
 }
@@ -12,8 +12,9 @@ import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 import hProjekt.controller.GameController;
 import hProjekt.controller.gui.SceneSwitcher;
 import hProjekt.controller.gui.SceneSwitcher.SceneType;
+import hProjekt.view.ResourceCache;
 import javafx.application.Application;
-import javafx.scene.image.Image;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 /**
@@ -40,14 +41,17 @@ public class MyApplication extends Application {
             }
         }));
 
+        // Decode images and fonts in the background while the main menu is shown
+        ResourceCache.preload();
+
         stage.setMinWidth(1000);
         stage.setMinHeight(520);
         stage.setWidth(1280);
         stage.setHeight(720);
 
         // Set custom icon in the task bar
-        var appIcon = new Image("/images/stage-icon.png");
-        stage.getIcons().add(appIcon);
+        ResourceCache.getImageAsync("/images/stage-icon.png")
+                .thenAccept(appIcon -> Platform.runLater(() -> stage.getIcons().add(appIcon)));
         if (Taskbar.isTaskbarSupported()) {
             var taskbar = Taskbar.getTaskbar();
             if (taskbar.isSupported(Feature.ICON_IMAGE)) {
@@ -1,5 +1,6 @@
 package hProjekt.controller;
 
+import hProjekt.controller.ai.GameRecord;
 import hProjekt.model.City;
 import hProjekt.model.GameState;
 import hProjekt.model.HexGrid;
@@ -20,6 +21,8 @@ public abstract class AiController {
     protected final HexGrid hexGrid;
     protected final GameState gameState;
     protected final Property<PlayerController> activePlayerController;
+    protected final IntegerProperty diceRollProperty;
+    protected final IntegerProperty roundCounterProperty;
 
     /**
      * Creates a new AI controller with the given player controller, hex grid, game
@@ -31,6 +34,9 @@ public abstract class AiController {
      * @param hexGrid                the hex grid
      * @param gameState              the game state
      * @param activePlayerController the active player controller
+     * @param diceRollProperty       the current dice roll
+     * @param roundCounterProperty   the current round
+     * @param chosenCitiesProperty   the chosen cities
      */
     protected AiController(
             final PlayerController playerController, final HexGrid hexGrid, final GameState gameState,
@@ -40,6 +46,8 @@ public abstract class AiController {
         this.hexGrid = hexGrid;
         this.gameState = gameState;
         this.activePlayerController = activePlayerController;
+        this.diceRollProperty = diceRollProperty;
+        this.roundCounterProperty = roundCounterProperty;
         playerController.getPlayerStateProperty()
                 .subscribe(state -> this.executeActionBasedOnObjective(state.playerObjective()));
     }
@@ -51,4 +59,20 @@ public abstract class AiController {
      * @param objective the player objective
      */
     protected abstract void executeActionBasedOnObjective(final PlayerObjective objective);
+
+    /**
+     * Records a decision of this AI if the game is recorded, see
+     * {@link GameRecord}.
+     * Should be called right before the chosen action is triggered.
+     *
+     * @param legalActionCount the number of actions the AI could choose from
+     * @param chosenAction     an identifier of the chosen action
+     */
+    protected void recordDecision(final int legalActionCount, final int chosenAction) {
+        final GameRecord record = GameRecord.of(gameState);
+        if (record != null) {
+            record.addDecision(playerController.getPlayer(), playerController.getPlayerObjective(),
+                    legalActionCount, chosenAction, diceRollProperty.get(), roundCounterProperty.get());
+        }
+    }
 }
@@ -48,7 +48,7 @@ public class BasicAiController extends AiController {
     @Override
     protected void executeActionBasedOnObjective(PlayerObjective objective) {
         try {
-            Thread.sleep(100);
+            Thread.sleep(Config.AI_ACTION_DELAY);
         } catch (InterruptedException e) {
             throw new RuntimeException("Main thread was interrupted", e);
         }
@@ -56,33 +56,40 @@ public class BasicAiController extends AiController {
         final Set<Class<? extends PlayerAction>> allowedActions = playerController.getPlayerObjective()
                 .getAllowedActions();
         if (allowedActions.contains(RollDiceAction.class)) {
+            recordDecision(1, 0);
             playerController.triggerAction(new RollDiceAction());
         }
         if (allowedActions.contains(BuildRailAction.class)
                 && !playerController.getPlayerState().buildableRailEdges().isEmpty()) {
             int randomIndex = Config.RANDOM.nextInt(playerController.getPlayerState().buildableRailEdges().size());
+            recordDecision(playerController.getPlayerState().buildableRailEdges().size(), randomIndex);
             playerController.triggerAction(new BuildRailAction(
                     List.of(playerController.getPlayerState().buildableRailEdges()
                             .toArray(Edge[]::new)[randomIndex])));
         }
         if (allowedActions.contains(ConfirmBuildAction.class) && playerController.getPlayerState().buildableRailEdges()
                 .isEmpty()) {
+            recordDecision(1, 0);
             playerController.triggerAction(new ConfirmBuildAction());
         }
         if (allowedActions.contains(ChooseCitiesAction.class)) {
+            recordDecision(1, 0);
             playerController.triggerAction(new ChooseCitiesAction());
         }
         if (allowedActions.contains(ConfirmDrive.class)) {
+            recordDecision(2, 0);
             playerController.triggerAction(new ConfirmDrive(true));
         }
         if (allowedActions.contains(DriveAction.class)) {
             int randomIndex = Config.RANDOM.nextInt(playerController.getPlayerState().drivableTiles().size());
+            recordDecision(playerController.getPlayerState().drivableTiles().size(), randomIndex);
             playerController
                     .triggerAction(new DriveAction(
                             playerController.getPlayerState().drivableTiles().keySet()
                                     .toArray(Tile[]::new)[randomIndex]));
         }
         if (allowedActions.contains(ChooseRailsAction.class)) {
+            recordDecision(playerController.getPlayerState().choosableEdges().size() + 1, 0);
             playerController.triggerAction(new ChooseRailsAction(Set.of()));
         }
     }
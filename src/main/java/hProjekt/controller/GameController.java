@@ -12,6 +12,7 @@ import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 import hProjekt.Config;
 import hProjekt.controller.actions.ConfirmBuildAction;
 import hProjekt.controller.actions.PlayerAction;
+import hProjekt.util.NgramModel;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.ReadOnlyProperty;
@@ -64,7 +65,7 @@ public class GameController {
      * supplier.
      */
     public GameController() {
-        this(new GameState(new HexGridImpl(Config.TOWN_NAMES), new ArrayList<>()),
+        this(new GameState(new HexGridImpl(NgramModel.townNames()), new ArrayList<>()),
                 () -> Config.RANDOM.nextInt(1, Config.DICE_SIDES + 1));
     }
 
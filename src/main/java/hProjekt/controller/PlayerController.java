@@ -339,17 +339,12 @@ public class PlayerController {
         }
         else {
             List<Edge> list3 = new LinkedList<>();
-            List<Edge> list2 = gameController.getState().getGrid().getEdges().entrySet().stream().map(s->s.getValue()).toList();
            PlayerState p = playerStateProperty.getValue();
            Set<Edge> set1 = p.rentedEdges();
            List<Edge> list1 = set1.stream().toList();
            for (int i = 0; i < list1.size(); i++) {
-               for (int j = 0; j < list2.size(); j++) {
-                   if (list1.get(i).connectsTo(list2.get(j))) {
-                       list3.add(list2.get(j));
-                   }
-               }
-
+               // the connected edges are found through the adjacent tiles, not by scanning the whole grid
+               list3.addAll(list1.get(i).getConnectedEdges());
            }
            return list3.stream().distinct().collect(Collectors.toSet());
 
@@ -468,6 +463,39 @@ public class PlayerController {
         return chooseableEdges;
     }
 
+    /**
+     * Returns the Pareto optimal routes from the starting city to the target city
+     * over the rails of the player and the rails the player can choose to rent.
+     * Routes rent at most {@link Config#MAX_RENTABLE_DISTANCE} edges and never
+     * cost more credits than the player has.
+     *
+     * @return the Pareto optimal routes sorted by ascending driving cost
+     * @see HexGrid#findRoutes(TilePosition, TilePosition, Set, Player, int, int)
+     */
+    public List<Route> getRoutes() {
+        if (gameController.getStartingCity() == null || gameController.getTargetCity() == null) {
+            return List.of();
+        }
+        final Set<Edge> availableEdges = Stream.concat(getState().getGrid().getRails(player).values().stream(),
+                getChooseableEdges().stream()).collect(Collectors.toSet());
+        return getState().getGrid().findRoutes(gameController.getStartingCity().getPosition(),
+                gameController.getTargetCity().getPosition(), availableEdges, player,
+                Config.MAX_RENTABLE_DISTANCE, player.getCredits());
+    }
+
+    /**
+     * Returns the route with the lowest sum of driving and renting cost among
+     * {@link #getRoutes()}, preferring the cheaper one to rent on ties.
+     *
+     * @return the suggested route or {@code null} if there is no route
+     */
+    public Route getSuggestedRoute() {
+        return getRoutes().stream()
+                .min(Comparator.comparingInt((Route route) -> route.drivingCost() + route.rentingCost())
+                        .thenComparingInt(Route::rentingCost))
+                .orElse(null);
+    }
+
     /**
      * Chooses the edges to rent.
      *
@@ -498,7 +526,7 @@ public class PlayerController {
                 .filter(Edge::hasRail).collect(Collectors.toSet());
         List<Edge> pathEdges = getState().getGrid().findPath(gameController.getStartingCity().getPosition(),
                 gameController.getTargetCity().getPosition(), allAvailableEdges,
-                (from, to) -> getState().getGrid().getEdge(from, to).getDrivingCost(from));
+                (from, to) -> getState().getGrid().getDrivingCost(from, to));
         if (pathEdges.isEmpty()) {
             rentedEdges = new HashSet<>();
             return;
@@ -597,8 +625,7 @@ public class PlayerController {
                     continue;
                 }
 
-                final int drivingCost = getState().getGrid().getEdge(currentPosition, tile.getPosition())
-                        .getDrivingCost(currentPosition);
+                final int drivingCost = getState().getGrid().getDrivingCost(currentPosition, tile.getPosition());
                 int newDistance = currentDistance + drivingCost;
 
                 if (newDistance <= gameController.getCurrentDiceRoll()) {
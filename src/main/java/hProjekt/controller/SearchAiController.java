@@ -0,0 +1,187 @@
+package hProjekt.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import hProjekt.Config;
+import hProjekt.controller.actions.BuildRailAction;
+import hProjekt.controller.actions.ChooseRailsAction;
+import hProjekt.controller.actions.ConfirmBuildAction;
+import hProjekt.controller.ai.ActionStatistics;
+import hProjekt.controller.ai.BoardSnapshot;
+import hProjekt.controller.ai.MapFingerprint;
+import hProjekt.controller.ai.MonteCarloSearch;
+import hProjekt.controller.ai.OpeningPlanCache;
+import hProjekt.controller.ai.SearchResult;
+import hProjekt.controller.ai.TranspositionTable;
+import hProjekt.model.City;
+import hProjekt.model.Edge;
+import hProjekt.model.GameState;
+import hProjekt.model.HexGrid;
+import hProjekt.model.Route;
+import hProjekt.model.TilePosition;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.util.Pair;
+
+/**
+ * An AI controller that decides where to build rails with a
+ * {@link MonteCarloSearch} on a {@link BoardSnapshot} of the current board.
+ * Rails to rent are chosen along the route suggested by
+ * {@link PlayerController#getSuggestedRoute()}.
+ * All other objectives are handled like in the {@link BasicAiController}.
+ * During the first {@link Config#OPENING_PLAN_ROUNDS} rounds the controller
+ * follows the opening plan stored in the {@link OpeningPlanCache} for the
+ * current map, if there is one, and records its own opening otherwise. A
+ * recorded opening is only cached if every worker of all of its searches ran
+ * at least {@link Config#OPENING_PLAN_MIN_ITERATIONS} iterations.
+ */
+public class SearchAiController extends BasicAiController {
+    private final TranspositionTable transpositionTable = new TranspositionTable(
+            Config.AI_TRANSPOSITION_TABLE_SIZE);
+    private final List<Set<TilePosition>> recordedOpening = new ArrayList<>();
+    private List<Set<TilePosition>> openingPlan;
+    private long fingerprint;
+    private boolean openingDone;
+    private boolean openingFullySearched = true;
+
+    /**
+     * Creates a new search AI controller with the given player controller, hex
+     * grid, game state and active player controller.
+     * Adds a subscription to the player objective property to execute actions when
+     * the player's objective changes.
+     *
+     * @param playerController       the player controller
+     * @param hexGrid                the hex grid
+     * @param gameState              the game state
+     * @param activePlayerController the active player controller
+     */
+    public SearchAiController(final PlayerController playerController, final HexGrid hexGrid,
+            final GameState gameState, final Property<PlayerController> activePlayerController,
+            final IntegerProperty diceRollProperty, final IntegerProperty roundCounterProperty,
+            final ReadOnlyProperty<Pair<City, City>> chosenCitiesProperty) {
+        super(playerController, hexGrid, gameState, activePlayerController, diceRollProperty, roundCounterProperty,
+                chosenCitiesProperty);
+    }
+
+    @Override
+    protected void executeActionBasedOnObjective(final PlayerObjective objective) {
+        if (!openingDone && !isOpening()) {
+            finishOpening();
+        }
+        if (playerController.getPlayerObjective().getAllowedActions().contains(ChooseRailsAction.class)) {
+            final Route route = playerController.getSuggestedRoute();
+            final Set<Edge> rentedEdges = route == null ? Set.of() : route.rentedEdges();
+            recordDecision(playerController.getPlayerState().choosableEdges().size() + 1, rentedEdges.size());
+            playerController.triggerAction(new ChooseRailsAction(rentedEdges));
+            return;
+        }
+        if (!playerController.getPlayerObjective().getAllowedActions().contains(BuildRailAction.class)) {
+            super.executeActionBasedOnObjective(objective);
+            return;
+        }
+
+        final Set<Edge> buildableEdges = playerController.getPlayerState().buildableRailEdges();
+        final BoardSnapshot snapshot = BoardSnapshot.of(hexGrid, gameState.getPlayers(),
+                playerController.getPlayer(), playerController.getPlayerState().buildingBudget());
+        Edge edge = openingDone ? null : getPlannedEdge(buildableEdges);
+        if (edge == null && !buildableEdges.isEmpty()) {
+            edge = chooseEdge(snapshot, buildableEdges);
+        }
+        if (edge == null) {
+            recordDecision(buildableEdges.size() + 1, -1);
+            playerController.triggerAction(new ConfirmBuildAction());
+            return;
+        }
+        if (!openingDone) {
+            recordedOpening.add(edge.getAdjacentTilePositions());
+        }
+        recordDecision(buildableEdges.size() + 1, snapshot.getAction(edge));
+        playerController.triggerAction(new BuildRailAction(List.of(edge)));
+    }
+
+    /**
+     * Returns whether the game is still in the rounds covered by opening plans.
+     *
+     * @return whether the game is in its opening
+     */
+    private boolean isOpening() {
+        return gameState.getGamePhaseProperty().getValue() == GamePhase.BUILDING_PHASE
+                && roundCounterProperty.get() <= Config.OPENING_PLAN_ROUNDS;
+    }
+
+    /**
+     * Returns the next edge of the cached opening plan that can be built right
+     * now. Edges of the plan that already carry a rail of the player are skipped.
+     * Loads the plan on first use.
+     *
+     * @param buildableEdges the edges the player controller allows to build on
+     * @return the next planned edge or {@code null} if there is no plan or the
+     *         plan cannot be followed
+     */
+    private Edge getPlannedEdge(final Set<Edge> buildableEdges) {
+        if (openingPlan == null) {
+            fingerprint = MapFingerprint.of(hexGrid);
+            final List<Set<TilePosition>> cached = OpeningPlanCache.shared().get(fingerprint, getSeat());
+            openingPlan = cached == null ? List.of() : cached;
+        }
+        for (Set<TilePosition> positions : openingPlan) {
+            final Edge edge = hexGrid.getEdges().get(positions);
+            if (edge == null || edge.getRailOwners().contains(playerController.getPlayer())) {
+                continue;
+            }
+            return buildableEdges.contains(edge) ? edge : null;
+        }
+        return null;
+    }
+
+    /**
+     * Ends the opening and stores the recorded opening in the
+     * {@link OpeningPlanCache} if no plan was cached for this map yet and every
+     * search of the opening used its full budget.
+     */
+    private void finishOpening() {
+        openingDone = true;
+        if (openingPlan != null && openingPlan.isEmpty() && !recordedOpening.isEmpty() && openingFullySearched) {
+            OpeningPlanCache.shared().put(fingerprint, getSeat(), recordedOpening);
+        }
+    }
+
+    /**
+     * Returns the index of the player in the list of players.
+     *
+     * @return the seat of the player
+     */
+    private int getSeat() {
+        return gameState.getPlayers().indexOf(playerController.getPlayer());
+    }
+
+    /**
+     * Searches the best edge to build a rail on.
+     * Only edges the player controller considers buildable are returned. During
+     * the opening a search with a worker that ran less than
+     * {@link Config#OPENING_PLAN_MIN_ITERATIONS} iterations keeps the opening out
+     * of the {@link OpeningPlanCache}.
+     *
+     * @param snapshot       the snapshot of the current board
+     * @param buildableEdges the edges the player controller allows to build on
+     * @return the best edge to build on or {@code null} if the search found no
+     *         buildable edge worth building
+     */
+    private Edge chooseEdge(final BoardSnapshot snapshot, final Set<Edge> buildableEdges) {
+        final SearchResult result = new MonteCarloSearch(Config.AI_SEARCH_MODE, Config.WORKER_POOL,
+                Config.AI_SEARCH_TIME_BUDGET, Config.AI_SEARCH_MAX_ITERATIONS, Config.RANDOM.nextLong(),
+                transpositionTable).search(snapshot);
+        if (!openingDone && result.minWorkerIterations() < Config.OPENING_PLAN_MIN_ITERATIONS) {
+            openingFullySearched = false;
+        }
+        return result.statistics().stream()
+                .map(ActionStatistics::action)
+                .map(snapshot::getEdge)
+                .filter(buildableEdges::contains)
+                .findFirst()
+                .orElse(null);
+    }
+}
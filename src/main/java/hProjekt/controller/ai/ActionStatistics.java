@@ -0,0 +1,35 @@
+package hProjekt.controller.ai;
+
+/**
+ * The accumulated statistics of an action at the root of a search tree.
+ *
+ * @param action      the action
+ * @param visits      how often the action was visited
+ * @param totalReward the sum of all rewards backed up through the action
+ */
+public record ActionStatistics(int action, long visits, double totalReward) {
+
+    /**
+     * Returns the average reward of the action.
+     *
+     * @return the average reward of the action or 0 if it was never visited
+     */
+    public double meanReward() {
+        return visits == 0 ? 0 : totalReward / visits;
+    }
+
+    /**
+     * Merges the given statistics of the same action into these statistics.
+     *
+     * @param other the statistics to merge
+     * @return the merged statistics
+     * @throws IllegalArgumentException if the statistics belong to different
+     *                                  actions
+     */
+    public ActionStatistics merge(final ActionStatistics other) {
+        if (other.action != action) {
+            throw new IllegalArgumentException("Cannot merge statistics of different actions");
+        }
+        return new ActionStatistics(action, visits + other.visits, totalReward + other.totalReward);
+    }
+}
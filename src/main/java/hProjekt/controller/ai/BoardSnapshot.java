@@ -0,0 +1,520 @@
+package hProjekt.controller.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import hProjekt.Config;
+import hProjekt.model.City;
+import hProjekt.model.Edge;
+import hProjekt.model.HexGrid;
+import hProjekt.model.Player;
+import hProjekt.model.TilePosition;
+import hProjekt.model.TilePosition.EdgeDirection;
+import hProjekt.model.ZobristHash;
+
+/**
+ * A compact, copyable snapshot of the board used to simulate the building of
+ * rails.
+ * The topology of the grid is stored in shared immutable arrays, while the
+ * mutable parts (rail owners, credits and the remaining budget) are stored in
+ * small arrays that are cloned on {@link #copy()}.
+ * Rail owners are stored as bit masks, one bit per player in the order of the
+ * players given to {@link #of(HexGrid, List, Player, int)}.
+ * An action is the index of the edge to build a rail on, see
+ * {@link #getEdge(int)}.
+ * The hash of a snapshot starts at the {@link ZobristHash} of the grid and is
+ * updated with the same keys when rails are built and credits are paid.
+ * <p>
+ * The edges the searching player could connect to are kept as candidates and
+ * updated when a rail is built, so the legal actions are found without
+ * scanning every edge of the grid.
+ */
+public final class BoardSnapshot implements SearchState {
+    /**
+     * The directions that contain every pair of neighbours exactly once.
+     */
+    private static final EdgeDirection[] FORWARD_DIRECTIONS = { EdgeDirection.EAST, EdgeDirection.SOUTH_EAST,
+            EdgeDirection.SOUTH_WEST };
+
+    private final Topology topology;
+    private final int me;
+    private final int[] owners;
+    private final int[] credits;
+    private final int[] tileRails;
+    private final int[] candidates;
+    private final int[] candidateIndices;
+    private int candidateCount;
+    private int budget;
+    private int railCount;
+    private int reachedCities;
+    private long hash;
+
+    /**
+     * The immutable part of a snapshot shared between all copies.
+     *
+     * @param grid          the grid the snapshot was taken of
+     * @param positions     the positions of the tiles in ascending order, indexed
+     *                      by tile
+     * @param edgeFrom      the index of the first tile of each edge
+     * @param edgeTo        the index of the second tile of each edge
+     * @param baseCost      the base building cost of each edge
+     * @param tileEdges     the indices of the edges adjacent to each tile
+     * @param cityTiles     whether a city is placed on each tile
+     * @param startingTiles whether a starting city is placed on each tile
+     * @param cityCount     the number of cities on the board
+     * @param playerIds     the id of each player
+     * @param railKeys      the Zobrist key of a rail of the searching player on
+     *                      each edge
+     */
+    private record Topology(HexGrid grid, TilePosition[] positions, int[] edgeFrom, int[] edgeTo, int[] baseCost,
+            int[][] tileEdges, boolean[] cityTiles, boolean[] startingTiles, int cityCount, int[] playerIds,
+            long[] railKeys) {
+
+        /**
+         * Returns the index of the given edge.
+         *
+         * @param edge the edge
+         * @return the index of the edge or -1 if it is not part of the grid
+         */
+        private int indexOf(final Edge edge) {
+            final int from = Arrays.binarySearch(positions, edge.getPosition1());
+            final int to = Arrays.binarySearch(positions, edge.getPosition2());
+            if (from < 0 || to < 0) {
+                return -1;
+            }
+            for (int index : tileEdges[from]) {
+                if (edgeFrom[index] == to || edgeTo[index] == to) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param topology the shared topology
+     * @param me       the index of the searching player
+     * @param owners   the rail owners of each edge as bit masks
+     * @param credits  the credits of each player
+     * @param budget   the remaining building budget of the searching player
+     * @param hash     the Zobrist hash of the grid
+     */
+    private BoardSnapshot(final Topology topology, final int me, final int[] owners, final int[] credits,
+            final int budget, final long hash) {
+        this.topology = topology;
+        this.me = me;
+        this.owners = owners;
+        this.credits = credits;
+        this.budget = budget;
+        this.hash = hash;
+        this.tileRails = new int[topology.tileEdges().length];
+        this.candidates = new int[owners.length];
+        this.candidateIndices = new int[owners.length];
+        Arrays.fill(candidateIndices, -1);
+        for (int edge = 0; edge < owners.length; edge++) {
+            if (ownsRail(edge)) {
+                tileRails[topology.edgeFrom()[edge]]++;
+                tileRails[topology.edgeTo()[edge]]++;
+                railCount++;
+            }
+        }
+        for (int tile = 0; tile < tileRails.length; tile++) {
+            if (topology.cityTiles()[tile] && tileRails[tile] > 0) {
+                reachedCities++;
+            }
+            if (railCount == 0 ? topology.startingTiles()[tile] : tileRails[tile] > 0) {
+                addCandidates(tile);
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of the given snapshot.
+     *
+     * @param other the snapshot to copy
+     */
+    private BoardSnapshot(final BoardSnapshot other) {
+        this.topology = other.topology;
+        this.me = other.me;
+        this.owners = other.owners.clone();
+        this.credits = other.credits.clone();
+        this.tileRails = other.tileRails.clone();
+        this.candidates = other.candidates.clone();
+        this.candidateIndices = other.candidateIndices.clone();
+        this.candidateCount = other.candidateCount;
+        this.budget = other.budget;
+        this.railCount = other.railCount;
+        this.reachedCities = other.reachedCities;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Creates a snapshot of the given grid from the perspective of the given
+     * player.
+     *
+     * @param grid    the grid to take the snapshot of
+     * @param players all players of the game, at most 32
+     * @param me      the searching player
+     * @param budget  the building budget of the searching player
+     * @return the snapshot
+     */
+    public static BoardSnapshot of(final HexGrid grid, final List<Player> players, final Player me,
+            final int budget) {
+        final Map<TilePosition, Integer> tileIndices = new HashMap<>();
+        final TilePosition[] positions = grid.getTiles().keySet().toArray(TilePosition[]::new);
+        Arrays.sort(positions);
+        for (int i = 0; i < positions.length; i++) {
+            tileIndices.put(positions[i], i);
+        }
+
+        // the edges are found through the adjacency of the tiles, so no edges of a lazy grid are created
+        final List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            for (EdgeDirection direction : FORWARD_DIRECTIONS) {
+                final TilePosition neighbour = TilePosition.neighbour(positions[i], direction);
+                if (grid.getEdges().containsKey(Set.of(positions[i], neighbour))) {
+                    edges.add(new int[] { i, tileIndices.get(neighbour) });
+                }
+            }
+        }
+        final int[] edgeFrom = new int[edges.size()];
+        final int[] edgeTo = new int[edges.size()];
+        final int[] baseCost = new int[edges.size()];
+        final long[] railKeys = new long[edges.size()];
+        final int[] degree = new int[positions.length];
+        for (int i = 0; i < edges.size(); i++) {
+            edgeFrom[i] = edges.get(i)[0];
+            edgeTo[i] = edges.get(i)[1];
+            final TilePosition from = positions[edgeFrom[i]];
+            final TilePosition to = positions[edgeTo[i]];
+            baseCost[i] = Config.TILE_TYPE_TO_BUILDING_COST.get(
+                    Set.copyOf(List.of(grid.getTileAt(from).getType(), grid.getTileAt(to).getType())));
+            railKeys[i] = ZobristHash.railKey(from, to, me.getID());
+            degree[edgeFrom[i]]++;
+            degree[edgeTo[i]]++;
+        }
+        final int[][] tileEdges = new int[positions.length][];
+        for (int tile = 0; tile < positions.length; tile++) {
+            tileEdges[tile] = new int[degree[tile]];
+            degree[tile] = 0;
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            tileEdges[edgeFrom[i]][degree[edgeFrom[i]]++] = i;
+            tileEdges[edgeTo[i]][degree[edgeTo[i]]++] = i;
+        }
+
+        final boolean[] cityTiles = new boolean[positions.length];
+        final boolean[] startingTiles = new boolean[positions.length];
+        for (City city : grid.getCities().values()) {
+            cityTiles[tileIndices.get(city.getPosition())] = true;
+            startingTiles[tileIndices.get(city.getPosition())] = city.isStartingCity();
+        }
+
+        final int[] credits = players.stream().mapToInt(Player::getCredits).toArray();
+        final int[] playerIds = players.stream().mapToInt(Player::getID).toArray();
+        final Topology topology = new Topology(grid, positions, edgeFrom, edgeTo, baseCost, tileEdges, cityTiles,
+                startingTiles, grid.getCities().size(), playerIds, railKeys);
+        final int[] owners = new int[edges.size()];
+        for (Edge rail : grid.getRails().values()) {
+            final int action = topology.indexOf(rail);
+            for (Player owner : rail.getRailOwners()) {
+                owners[action] |= 1 << players.indexOf(owner);
+            }
+        }
+        return new BoardSnapshot(topology, players.indexOf(me), owners, credits, budget,
+                grid.getZobristHash().get());
+    }
+
+    /**
+     * Returns the edge the given action builds on.
+     *
+     * @param action the action
+     * @return the edge the given action builds on
+     */
+    public Edge getEdge(final int action) {
+        return topology.grid().getEdge(topology.positions()[topology.edgeFrom()[action]],
+                topology.positions()[topology.edgeTo()[action]]);
+    }
+
+    /**
+     * Returns the action that builds on the given edge.
+     *
+     * @param edge the edge
+     * @return the action that builds on the given edge or -1 if the edge is not
+     *         part of this snapshot
+     */
+    public int getAction(final Edge edge) {
+        return topology.indexOf(edge);
+    }
+
+    /**
+     * Returns the remaining building budget of the searching player.
+     *
+     * @return the remaining building budget
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the credits of the searching player.
+     *
+     * @return the credits of the searching player
+     */
+    public int getCredits() {
+        return credits[me];
+    }
+
+    /**
+     * Returns the number of cities the rails of the searching player reach.
+     *
+     * @return the number of reached cities
+     */
+    public int getReachedCities() {
+        return reachedCities;
+    }
+
+    @Override
+    public BoardSnapshot copy() {
+        return new BoardSnapshot(this);
+    }
+
+    @Override
+    public int[] getLegalActions() {
+        final int[] actions = new int[candidateCount];
+        int count = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            if (canBuild(candidates[i])) {
+                actions[count++] = candidates[i];
+            }
+        }
+        return count == actions.length ? actions : Arrays.copyOf(actions, count);
+    }
+
+    @Override
+    public void apply(final int edge) {
+        final int railOwners = getParallelRailOwners(edge);
+        final int neighbourOwners = getParallelNeighbourOwners(edge) & ~railOwners;
+        final int railCost = getParallelRailCost(edge);
+        for (int player = 0; player < credits.length; player++) {
+            final int cost = (railOwners & 1 << player) != 0 ? railCost
+                    : (neighbourOwners & 1 << player) != 0 ? 1 : 0;
+            if (cost != 0) {
+                changeCredits(player, cost);
+                changeCredits(me, -cost);
+            }
+        }
+        budget -= topology.baseCost()[edge];
+        owners[edge] |= 1 << me;
+        hash ^= topology.railKeys()[edge];
+        if (railCount++ == 0) {
+            // the first rail replaces the starting cities as what new rails connect to
+            while (candidateCount > 0) {
+                removeCandidate(candidates[0]);
+            }
+        }
+        removeCandidate(edge);
+        addRail(topology.edgeFrom()[edge], edge);
+        addRail(topology.edgeTo()[edge], edge);
+    }
+
+    /**
+     * Counts the new rail at the given tile. The first rail of the searching
+     * player at a tile makes the edges of the tile candidates and reaches the
+     * city on the tile, which may grant the connection bonus.
+     *
+     * @param tile the tile of the new rail
+     * @param edge the edge of the new rail
+     */
+    private void addRail(final int tile, final int edge) {
+        if (tileRails[tile]++ != 0) {
+            return;
+        }
+        addCandidates(tile);
+        if (topology.cityTiles()[tile]) {
+            reachedCities++;
+            if (!topology.startingTiles()[tile] && !hasAnyRail(tile, edge)) {
+                changeCredits(me, Config.CITY_CONNECTION_BONUS);
+            }
+        }
+    }
+
+    /**
+     * Adds the edges of the given tile the searching player has no rail on to
+     * the candidates.
+     *
+     * @param tile the tile
+     */
+    private void addCandidates(final int tile) {
+        for (int edge : topology.tileEdges()[tile]) {
+            if (!ownsRail(edge) && candidateIndices[edge] < 0) {
+                candidateIndices[edge] = candidateCount;
+                candidates[candidateCount++] = edge;
+            }
+        }
+    }
+
+    /**
+     * Removes the given edge from the candidates by moving the last candidate
+     * into its place.
+     *
+     * @param edge the edge to remove
+     */
+    private void removeCandidate(final int edge) {
+        final int index = candidateIndices[edge];
+        if (index < 0) {
+            return;
+        }
+        final int last = candidates[--candidateCount];
+        candidates[index] = last;
+        candidateIndices[last] = index;
+        candidateIndices[edge] = -1;
+    }
+
+    /**
+     * Changes the credits of the given player and updates the hash.
+     *
+     * @param player the index of the player
+     * @param amount the amount to add, may be negative
+     */
+    private void changeCredits(final int player, final int amount) {
+        final int id = topology.playerIds()[player];
+        hash ^= ZobristHash.creditsKey(id, credits[player]);
+        credits[player] += amount;
+        hash ^= ZobristHash.creditsKey(id, credits[player]);
+    }
+
+    @Override
+    public boolean isTerminal() {
+        for (int i = 0; i < candidateCount; i++) {
+            if (canBuild(candidates[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getHash() {
+        // the remaining budget is not part of the game's hash, but limits the
+        // actions of the snapshot
+        return hash ^ budget * 0x9e3779b97f4a7c15L;
+    }
+
+    @Override
+    public double getReward() {
+        return topology.cityCount() == 0 ? 0 : (double) reachedCities / topology.cityCount();
+    }
+
+    /**
+     * Returns whether the searching player can build a rail on the given
+     * candidate edge, which connects to a rail of the player or, if the player has
+     * no rails yet, to a starting city. The player has to be able to pay the base
+     * cost with the budget and the parallel cost with the credits.
+     *
+     * @param edge the candidate edge to check
+     * @return whether the searching player can build on the given edge
+     */
+    private boolean canBuild(final int edge) {
+        if (topology.baseCost()[edge] > budget) {
+            return false;
+        }
+        final int railOwners = getParallelRailOwners(edge);
+        final int neighbourOwners = getParallelNeighbourOwners(edge) & ~railOwners;
+        return Integer.bitCount(railOwners) * getParallelRailCost(edge) + Integer.bitCount(neighbourOwners)
+                <= credits[me];
+    }
+
+    /**
+     * Returns the players the searching player has to pay the parallel rail cost
+     * to when building on the given edge, mirroring
+     * {@link Edge#getParallelCostPerPlayer(Player)}.
+     *
+     * @param edge the edge to build on
+     * @return the players to pay as a bit mask
+     */
+    private int getParallelRailOwners(final int edge) {
+        final int edgeOwners = owners[edge];
+        return edgeOwners != 1 << me ? edgeOwners : 0;
+    }
+
+    /**
+     * Returns the parallel rail cost per player of the given edge, which is lower
+     * if the edge leads to a city.
+     *
+     * @param edge the edge to build on
+     * @return the cost per owner of a rail on the edge
+     */
+    private int getParallelRailCost(final int edge) {
+        return topology.cityTiles()[topology.edgeFrom()[edge]] || topology.cityTiles()[topology.edgeTo()[edge]]
+                ? 3 : 5;
+    }
+
+    /**
+     * Returns the players the searching player has to pay one credit to when
+     * building on the given edge, because they have rails next to it at a tile
+     * without a city the searching player has no rail at, mirroring
+     * {@link Edge#getParallelCostPerPlayer(Player)}.
+     *
+     * @param edge the edge to build on
+     * @return the players to pay as a bit mask
+     */
+    private int getParallelNeighbourOwners(final int edge) {
+        return getParallelNeighbourOwners(topology.edgeFrom()[edge], edge)
+                | getParallelNeighbourOwners(topology.edgeTo()[edge], edge);
+    }
+
+    /**
+     * Returns the owners of the rails at the given tile, ignoring the given edge,
+     * if the tile has no city and the searching player has no rail there.
+     *
+     * @param tile the tile
+     * @param edge the edge to ignore
+     * @return the owners as a bit mask
+     */
+    private int getParallelNeighbourOwners(final int tile, final int edge) {
+        if (topology.cityTiles()[tile]) {
+            return 0;
+        }
+        int neighbourOwners = 0;
+        for (int other : topology.tileEdges()[tile]) {
+            if (other != edge) {
+                neighbourOwners |= owners[other];
+            }
+        }
+        return (neighbourOwners & 1 << me) != 0 ? 0 : neighbourOwners;
+    }
+
+    /**
+     * Returns whether the searching player owns a rail on the given edge.
+     *
+     * @param edge the edge to check
+     * @return whether the searching player owns a rail on the given edge
+     */
+    private boolean ownsRail(final int edge) {
+        return (owners[edge] & 1 << me) != 0;
+    }
+
+    /**
+     * Returns whether any player has a rail on an edge adjacent to the given tile,
+     * ignoring the given edge.
+     *
+     * @param tile    the tile to check
+     * @param ignored the edge to ignore
+     * @return whether any other rail is adjacent to the given tile
+     */
+    private boolean hasAnyRail(final int tile, final int ignored) {
+        for (int edge : topology.tileEdges()[tile]) {
+            if (edge != ignored && owners[edge] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package hProjekt.controller.ai;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import hProjekt.controller.PlayerObjective;
+import hProjekt.model.GameState;
+import hProjekt.model.Player;
+
+/**
+ * Collects the decision points of a single game in a compact binary form.
+ * Every decision is stored as a fixed size record of {@link #RECORD_SIZE}
+ * bytes in little endian byte order:
+ * <ul>
+ * <li>{@code int} game index</li>
+ * <li>{@code short} round</li>
+ * <li>{@code byte} player id</li>
+ * <li>{@code byte} ordinal of the {@link PlayerObjective}</li>
+ * <li>{@code short} number of legal actions</li>
+ * <li>{@code int} chosen action, an identifier chosen by the AI</li>
+ * <li>{@code byte} dice roll</li>
+ * <li>{@code byte} final rank of the player, 1 is the winner</li>
+ * <li>{@code int} credits of the player</li>
+ * </ul>
+ * The final rank is only known at the end of the game and is filled in by
+ * {@link #finish(List)}.
+ * Game records are attached to a {@link GameState} so the AI controllers of the
+ * game can find them, see {@link #of(GameState)}.
+ */
+public final class GameRecord {
+    /**
+     * The size of a single decision record in bytes.
+     */
+    public static final int RECORD_SIZE = 20;
+
+    private static final int PLAYER_OFFSET = 6;
+    private static final int RANK_OFFSET = 15;
+
+    private static final Map<GameState, GameRecord> RECORDS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final int gameIndex;
+    private ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 256).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Creates a new empty record for the game with the given index.
+     *
+     * @param gameIndex the index of the game
+     */
+    public GameRecord(final int gameIndex) {
+        this.gameIndex = gameIndex;
+    }
+
+    /**
+     * Attaches the given record to the given game state.
+     *
+     * @param state  the game state
+     * @param record the record to attach
+     */
+    public static void attach(final GameState state, final GameRecord record) {
+        RECORDS.put(state, record);
+    }
+
+    /**
+     * Detaches the record from the given game state.
+     *
+     * @param state the game state
+     * @return the detached record or {@code null} if there was none
+     */
+    public static GameRecord detach(final GameState state) {
+        return RECORDS.remove(state);
+    }
+
+    /**
+     * Returns the record attached to the given game state.
+     *
+     * @param state the game state
+     * @return the attached record or {@code null} if the game is not recorded
+     */
+    public static GameRecord of(final GameState state) {
+        return RECORDS.get(state);
+    }
+
+    /**
+     * Appends a decision point to this record.
+     *
+     * @param player           the deciding player
+     * @param objective        the objective of the player
+     * @param legalActionCount the number of actions the player could choose from
+     * @param chosenAction     the chosen action
+     * @param diceRoll         the current dice roll
+     * @param round            the current round
+     */
+    public synchronized void addDecision(final Player player, final PlayerObjective objective,
+            final int legalActionCount, final int chosenAction, final int diceRoll, final int round) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            final ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        buffer.putInt(gameIndex)
+                .putShort((short) Math.min(round, Short.MAX_VALUE))
+                .put((byte) player.getID())
+                .put((byte) objective.ordinal())
+                .putShort((short) Math.min(legalActionCount, Short.MAX_VALUE))
+                .putInt(chosenAction)
+                .put((byte) diceRoll)
+                .put((byte) 0)
+                .putInt(player.getCredits());
+    }
+
+    /**
+     * Returns the number of recorded decisions.
+     *
+     * @return the number of recorded decisions
+     */
+    public synchronized int size() {
+        return buffer.position() / RECORD_SIZE;
+    }
+
+    /**
+     * Fills in the final rank of every decision and returns the records ready to
+     * be written. Players are ranked by their credits.
+     *
+     * @param players the players of the game
+     * @return a buffer containing all records, positioned at the first record
+     */
+    public synchronized ByteBuffer finish(final List<Player> players) {
+        final List<Player> ranking = players.stream()
+                .sorted(Comparator.comparingInt(Player::getCredits).reversed())
+                .toList();
+        final byte[] ranks = new byte[players.stream().mapToInt(Player::getID).max().orElse(0) + 1];
+        for (int i = 0; i < ranking.size(); i++) {
+            ranks[ranking.get(i).getID()] = (byte) (i + 1);
+        }
+        for (int offset = 0; offset < buffer.position(); offset += RECORD_SIZE) {
+            final int id = buffer.get(offset + PLAYER_OFFSET);
+            if (id >= 0 && id < ranks.length) {
+                buffer.put(offset + RANK_OFFSET, ranks[id]);
+            }
+        }
+        final ByteBuffer result = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        result.flip();
+        return result;
+    }
+}
@@ -0,0 +1,283 @@
+package hProjekt.controller.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes finished {@link GameRecord}s to rotating binary files on a background
+ * thread.
+ * Simulation threads only hand over their buffers with {@link #submit(ByteBuffer)}.
+ * If the writer falls too far behind, submitting waits until there is room in
+ * the queue again, so no game is lost. Writers created with
+ * {@code dropWhenFull} never block and drop and count games instead of slowing
+ * down the simulation.
+ * Every file starts with a header of {@link #HEADER_SIZE} bytes in little endian
+ * byte order: the magic number {@link #MAGIC}, the format version as
+ * {@code short}, the record size as {@code short} and the index of the file as
+ * {@code int}, followed by a reserved {@code int}.
+ * Records of a game are never split across files.
+ */
+public class GameRecordWriter implements AutoCloseable {
+    /**
+     * The magic number at the start of every record file.
+     */
+    public static final int MAGIC = 0x50535048;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private static final short VERSION = 1;
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private final Path directory;
+    private final String prefix;
+    private final long maxFileSize;
+    private final BlockingQueue<ByteBuffer> queue;
+    private final boolean dropWhenFull;
+    private final ByteBuffer outputBuffer = ByteBuffer.allocateDirect(1 << 20);
+    private final AtomicLong droppedGames = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final Thread thread;
+    private FileChannel channel;
+    private int fileIndex = -1;
+    private long fileSize;
+
+    /**
+     * Creates a new writer that never drops games and starts its background
+     * thread.
+     *
+     * @param directory     the directory to write the files to, created if
+     *                      necessary
+     * @param prefix        the prefix of the file names
+     * @param maxFileSize   the size in bytes after which a new file is started
+     * @param queueCapacity the number of games that may wait to be written
+     * @throws IOException if the directory cannot be created
+     */
+    public GameRecordWriter(final Path directory, final String prefix, final long maxFileSize,
+            final int queueCapacity) throws IOException {
+        this(directory, prefix, maxFileSize, queueCapacity, false);
+    }
+
+    /**
+     * Creates a new writer and starts its background thread.
+     *
+     * @param directory     the directory to write the files to, created if
+     *                      necessary
+     * @param prefix        the prefix of the file names
+     * @param maxFileSize   the size in bytes after which a new file is started
+     * @param queueCapacity the number of games that may wait to be written
+     * @param dropWhenFull  whether games are dropped instead of waiting if the
+     *                      queue is full
+     * @throws IOException if the directory cannot be created
+     */
+    public GameRecordWriter(final Path directory, final String prefix, final long maxFileSize,
+            final int queueCapacity, final boolean dropWhenFull) throws IOException {
+        this(directory, prefix, maxFileSize, queueCapacity, dropWhenFull, Thread::new);
+    }
+
+    /**
+     * Creates a new writer and starts its background thread, created by the given
+     * factory.
+     *
+     * @param directory     the directory to write the files to, created if
+     *                      necessary
+     * @param prefix        the prefix of the file names
+     * @param maxFileSize   the size in bytes after which a new file is started
+     * @param queueCapacity the number of games that may wait to be written
+     * @param dropWhenFull  whether games are dropped instead of waiting if the
+     *                      queue is full
+     * @param threadFactory creates the background thread
+     * @throws IOException if the directory cannot be created
+     */
+    GameRecordWriter(final Path directory, final String prefix, final long maxFileSize,
+            final int queueCapacity, final boolean dropWhenFull, final ThreadFactory threadFactory)
+            throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.prefix = prefix;
+        this.maxFileSize = maxFileSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropWhenFull = dropWhenFull;
+        this.thread = threadFactory.newThread(this::run);
+        thread.setName("GameRecordWriterThread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Hands the records of a finished game over to the writer.
+     * Waits for room in the queue if it is full, unless the writer drops games.
+     *
+     * @param records the records of the game, see {@link GameRecord#finish(java.util.List)}
+     * @return {@code true} if the game will be written, {@code false} if it was
+     *         dropped or the thread was interrupted while waiting
+     */
+    public boolean submit(final ByteBuffer records) {
+        if (!records.hasRemaining()) {
+            return true;
+        }
+        if (dropWhenFull) {
+            if (!queue.offer(records)) {
+                droppedGames.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+        try {
+            queue.put(records);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedGames.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of games that were dropped because the writer could not
+     * keep up or the submitting thread was interrupted.
+     *
+     * @return the number of dropped games
+     */
+    public long getDroppedGames() {
+        return droppedGames.get();
+    }
+
+    /**
+     * Returns the number of record bytes written so far, excluding headers.
+     *
+     * @return the number of written record bytes
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    /**
+     * Writes all pending games and closes the current file.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer
+     */
+    @Override
+    public void close() throws InterruptedException {
+        queue.put(END_OF_STREAM);
+        thread.join();
+    }
+
+    /**
+     * The loop of the background thread. Collects games in the output buffer and
+     * writes it whenever it is full or no more games are waiting.
+     */
+    private void run() {
+        try {
+            while (true) {
+                final ByteBuffer records = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (records == null) {
+                    flush();
+                    continue;
+                }
+                if (records == END_OF_STREAM) {
+                    break;
+                }
+                append(records);
+            }
+            flush();
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Couldn't write the self play records: " + e.getMessage());
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the records of a game to the output buffer, rotating the file if the
+     * game does not fit into the current one anymore.
+     *
+     * @param records the records of the game
+     * @throws IOException if writing fails
+     */
+    private void append(final ByteBuffer records) throws IOException {
+        // games still in the output buffer count towards the current file
+        final long buffered = fileSize + outputBuffer.position();
+        if (channel == null || buffered > HEADER_SIZE && buffered + records.remaining() > maxFileSize) {
+            flush();
+            rotate();
+        }
+        if (records.remaining() > outputBuffer.remaining()) {
+            flush();
+        }
+        if (records.remaining() > outputBuffer.capacity()) {
+            write(records);
+            return;
+        }
+        outputBuffer.put(records);
+    }
+
+    /**
+     * Writes the content of the output buffer to the current file.
+     *
+     * @throws IOException if writing fails
+     */
+    private void flush() throws IOException {
+        if (outputBuffer.position() == 0) {
+            return;
+        }
+        outputBuffer.flip();
+        write(outputBuffer);
+        outputBuffer.clear();
+    }
+
+    /**
+     * Writes the given buffer completely to the current file.
+     *
+     * @param buffer the buffer to write
+     * @throws IOException if writing fails
+     */
+    private void write(final ByteBuffer buffer) throws IOException {
+        final int size = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        fileSize += size;
+        writtenBytes.addAndGet(size);
+    }
+
+    /**
+     * Closes the current file and starts the next one.
+     *
+     * @throws IOException if the file cannot be created
+     */
+    private void rotate() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        fileIndex++;
+        channel = FileChannel.open(directory.resolve(String.format("%s-%05d.bin", prefix, fileIndex)),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) GameRecord.RECORD_SIZE)
+                .putInt(fileIndex)
+                .putInt(0)
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        fileSize = HEADER_SIZE;
+    }
+}
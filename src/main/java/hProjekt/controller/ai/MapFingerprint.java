@@ -0,0 +1,71 @@
+package hProjekt.controller.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hProjekt.model.City;
+import hProjekt.model.HexGrid;
+import hProjekt.model.Tile;
+import hProjekt.model.TilePosition;
+
+/**
+ * Computes a structural hash of a map.
+ * The hash covers the position and type of every tile and the position, name
+ * and starting flag of every city. It does not depend on the iteration order of
+ * the grid's maps, so two grids built from the same seed have the same
+ * fingerprint. Rails are not part of the fingerprint.
+ */
+public final class MapFingerprint {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private MapFingerprint() {
+    }
+
+    /**
+     * Returns the fingerprint of the given grid.
+     *
+     * @param grid the grid
+     * @return the fingerprint of the given grid
+     */
+    public static long of(final HexGrid grid) {
+        long hash = FNV_OFFSET;
+
+        final List<TilePosition> positions = new ArrayList<>(grid.getTiles().keySet());
+        positions.sort(null);
+        hash = mix(hash, positions.size());
+        for (TilePosition position : positions) {
+            final Tile tile = grid.getTileAt(position);
+            hash = mix(hash, position.q());
+            hash = mix(hash, position.r());
+            hash = mix(hash, tile.getType().ordinal());
+        }
+
+        final List<TilePosition> cityPositions = new ArrayList<>(grid.getCities().keySet());
+        cityPositions.sort(null);
+        hash = mix(hash, cityPositions.size());
+        for (TilePosition position : cityPositions) {
+            final City city = grid.getCityAt(position);
+            hash = mix(hash, position.q());
+            hash = mix(hash, position.r());
+            hash = mix(hash, city.getName().hashCode());
+            hash = mix(hash, city.isStartingCity() ? 1 : 0);
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes the four bytes of the given value into the given hash using FNV-1a.
+     *
+     * @param hash  the current hash
+     * @param value the value to mix in
+     * @return the new hash
+     */
+    private static long mix(long hash, final int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
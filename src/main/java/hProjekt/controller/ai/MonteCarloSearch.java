@@ -0,0 +1,261 @@
+package hProjekt.controller.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * A Monte Carlo tree search using the UCT selection policy.
+ * Depending on the {@link SearchMode} the search runs on the calling thread or
+ * distributes its work on the given {@link ForkJoinPool}. Every worker operates
+ * on its own copy of the searched state, so states do not need to be thread
+ * safe.
+ * If a {@link TranspositionTable} is given, the rollout results of expanded
+ * states are shared through it. A state that was already explored often
+ * enough, by any worker and through any move order, is evaluated with the
+ * stored mean reward instead of a new rollout.
+ */
+public class MonteCarloSearch {
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int MIN_TRANSPOSITION_VISITS = 4;
+
+    private final SearchMode mode;
+    private final ForkJoinPool pool;
+    private final long timeBudgetMillis;
+    private final int maxIterations;
+    private final long seed;
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * Creates a new search without a transposition table.
+     *
+     * @param mode             the way the search distributes its work
+     * @param pool             the pool to run the workers on
+     * @param timeBudgetMillis the time after which every worker stops searching
+     * @param maxIterations    the maximum number of iterations per worker
+     * @param seed             the seed for the rollout randomness
+     */
+    public MonteCarloSearch(final SearchMode mode, final ForkJoinPool pool, final long timeBudgetMillis,
+            final int maxIterations, final long seed) {
+        this(mode, pool, timeBudgetMillis, maxIterations, seed, null);
+    }
+
+    /**
+     * Creates a new search.
+     *
+     * @param mode               the way the search distributes its work
+     * @param pool               the pool to run the workers on
+     * @param timeBudgetMillis   the time after which every worker stops searching
+     * @param maxIterations      the maximum number of iterations per worker
+     * @param seed               the seed for the rollout randomness
+     * @param transpositionTable the table shared by all workers or {@code null}
+     */
+    public MonteCarloSearch(final SearchMode mode, final ForkJoinPool pool, final long timeBudgetMillis,
+            final int maxIterations, final long seed, final TranspositionTable transpositionTable) {
+        this.mode = mode;
+        this.pool = pool;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxIterations = maxIterations;
+        this.seed = seed;
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Searches the given state and returns the statistics of its actions.
+     * The given state is not modified.
+     *
+     * @param root the state to search
+     * @return the statistics of the actions of the given state
+     */
+    public SearchResult search(final SearchState root) {
+        final long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        final SplittableRandom random = new SplittableRandom(seed);
+        if (transpositionTable != null) {
+            transpositionTable.newGeneration();
+        }
+        return switch (mode) {
+            case SEQUENTIAL -> new Tree(root.copy(), random).run(deadline, 1);
+            case ROOT_PARALLEL -> searchRootParallel(root, deadline, random);
+            case LEAF_PARALLEL -> new Tree(root.copy(), random).run(deadline, pool.getParallelism());
+        };
+    }
+
+    /**
+     * Builds one independent tree per worker and merges their root statistics.
+     *
+     * @param root     the state to search
+     * @param deadline the time in nanoseconds at which the workers stop
+     * @param random   the random source to derive the worker random sources from
+     * @return the merged statistics
+     */
+    private SearchResult searchRootParallel(final SearchState root, final long deadline,
+            final SplittableRandom random) {
+        final List<ForkJoinTask<SearchResult>> workers = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            final Tree tree = new Tree(root.copy(), random.split());
+            workers.add(pool.submit(() -> tree.run(deadline, 1)));
+        }
+        return SearchResult.merge(workers.stream().map(ForkJoinTask::join).toList());
+    }
+
+    /**
+     * Plays random actions on the given state until it is terminal.
+     *
+     * @param state  the state to play on, gets modified
+     * @param random the random source
+     * @return the reward of the terminal state
+     */
+    private static double rollout(final SearchState state, final SplittableRandom random) {
+        while (!state.isTerminal()) {
+            final int[] actions = state.getLegalActions();
+            if (actions.length == 0) {
+                break;
+            }
+            state.apply(actions[random.nextInt(actions.length)]);
+        }
+        return state.getReward();
+    }
+
+    /**
+     * A node of the search tree.
+     */
+    private static final class Node {
+        private final Node parent;
+        private final int action;
+        private final List<Node> children = new ArrayList<>();
+        private final int[] untriedActions;
+        private int untriedCount;
+        private long visits;
+        private double totalReward;
+
+        /**
+         * Creates a new node.
+         *
+         * @param parent the parent node or {@code null} for the root
+         * @param action the action leading to this node
+         * @param state  the state of this node
+         */
+        private Node(final Node parent, final int action, final SearchState state) {
+            this.parent = parent;
+            this.action = action;
+            this.untriedActions = state.isTerminal() ? new int[0] : state.getLegalActions();
+            this.untriedCount = untriedActions.length;
+        }
+
+        /**
+         * Returns the child with the highest UCT value.
+         *
+         * @return the child with the highest UCT value
+         */
+        private Node selectChild() {
+            final double logVisits = Math.log(visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                final double value = child.totalReward / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * A single search tree owned by one thread.
+     */
+    private final class Tree {
+        private final SearchState rootState;
+        private final SplittableRandom random;
+        private final Node root;
+
+        /**
+         * Creates a new tree for the given state.
+         *
+         * @param rootState the state of the root, owned by this tree
+         * @param random    the random source, owned by this tree
+         */
+        private Tree(final SearchState rootState, final SplittableRandom random) {
+            this.rootState = rootState;
+            this.random = random;
+            this.root = new Node(null, -1, rootState);
+        }
+
+        /**
+         * Runs iterations until the deadline or the iteration limit is reached.
+         *
+         * @param deadline         the time in nanoseconds at which the search stops
+         * @param rolloutsPerLeaf  the number of rollouts per expanded leaf, rollouts
+         *                         are run on the pool if greater than one
+         * @return the statistics of the root actions
+         */
+        private SearchResult run(final long deadline, final int rolloutsPerLeaf) {
+            long iterations = 0;
+            while (iterations < maxIterations && System.nanoTime() < deadline) {
+                iterate(rolloutsPerLeaf);
+                iterations++;
+                if (root.untriedCount == 0 && root.children.isEmpty()) {
+                    break;
+                }
+            }
+            return SearchResult.of(root.children.stream()
+                    .map(child -> new ActionStatistics(child.action, child.visits, child.totalReward))
+                    .toList(), iterations);
+        }
+
+        /**
+         * Performs one selection, expansion, simulation and backpropagation step.
+         *
+         * @param rolloutsPerLeaf the number of rollouts for the expanded leaf
+         */
+        private void iterate(final int rolloutsPerLeaf) {
+            final SearchState state = rootState.copy();
+            Node node = root;
+            while (node.untriedCount == 0 && !node.children.isEmpty()) {
+                node = node.selectChild();
+                state.apply(node.action);
+            }
+            if (node.untriedCount > 0) {
+                final int index = random.nextInt(node.untriedCount);
+                final int action = node.untriedActions[index];
+                node.untriedActions[index] = node.untriedActions[--node.untriedCount];
+                state.apply(action);
+                final Node child = new Node(node, action, state);
+                node.children.add(child);
+                node = child;
+            }
+
+            final long hash = transpositionTable == null ? 0 : state.getHash();
+            final long entry = transpositionTable == null ? TranspositionTable.MISSING
+                    : transpositionTable.probe(hash);
+            final double reward;
+            if (TranspositionTable.getVisits(entry) >= MIN_TRANSPOSITION_VISITS) {
+                reward = TranspositionTable.getMeanReward(entry) * rolloutsPerLeaf;
+            } else {
+                if (rolloutsPerLeaf > 1) {
+                    final SplittableRandom[] randoms = new SplittableRandom[rolloutsPerLeaf];
+                    for (int i = 0; i < rolloutsPerLeaf; i++) {
+                        randoms[i] = random.split();
+                    }
+                    reward = pool.submit(() -> IntStream.range(0, rolloutsPerLeaf).parallel()
+                            .mapToDouble(i -> rollout(state.copy(), randoms[i])).sum()).join();
+                } else {
+                    reward = rollout(state, random);
+                }
+                if (transpositionTable != null) {
+                    transpositionTable.store(hash, rolloutsPerLeaf, reward);
+                }
+            }
+
+            for (Node current = node; current != null; current = current.parent) {
+                current.visits += rolloutsPerLeaf;
+                current.totalReward += reward;
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package hProjekt.controller.ai;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import hProjekt.Config;
+import hProjekt.model.TilePosition;
+
+/**
+ * A cache of opening build plans, keyed by the {@link MapFingerprint} of the
+ * map and the seat of the player.
+ * A plan is the ordered list of edges a player built in the first rounds of
+ * the building phase, every edge given by its two adjacent tile positions.
+ * The cache keeps at most a fixed number of plans and evicts the least
+ * recently used one. It is stored in a single binary file that is read on
+ * creation and rewritten whenever a plan is added.
+ * All methods are thread safe.
+ */
+public final class OpeningPlanCache {
+    private static final int MAGIC = 0x4f504348;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final Map<Key, List<Set<TilePosition>>> plans;
+
+    /**
+     * The key of a plan.
+     *
+     * @param fingerprint the fingerprint of the map
+     * @param seat        the index of the player in the list of players
+     */
+    private record Key(long fingerprint, int seat) {
+    }
+
+    /**
+     * Holds the shared cache, so it is only loaded when first used.
+     */
+    private static final class Holder {
+        private static final OpeningPlanCache SHARED = new OpeningPlanCache(Config.OPENING_PLAN_CACHE_PATH,
+                Config.OPENING_PLAN_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new cache stored in the given file and loads the plans already
+     * stored there.
+     *
+     * @param file     the file to store the plans in
+     * @param capacity the maximum number of plans
+     */
+    public OpeningPlanCache(final Path file, final int capacity) {
+        this.file = file;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, List<Set<TilePosition>>> eldest) {
+                return size() > capacity;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Returns the cache shared by all games, stored at
+     * {@link Config#OPENING_PLAN_CACHE_PATH}.
+     *
+     * @return the shared cache
+     */
+    public static OpeningPlanCache shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Returns the plan for the given map and seat and marks it as recently used.
+     *
+     * @param fingerprint the fingerprint of the map
+     * @param seat        the index of the player in the list of players
+     * @return the plan or {@code null} if there is none
+     */
+    public synchronized List<Set<TilePosition>> get(final long fingerprint, final int seat) {
+        return plans.get(new Key(fingerprint, seat));
+    }
+
+    /**
+     * Stores the plan for the given map and seat, replacing an existing plan, and
+     * writes the cache to disk.
+     *
+     * @param fingerprint the fingerprint of the map
+     * @param seat        the index of the player in the list of players
+     * @param plan        the edges to build in order
+     */
+    public synchronized void put(final long fingerprint, final int seat, final List<Set<TilePosition>> plan) {
+        plans.put(new Key(fingerprint, seat), List.copyOf(plan));
+        save();
+    }
+
+    /**
+     * Returns the number of cached plans.
+     *
+     * @return the number of cached plans
+     */
+    public synchronized int size() {
+        return plans.size();
+    }
+
+    /**
+     * Loads the plans from the file, least recently used first. A missing or
+     * unreadable file results in an empty cache.
+     */
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return;
+            }
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final Key key = new Key(in.readLong(), in.readInt());
+                final List<Set<TilePosition>> plan = new ArrayList<>();
+                final int edges = in.readInt();
+                for (int j = 0; j < edges; j++) {
+                    plan.add(Set.of(new TilePosition(in.readInt(), in.readInt()),
+                            new TilePosition(in.readInt(), in.readInt())));
+                }
+                plans.put(key, List.copyOf(plan));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Couldn't load opening plans: " + e.getMessage());
+            plans.clear();
+        }
+    }
+
+    /**
+     * Writes all plans to a temporary file, least recently used first, and
+     * replaces the cache file with it.
+     */
+    private void save() {
+        try {
+            final Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(plans.size());
+                for (Map.Entry<Key, List<Set<TilePosition>>> entry : plans.entrySet()) {
+                    out.writeLong(entry.getKey().fingerprint());
+                    out.writeInt(entry.getKey().seat());
+                    out.writeInt(entry.getValue().size());
+                    for (Set<TilePosition> edge : entry.getValue()) {
+                        for (TilePosition position : edge) {
+                            out.writeInt(position.q());
+                            out.writeInt(position.r());
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Couldn't save opening plans: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package hProjekt.controller.ai;
+
+/**
+ * The different ways a {@link MonteCarloSearch} can distribute its work.
+ */
+public enum SearchMode {
+    /**
+     * A single search tree on the calling thread.
+     */
+    SEQUENTIAL,
+
+    /**
+     * One independent search tree per worker, each on its own copy of the root
+     * state. The visit statistics of the root children are merged at the end.
+     */
+    ROOT_PARALLEL,
+
+    /**
+     * A single search tree on the calling thread that runs one rollout per worker
+     * for every expanded leaf.
+     */
+    LEAF_PARALLEL
+}
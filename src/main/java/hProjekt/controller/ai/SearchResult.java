@@ -0,0 +1,77 @@
+package hProjekt.controller.ai;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The result of a {@link MonteCarloSearch}.
+ *
+ * @param statistics          the statistics of all root actions, sorted by
+ *                            visits in descending order
+ * @param iterations          the total number of iterations performed by all
+ *                            workers
+ * @param minWorkerIterations the number of iterations of the worker that
+ *                            performed the fewest, which is compared to the
+ *                            iteration limit per worker
+ */
+public record SearchResult(List<ActionStatistics> statistics, long iterations, long minWorkerIterations) {
+
+    /**
+     * Merges the given results into a single result by summing up the statistics
+     * of equal root actions.
+     *
+     * @param results the results to merge
+     * @return the merged result
+     */
+    public static SearchResult merge(final List<SearchResult> results) {
+        final Map<Integer, ActionStatistics> merged = new TreeMap<>();
+        long iterations = 0;
+        long minWorkerIterations = Long.MAX_VALUE;
+        for (SearchResult result : results) {
+            iterations += result.iterations();
+            minWorkerIterations = Math.min(minWorkerIterations, result.minWorkerIterations());
+            for (ActionStatistics statistics : result.statistics()) {
+                merged.merge(statistics.action(), statistics, ActionStatistics::merge);
+            }
+        }
+        return new SearchResult(sorted(merged.values()), iterations,
+                results.isEmpty() ? 0 : minWorkerIterations);
+    }
+
+    /**
+     * Creates a new result of a single worker from the given statistics and sorts
+     * them by visits.
+     *
+     * @param statistics the statistics of the root actions
+     * @param iterations the number of iterations performed
+     * @return the new result
+     */
+    static SearchResult of(final List<ActionStatistics> statistics, final long iterations) {
+        return new SearchResult(sorted(statistics), iterations, iterations);
+    }
+
+    /**
+     * Sorts the given statistics by visits and mean reward in descending order.
+     *
+     * @param statistics the statistics to sort
+     * @return the sorted statistics
+     */
+    private static List<ActionStatistics> sorted(final Collection<ActionStatistics> statistics) {
+        return statistics.stream()
+                .sorted(Comparator.comparingLong(ActionStatistics::visits).reversed()
+                        .thenComparing(Comparator.comparingDouble(ActionStatistics::meanReward).reversed()))
+                .toList();
+    }
+
+    /**
+     * Returns the most visited action.
+     *
+     * @return the most visited action or -1 if no action was explored
+     */
+    public int bestAction() {
+        return statistics.isEmpty() ? -1 : statistics.getFirst().action();
+    }
+}
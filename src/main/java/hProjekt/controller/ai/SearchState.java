@@ -0,0 +1,56 @@
+package hProjekt.controller.ai;
+
+/**
+ * A game state that can be explored by a {@link MonteCarloSearch}.
+ * Actions are encoded as non-negative integers so states can be copied and
+ * compared cheaply.
+ * Implementations are not required to be thread safe, every search worker
+ * operates on its own copy obtained via {@link #copy()}.
+ */
+public interface SearchState {
+
+    /**
+     * Returns an independent copy of this state.
+     * Applying actions to the copy must not change this state.
+     *
+     * @return an independent copy of this state
+     */
+    SearchState copy();
+
+    /**
+     * Returns all actions that can be applied to this state.
+     *
+     * @return all actions that can be applied to this state, may be empty
+     */
+    int[] getLegalActions();
+
+    /**
+     * Applies the given action to this state.
+     *
+     * @param action the action to apply, must be one of {@link #getLegalActions()}
+     */
+    void apply(int action);
+
+    /**
+     * Returns whether no more actions can be applied to this state.
+     *
+     * @return whether no more actions can be applied to this state
+     */
+    boolean isTerminal();
+
+    /**
+     * Returns the reward of this state for the searching player.
+     *
+     * @return the reward of this state, between 0 and 1
+     */
+    double getReward();
+
+    /**
+     * Returns a hash of this state. Equal states must have equal hashes, no
+     * matter in which order their actions were applied, so their statistics can
+     * be shared in a {@link TranspositionTable}.
+     *
+     * @return a hash of this state
+     */
+    long getHash();
+}
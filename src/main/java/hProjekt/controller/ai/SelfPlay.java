@@ -0,0 +1,109 @@
+package hProjekt.controller.ai;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import hProjekt.Config;
+import hProjekt.controller.AiController;
+import hProjekt.controller.GameController;
+import hProjekt.model.GameState;
+import hProjekt.model.HexGridImpl;
+import hProjekt.util.NgramModel;
+import javafx.scene.paint.Color;
+
+/**
+ * Plays games between the available AI controllers without a user interface
+ * and writes their decisions as {@link GameRecord}s with a
+ * {@link GameRecordWriter}.
+ * Games are played in parallel on their own pool of
+ * {@link Config#SELF_PLAY_PARALLEL_GAMES} threads, so the search of the AI,
+ * which waits for its tasks on {@link Config#WORKER_POOL}, never blocks a
+ * thread of that pool.
+ * <p>
+ * Usage: {@code SelfPlay [games] [directory]}
+ */
+public final class SelfPlay {
+    private static final Color[] PLAYER_COLORS = { Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW,
+            Color.BLACK, Color.WHITE };
+
+    private SelfPlay() {
+    }
+
+    /**
+     * Plays the given number of games and writes their records to the given
+     * directory.
+     *
+     * @param args the number of games and the output directory, both optional
+     * @throws IOException          if the output directory cannot be created
+     * @throws InterruptedException if interrupted while waiting for the writer
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        final Path directory = args.length > 1 ? Paths.get(args[1]) : Config.SELF_PLAY_PATH;
+        Config.AI_ACTION_DELAY = 0;
+
+        final List<Class<? extends AiController>> aiControllers = Config.AVAILABLE_AI_CONTROLLER.stream()
+                .sorted(Comparator.comparing(Class::getName))
+                .toList();
+        final int playerCount = Math.min(Config.MAX_PLAYERS,
+                Math.max(Config.MIN_PLAYERS, aiControllers.size()));
+        final AtomicInteger failedGames = new AtomicInteger();
+
+        final long start = System.currentTimeMillis();
+        final ForkJoinPool gamePool = new ForkJoinPool(Config.SELF_PLAY_PARALLEL_GAMES);
+        final GameRecordWriter writer = new GameRecordWriter(directory, "selfplay",
+                Config.SELF_PLAY_MAX_FILE_SIZE, Config.SELF_PLAY_PARALLEL_GAMES * 4,
+                Config.SELF_PLAY_DROP_WHEN_BEHIND);
+        try {
+            gamePool.submit(() -> IntStream.range(0, games).parallel().forEach(game -> {
+                if (!playGame(game, aiControllers, playerCount, writer)) {
+                    failedGames.incrementAndGet();
+                }
+            })).join();
+        } finally {
+            gamePool.shutdown();
+            writer.close();
+        }
+        System.out.printf("Played %d games in %d ms, %d failed, %d dropped, %d bytes written%n", games,
+                System.currentTimeMillis() - start, failedGames.get(), writer.getDroppedGames(),
+                writer.getWrittenBytes());
+    }
+
+    /**
+     * Plays a single game and submits its records to the given writer.
+     *
+     * @param game          the index of the game
+     * @param aiControllers the AI controllers to assign to the players in turn
+     * @param playerCount   the number of players
+     * @param writer        the writer to submit the records to
+     * @return whether the game was played to the end
+     */
+    private static boolean playGame(final int game, final List<Class<? extends AiController>> aiControllers,
+            final int playerCount, final GameRecordWriter writer) {
+        final GameState state = new GameState(new HexGridImpl(NgramModel.townNames()), new ArrayList<>());
+        for (int i = 0; i < playerCount; i++) {
+            final Class<? extends AiController> aiController = aiControllers.get((game + i) % aiControllers.size());
+            state.newPlayer(aiController.getSimpleName() + " " + (i + 1), PLAYER_COLORS[i], aiController);
+        }
+        final GameRecord record = new GameRecord(game);
+        GameRecord.attach(state, record);
+        try {
+            new GameController(state).startGame();
+            writer.submit(record.finish(state.getPlayers()));
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("Couldn't finish self play game " + game + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            GameRecord.detach(state);
+        }
+    }
+}
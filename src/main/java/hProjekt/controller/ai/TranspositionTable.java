@@ -0,0 +1,135 @@
+package hProjekt.controller.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size, lock-free table of search statistics keyed by the hash of a
+ * {@link SearchState}, see {@link SearchState#getHash()}.
+ * Searches running in parallel share one table, so a state reached by several
+ * workers through different move orders only has to be explored once.
+ * <p>
+ * Every entry consists of two {@code long}s: the key XOR the data and the data
+ * itself. Torn entries written concurrently by two threads fail the key check
+ * and read as missing, so no locking is needed. The data packs the mean reward
+ * as {@code float}, the number of visits in 24 bits and the generation of the
+ * search that wrote it in 8 bits.
+ * <p>
+ * An entry is replaced if it belongs to the same state, was written by an older
+ * generation or has no more visits than the new data.
+ */
+public class TranspositionTable {
+    /**
+     * The value returned by {@link #probe(long)} if the table has no entry for a
+     * hash.
+     */
+    public static final long MISSING = 0;
+
+    private static final int MAX_VISITS = (1 << 24) - 1;
+
+    private final AtomicLongArray entries;
+    private final int mask;
+    private volatile int generation = 1;
+
+    /**
+     * Creates a new table with at least the given number of entries. The number
+     * of entries is rounded up to a power of two.
+     *
+     * @param size the minimum number of entries
+     */
+    public TranspositionTable(final int size) {
+        final int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.entries = new AtomicLongArray(capacity * 2);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Starts a new generation. Entries of older generations are replaced first.
+     * Should be called before each new search.
+     */
+    public void newGeneration() {
+        generation = generation % 0xff + 1;
+    }
+
+    /**
+     * Returns the data stored for the given hash.
+     *
+     * @param hash the hash of the state
+     * @return the data stored for the given hash or {@link #MISSING}
+     */
+    public long probe(final long hash) {
+        final int index = index(hash);
+        final long data = entries.get(index + 1);
+        return (entries.get(index) ^ data) == hash ? data : MISSING;
+    }
+
+    /**
+     * Adds the given visits and reward to the entry of the given hash, replacing
+     * another entry according to the replacement policy.
+     * Concurrent updates of the same entry may get lost, which only makes the
+     * statistics less precise.
+     *
+     * @param hash   the hash of the state
+     * @param visits the number of visits to add
+     * @param reward the total reward of the visits
+     */
+    public void store(final long hash, final long visits, final double reward) {
+        final int index = index(hash);
+        final long oldData = entries.get(index + 1);
+        final boolean sameState = (entries.get(index) ^ oldData) == hash;
+        long totalVisits = visits;
+        double totalReward = reward;
+        if (sameState) {
+            totalVisits += getVisits(oldData);
+            totalReward += getMeanReward(oldData) * getVisits(oldData);
+        }
+        totalVisits = Math.min(totalVisits, MAX_VISITS);
+        if (!sameState && oldData != MISSING && getGeneration(oldData) == generation
+                && getVisits(oldData) > totalVisits) {
+            return;
+        }
+        final long data = (long) generation << 56 | totalVisits << 32
+                | Float.floatToRawIntBits((float) (totalReward / totalVisits)) & 0xffffffffL;
+        entries.set(index, hash ^ data);
+        entries.set(index + 1, data);
+    }
+
+    /**
+     * Returns the number of visits stored in the given data.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return the number of visits
+     */
+    public static int getVisits(final long data) {
+        return (int) (data >>> 32) & MAX_VISITS;
+    }
+
+    /**
+     * Returns the mean reward stored in the given data.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return the mean reward
+     */
+    public static double getMeanReward(final long data) {
+        return Float.intBitsToFloat((int) data);
+    }
+
+    /**
+     * Returns the generation stored in the given data.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return the generation
+     */
+    private static int getGeneration(final long data) {
+        return (int) (data >>> 56) & 0xff;
+    }
+
+    /**
+     * Returns the index of the first {@code long} of the entry of the given hash.
+     *
+     * @param hash the hash
+     * @return the index of the entry
+     */
+    private int index(final long hash) {
+        return (int) (hash ^ hash >>> 32) & mask << 1;
+    }
+}
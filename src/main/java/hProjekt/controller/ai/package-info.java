@@ -0,0 +1,5 @@
+/**
+ * Contains the building blocks for search based AI controllers, like the
+ * compact game state used for simulations and the tree search itself.
+ */
+package hProjekt.controller.ai;
@@ -0,0 +1,134 @@
+package hProjekt.controller.gui;
+
+import hProjekt.Config;
+import hProjekt.util.Diagnostics;
+import hProjekt.view.menus.overlays.DiagnosticsOverlayView;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+/**
+ * Takes the measurements of {@link Diagnostics} that need the JavaFX
+ * application thread and shows them on a {@link DiagnosticsOverlayView}.
+ * <p>
+ * Measuring starts when the map is shown and stops when it is removed from
+ * its scene:
+ * <ul>
+ * <li>an {@link AnimationTimer} records the time between pulses and the
+ * start of every pulse, a post layout pulse listener records how long the pulse
+ * took until then,</li>
+ * <li>a virtual thread enqueues timestamped probes with
+ * {@link Platform#runLater} to measure how long runnables wait in the
+ * queue,</li>
+ * <li>the nodes of the map are counted whenever the overlay is updated.</li>
+ * </ul>
+ */
+public class DiagnosticsController {
+    private final Node map;
+    private final DiagnosticsOverlayView overlay;
+    private final Runnable pulseListener = this::onPulseLaidOut;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(final long now) {
+            onPulse(now);
+        }
+    };
+    private Scene scene;
+    private Thread prober;
+    private long pulseStart = 0;
+    private long lastUpdate = 0;
+
+    /**
+     * Creates a new diagnostics controller.
+     *
+     * @param map     the map whose nodes are counted
+     * @param overlay the overlay to show the measurements on
+     */
+    public DiagnosticsController(final Node map, final DiagnosticsOverlayView overlay) {
+        this.map = map;
+        this.overlay = overlay;
+        map.sceneProperty().subscribe(this::setScene);
+    }
+
+    /**
+     * Moves the measurements to the given scene, stops them if the map was
+     * removed from its scene.
+     *
+     * @param newScene the scene the map is shown in or null
+     */
+    private void setScene(final Scene newScene) {
+        if (scene != null) {
+            scene.removePostLayoutPulseListener(pulseListener);
+            timer.stop();
+            prober.interrupt();
+        }
+        scene = newScene;
+        if (scene != null) {
+            pulseStart = 0;
+            scene.addPostLayoutPulseListener(pulseListener);
+            timer.start();
+            prober = Thread.ofVirtual().name("diagnostics").start(this::probeRunLater);
+        }
+    }
+
+    /**
+     * Records the time since the last pulse and updates the overlay at most once
+     * per {@link Config#DIAGNOSTICS_INTERVAL}.
+     *
+     * @param now the start of the current pulse in nanoseconds
+     */
+    private void onPulse(final long now) {
+        if (pulseStart != 0) {
+            Diagnostics.FRAME_TIME.record(now - pulseStart);
+        }
+        pulseStart = now;
+        if (now - lastUpdate >= Config.DIAGNOSTICS_INTERVAL * 1_000_000) {
+            lastUpdate = now;
+            Diagnostics.setMapNodeCount(countNodes(map));
+            overlay.update(Diagnostics.snapshot());
+        }
+    }
+
+    /**
+     * Records the time since the start of the current pulse after its layout pass.
+     */
+    private void onPulseLaidOut() {
+        if (pulseStart != 0) {
+            Diagnostics.PULSE_DURATION.record(System.nanoTime() - pulseStart);
+        }
+    }
+
+    /**
+     * Enqueues a probe every {@link Config#DIAGNOSTICS_INTERVAL} until the thread
+     * is interrupted. Each probe records how long it waited to be run.
+     */
+    private void probeRunLater() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final long enqueued = System.nanoTime();
+                Platform.runLater(() -> Diagnostics.RUN_LATER_LATENCY.record(System.nanoTime() - enqueued));
+                Thread.sleep(Config.DIAGNOSTICS_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            // stopped, the map is no longer shown
+        }
+    }
+
+    /**
+     * Counts the given node and all of its descendants.
+     *
+     * @param node the root of the subtree to count
+     * @return the number of nodes in the subtree
+     */
+    private static int countNodes(final Node node) {
+        int count = 1;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+}
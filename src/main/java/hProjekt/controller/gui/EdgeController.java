@@ -11,14 +11,17 @@ import javafx.scene.input.MouseEvent;
  */
 public class EdgeController {
     private final EdgeLine line;
+    private final HighlightManager highlights;
 
     /**
      * Creates a new edge controller.
      *
-     * @param edge the edge to render
+     * @param edge       the edge to render
+     * @param highlights the manager to report highlight changes to
      */
-    public EdgeController(final Edge edge) {
+    public EdgeController(final Edge edge, final HighlightManager highlights) {
         this.line = new EdgeLine(edge);
+        this.highlights = highlights;
     }
 
     /**
@@ -47,6 +50,7 @@ public class EdgeController {
      */
     public void highlight(final Consumer<MouseEvent> handler) {
         line.highlight(handler);
+        highlights.setEdgeHighlighted(this, true);
     }
 
     /**
@@ -54,6 +58,7 @@ public class EdgeController {
      */
     public void highlight() {
         line.highlight();
+        highlights.setEdgeHighlighted(this, true);
     }
 
     /**
@@ -65,6 +70,7 @@ public class EdgeController {
      */
     public void selected(final Consumer<MouseEvent> deselectHandler) {
         line.selected(deselectHandler);
+        highlights.setEdgeHighlighted(this, true);
     }
 
     /**
@@ -74,6 +80,7 @@ public class EdgeController {
      */
     public void setLabel(final String text) {
         line.setLabel(text);
+        highlights.setEdgeLabeled(this, true);
     }
 
     /**
@@ -84,6 +91,7 @@ public class EdgeController {
      */
     public void setCostLabel(Integer... costs) {
         line.setCostLabel(costs);
+        highlights.setEdgeLabeled(this, true);
     }
 
     /**
@@ -91,6 +99,7 @@ public class EdgeController {
      */
     public void hideLabel() {
         line.hideLabel();
+        highlights.setEdgeLabeled(this, false);
     }
 
     /**
@@ -98,5 +107,6 @@ public class EdgeController {
      */
     public void unhighlight() {
         line.unhighlight();
+        highlights.setEdgeHighlighted(this, false);
     }
 }
@@ -3,16 +3,21 @@ package hProjekt.controller.gui;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 
+import hProjekt.Config;
 import hProjekt.model.City;
 import hProjekt.model.Edge;
 import hProjekt.model.HexGrid;
 import hProjekt.model.Tile;
+import hProjekt.view.CanvasHexGridBuilder;
+import hProjekt.view.CityBuilder;
 import hProjekt.view.HexGridBuilder;
+import hProjekt.view.TileBuilder;
 import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.scene.input.MouseEvent;
@@ -29,25 +34,45 @@ public class HexGridController implements Controller {
     private final Map<Edge, EdgeController> edgeControllers;
     private final Map<Tile, TileController> tileControllers;
     private final Map<City, CityController> cityControllers;
+    private final Set<TileController> tileControllerSet;
+    private final Set<CityController> cityControllerSet;
+    private final HighlightManager highlights = new HighlightManager();
     private static double lastX, lastY;
 
     /**
      * Creates a new hex grid controller.
+     * Grids drawn onto a canvas only get controllers for the edges that are drawn
+     * or used, see {@link #getEdgeController(Edge)}, so the edges of a grid in the
+     * lazy edge mode are not looked up all at once.
      *
      * @param hexGrid the hex grid to render
      */
     public HexGridController(final HexGrid hexGrid) {
-        this.edgeControllers = hexGrid.getEdges().values().stream().map(EdgeController::new)
-                .collect(Collectors.toMap(EdgeController::getEdge, controller -> controller));
-        this.tileControllers = hexGrid.getTiles().values().stream().map(TileController::new)
+        final boolean canvas = hexGrid.getTiles().size() >= Config.CANVAS_RENDERER_MIN_TILES;
+        this.edgeControllers = new ConcurrentHashMap<>();
+        if (!canvas) {
+            hexGrid.getEdges().values().forEach(this::getEdgeController);
+        }
+        this.tileControllers = hexGrid.getTiles().values().stream()
+                .map(tile -> new TileController(tile, highlights))
                 .collect(Collectors.toMap(TileController::getTile, controller -> controller));
         this.cityControllers = hexGrid.getCities().values().stream().map(CityController::new).collect(
                 Collectors.toMap(CityController::getCity, controller -> controller));
-        this.builder = new HexGridBuilder(hexGrid,
-                edgeControllers.values().stream().map(EdgeController::getEdgeLine).collect(Collectors.toSet()),
-                tileControllers.values().stream().map(TileController::getBuilder).collect(Collectors.toSet()),
-                cityControllers.values().stream().map(CityController::getBuilder).collect(Collectors.toSet()),
-                this::zoomHandler, this::mousePressedHandler, this::mouseDraggedHandler, this::centerPaneHandler);
+        this.tileControllerSet = Set.copyOf(tileControllers.values());
+        this.cityControllerSet = Set.copyOf(cityControllers.values());
+        final Set<TileBuilder> tileBuilders = tileControllers.values().stream().map(TileController::getBuilder)
+                .collect(Collectors.toSet());
+        final Set<CityBuilder> cityBuilders = cityControllers.values().stream().map(CityController::getBuilder)
+                .collect(Collectors.toSet());
+        this.builder = canvas
+                ? new CanvasHexGridBuilder(hexGrid, edge -> getEdgeController(edge).getEdgeLine(), tileBuilders,
+                        cityBuilders, this::zoomHandler, this::mousePressedHandler, this::mouseDraggedHandler,
+                        this::centerPaneHandler)
+                : new HexGridBuilder(hexGrid,
+                        edgeControllers.values().stream().map(EdgeController::getEdgeLine)
+                                .collect(Collectors.toSet()),
+                        tileBuilders, cityBuilders, this::zoomHandler, this::mousePressedHandler,
+                        this::mouseDraggedHandler, this::centerPaneHandler);
         this.hexGrid = hexGrid;
     }
 
@@ -112,16 +137,28 @@ public class HexGridController implements Controller {
     }
 
     /**
-     * Returns the edge controllers.
+     * Returns the edge controllers created so far.
      *
-     * @return the edge controllers
+     * @return an unmodifiable set of the edge controllers
      */
     public Set<EdgeController> getEdgeControllers() {
-        return edgeControllers.values().stream().collect(Collectors.toSet());
+        return Set.copyOf(edgeControllers.values());
+    }
+
+    /**
+     * Returns the controller of the given edge, creating it if the grid is drawn
+     * onto a canvas and the edge was not needed before.
+     *
+     * @param edge the edge
+     * @return the controller of the edge
+     */
+    public EdgeController getEdgeController(final Edge edge) {
+        return edgeControllers.computeIfAbsent(edge, key -> new EdgeController(key, highlights));
     }
 
     /**
-     * Returns the edge controllers as a map.
+     * Returns the edge controllers created so far as a map. Use
+     * {@link #getEdgeController(Edge)} to get the controller of any edge.
      *
      * @return the edge controllers as a map
      */
@@ -132,10 +169,10 @@ public class HexGridController implements Controller {
     /**
      * Returns the tile controllers.
      *
-     * @return the tile controllers
+     * @return an unmodifiable set of the tile controllers
      */
     public Set<TileController> getTileControllers() {
-        return tileControllers.values().stream().collect(Collectors.toSet());
+        return tileControllerSet;
     }
 
     /**
@@ -150,10 +187,10 @@ public class HexGridController implements Controller {
     /**
      * Returns the city controllers.
      *
-     * @return the city controllers
+     * @return an unmodifiable set of the city controllers
      */
     public Set<CityController> getCityControllers() {
-        return cityControllers.values().stream().collect(Collectors.toSet());
+        return cityControllerSet;
     }
 
     /**
@@ -184,10 +221,20 @@ public class HexGridController implements Controller {
     }
 
     /**
-     * Unhighlights the tiles.
+     * Unhighlights the tiles. Only the tiles that are highlighted or have a click
+     * handler are touched.
      */
     public void unhighlightTiles() {
-        tileControllers.values().forEach(TileController::unhighlight);
+        highlights.unhighlightTiles();
+    }
+
+    /**
+     * Returns the manager that tracks the highlighted edges and tiles.
+     *
+     * @return the highlight manager
+     */
+    public HighlightManager getHighlightManager() {
+        return highlights;
     }
 
     /**
@@ -0,0 +1,118 @@
+package hProjekt.controller.gui;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import hProjekt.model.Edge;
+
+/**
+ * Keeps track of the edges and tiles that are highlighted, show a label or have
+ * handlers attached.
+ * <p>
+ * The {@link EdgeController}s and {@link TileController}s report every change
+ * to their highlight, so resetting the game board only touches the controllers
+ * that were changed instead of every controller of the map.
+ */
+public class HighlightManager {
+    private final Set<EdgeController> highlightedEdges = new HashSet<>();
+    private final Set<EdgeController> labeledEdges = new HashSet<>();
+    private final Set<TileController> clickableTiles = new HashSet<>();
+    private final Set<TileController> hoverableTiles = new HashSet<>();
+
+    /**
+     * Records whether the given edge is highlighted.
+     *
+     * @param controller  the controller of the edge
+     * @param highlighted whether the edge is highlighted
+     */
+    void setEdgeHighlighted(final EdgeController controller, final boolean highlighted) {
+        update(highlightedEdges, controller, highlighted);
+    }
+
+    /**
+     * Records whether the given edge shows a label.
+     *
+     * @param controller the controller of the edge
+     * @param labeled    whether the edge shows a label
+     */
+    void setEdgeLabeled(final EdgeController controller, final boolean labeled) {
+        update(labeledEdges, controller, labeled);
+    }
+
+    /**
+     * Records whether the given tile is highlighted or has a click handler.
+     *
+     * @param controller the controller of the tile
+     * @param clickable  whether the tile is highlighted or has a click handler
+     */
+    void setTileClickable(final TileController controller, final boolean clickable) {
+        update(clickableTiles, controller, clickable);
+    }
+
+    /**
+     * Records whether the given tile has a mouse entered handler.
+     *
+     * @param controller the controller of the tile
+     * @param hoverable  whether the tile has a mouse entered handler
+     */
+    void setTileHoverable(final TileController controller, final boolean hoverable) {
+        update(hoverableTiles, controller, hoverable);
+    }
+
+    /**
+     * Adds the given element to or removes it from the given set.
+     *
+     * @param <T>      the type of the elements
+     * @param set      the set to update
+     * @param element  the element
+     * @param contains whether the set should contain the element
+     */
+    private static <T> void update(final Set<T> set, final T element, final boolean contains) {
+        if (contains) {
+            set.add(element);
+        } else {
+            set.remove(element);
+        }
+    }
+
+    /**
+     * Unhighlights all highlighted edges.
+     */
+    public void unhighlightEdges() {
+        unhighlightEdgesExcept(Set.of());
+    }
+
+    /**
+     * Unhighlights all highlighted edges except the given ones.
+     *
+     * @param keep the edges to keep highlighted
+     */
+    public void unhighlightEdgesExcept(final Collection<Edge> keep) {
+        List.copyOf(highlightedEdges).stream()
+                .filter(controller -> !keep.contains(controller.getEdge()))
+                .forEach(EdgeController::unhighlight);
+    }
+
+    /**
+     * Hides the labels of all edges that show one.
+     */
+    public void hideEdgeLabels() {
+        List.copyOf(labeledEdges).forEach(EdgeController::hideLabel);
+    }
+
+    /**
+     * Unhighlights all highlighted tiles and removes their click handlers.
+     */
+    public void unhighlightTiles() {
+        List.copyOf(clickableTiles).forEach(TileController::unhighlight);
+    }
+
+    /**
+     * Removes the mouse entered handlers of all tiles that have one.
+     */
+    public void removeMouseEnteredHandlers() {
+        List.copyOf(hoverableTiles).forEach(TileController::removeMouseEnteredHandler);
+    }
+}
@@ -1,9 +1,14 @@
 package hProjekt.controller.gui;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import hProjekt.controller.GamePhase;
@@ -16,13 +21,19 @@ import hProjekt.controller.PlayerController;
 import hProjekt.controller.PlayerObjective;
 import hProjekt.controller.gui.scene.GameBoardController;
 import hProjekt.model.Edge;
+import hProjekt.model.HexGrid;
 import hProjekt.model.Player;
 import hProjekt.model.PlayerState;
+import hProjekt.model.Route;
+import hProjekt.model.ShortestPathTree;
 import hProjekt.model.Tile;
 import hProjekt.model.TilePosition;
+import hProjekt.util.Diagnostics;
 import hProjekt.view.menus.overlays.ChosenCitiesOverlayView;
 import hProjekt.view.menus.overlays.RollDiceOverlayView;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
@@ -46,6 +57,7 @@ import java.util.stream.*;
  * ensure thread safety.</b>
  */
 public class PlayerActionsController {
+    private static final String PATH_PREVIEW = "path";
     private final Property<PlayerController> playerControllerProperty = new SimpleObjectProperty<>();
     private final Property<PlayerState> playerStateProperty = new SimpleObjectProperty<>();
     private Subscription playerStateSubscription = Subscription.EMPTY;
@@ -55,16 +67,19 @@ public class PlayerActionsController {
     private final ObservableSet<Edge> selectedEdges = FXCollections.observableSet();
     private final SetChangeListener<Edge> selctedEdgesListener = (change) -> {
         for (Edge edge : change.getSet()) {
-            getHexGridController().getEdgeControllersMap().get(edge).highlight();
+            getHexGridController().getEdgeController(edge).highlight();
         }
     };
     private final Property<Tile> selectedTile = new SimpleObjectProperty<>();
     private Subscription selectedTileSubscription = Subscription.EMPTY;
+    private final PreviewService previewService = new PreviewService();
+    private BuildPathCache buildPathCache;
     private ObservableList<Edge> selectedRailPath = FXCollections.observableArrayList();
+    private Tile selectedRailPathTile;
     private final ListChangeListener<Edge> selectedRailPathListener = (change) -> {
-        getHexGridController().getEdgeControllers().forEach(EdgeController::hideLabel);
+        getHexGridController().getHighlightManager().hideEdgeLabels();
         change.getList().forEach(edge -> {
-            EdgeController edgeController = getHexGridController().getEdgeControllersMap().get(edge);
+            EdgeController edgeController = getHexGridController().getEdgeController(edge);
             edgeController.setCostLabel(edge.getBaseBuildingCost(),
                     edge.getTotalParallelCost(getPlayer()));
         });
@@ -168,7 +183,7 @@ public class PlayerActionsController {
      */
     private void showRentingConfirmation() {
         getPlayerState().rentedEdges().stream().forEach(edge -> {
-            getHexGridController().getEdgeControllersMap().get(edge).highlight();
+            getHexGridController().getEdgeController(edge).highlight();
         });
         if (getPlayerState().hasPath()) {
             gameBoardController.updateConfirmationOverlay(
@@ -187,10 +202,16 @@ public class PlayerActionsController {
     /**
      * Configures the edges that can be rented by the player so they can be selected
      * by the player.
+     * The rails of the suggested route are preselected, see
+     * {@link PlayerController#getSuggestedRoute()}.
      */
     private void configureRailSelection() {
         selectedEdges.clear();
         selectedEdges.addListener(selctedEdgesListener);
+        final Route suggestedRoute = getPlayerController().getSuggestedRoute();
+        if (suggestedRoute != null) {
+            selectedEdges.addAll(suggestedRoute.rentedEdges());
+        }
         addChooseEdgesHandlers();
         gameBoardController.updateConfirmationOverlay("Rent selected rails?", this::confirmSelectedRails, () -> {
             selectedEdges.clear();
@@ -208,7 +229,9 @@ public class PlayerActionsController {
         gameBoardController.hideConfirmationOverlay();
         selectedEdges.removeListener(selctedEdgesListener);
         selectedTileSubscription.unsubscribe();
-        getHexGridController().getEdgeControllers().forEach(EdgeController::hideLabel);
+        previewService.cancelAll();
+        clearBuildPathCache();
+        getHexGridController().getHighlightManager().hideEdgeLabels();
         selectedRailPath.removeListener(selectedRailPathListener);
     }
 
@@ -222,15 +245,14 @@ public class PlayerActionsController {
                 .setPosition(gameBoardController.getPlayerPosition(getPlayer()));
         gameBoardController.getPlayerAnimationController(getPlayer()).showTrain();
         getPlayerState().rentedEdges().stream().forEach(edge -> {
-            getHexGridController().getEdgeControllersMap().get(edge).highlight();
+            getHexGridController().getEdgeController(edge).highlight();
         });
         getPlayerState().drivableTiles().keySet().stream().forEach(tile -> {
             getHexGridController().getTileControllersMap().get(tile).highlight(e -> {
                 getHexGridController().unhighlightTiles();
                 gameBoardController.getPlayerAnimationController(getPlayer())
                         .animatePlayer(getPlayerState().drivableTiles().get(tile))
-                        .setOnFinished(actionEvent -> getPlayerController()
-                                .triggerAction(new DriveAction(tile)));
+                        .setOnFinished(actionEvent -> triggerAction(new DriveAction(tile)));
             });
         });
     }
@@ -305,9 +327,9 @@ public class PlayerActionsController {
      */
     @DoNotTouch
     private void removeAllHighlights() {
-        getHexGridController().getEdgeControllers().forEach(EdgeController::unhighlight);
+        getHexGridController().getHighlightManager().unhighlightEdges();
         getHexGridController().unhighlightTiles();
-        getHexGridController().getTileControllers().forEach(TileController::removeMouseEnteredHandler);
+        getHexGridController().getHighlightManager().removeMouseEnteredHandlers();
     }
 
     /**
@@ -344,7 +366,7 @@ public class PlayerActionsController {
      * @param event the event that triggered the action
      */
     public void chooseCitiesButtonAction(final ActionEvent event) {
-        getPlayerController().triggerAction(new ChooseCitiesAction());
+        triggerAction(new ChooseCitiesAction());
     }
 
     /**
@@ -355,56 +377,117 @@ public class PlayerActionsController {
      * @return the driving cost between the two tiles
      */
     private Integer drivingCostFunction(TilePosition from, TilePosition to) {
-        return getHexGridController().getHexGrid().getEdge(from, to).getDrivingCost(from);
+        return getHexGridController().getHexGrid().getDrivingCost(from, to);
     }
 
     /**
      * Finds the path between the hovered tile and the selected tile based on all
      * edges in the grid.
+     * The shortest paths from the selected tile are computed once and reused for
+     * every hovered tile until another tile is selected or the rails change.
      *
      * @param hoveredTile  the hovered/start tile
      * @param selectedTile the selected/target tile
      * @return the path between the hovered and selected tile
+     * @throws CancellationException if the calling thread is interrupted while
+     *                               waiting for the shortest paths
      */
     private List<Edge> findBuildPath(Tile hoveredTile, Tile selectedTile) {
-        return getHexGridController().getHexGrid().findPath(
-                selectedTile.getPosition(),
-                hoveredTile.getPosition(),
-                getHexGridController().getHexGrid().getEdges().values().stream()
-                        .collect(Collectors.toSet()),
-                this::drivingCostFunction);
+        try {
+            return getBuildPathTree(selectedTile.getPosition()).get().pathTo(hoveredTile.getPosition());
+        } catch (InterruptedException e) {
+            throw new CancellationException("The build path preview was superseded.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Couldn't compute the build paths.", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the shortest paths from the given tile with the current rails.
+     * The paths are computed at most once per selected tile and rails on their own
+     * virtual thread, so all previews wait for the same computation and cancelling
+     * a preview doesn't cancel the computation the next preview needs. The
+     * computation for the previously selected tile is cancelled.
+     *
+     * @param source the position of the selected tile
+     * @return the shortest path tree rooted at the selected tile
+     */
+    private synchronized Future<ShortestPathTree> getBuildPathTree(final TilePosition source) {
+        final HexGrid hexGrid = getHexGridController().getHexGrid();
+        final long railHash = hexGrid.getZobristHash().getRailHash();
+        if (buildPathCache == null || !buildPathCache.source().equals(source)
+                || buildPathCache.railHash() != railHash) {
+            clearBuildPathCache();
+            final FutureTask<ShortestPathTree> tree = new FutureTask<>(
+                    () -> hexGrid.findShortestPathTree(source, (from, to) -> true, this::drivingCostFunction));
+            Thread.ofVirtual().name("build-path-tree").start(tree);
+            buildPathCache = new BuildPathCache(source, railHash, tree);
+        }
+        return buildPathCache.tree();
+    }
+
+    /**
+     * Cancels and forgets the shortest paths used by
+     * {@link #findBuildPath(Tile, Tile)}.
+     */
+    private synchronized void clearBuildPathCache() {
+        if (buildPathCache != null) {
+            buildPathCache.tree().cancel(true);
+            buildPathCache = null;
+        }
+    }
+
+    /**
+     * The shortest paths from the selected tile used by
+     * {@link #findBuildPath(Tile, Tile)}.
+     *
+     * @param source   the position of the selected tile
+     * @param railHash the rail hash of the grid when the tree was started
+     * @param tree     the computation of the shortest path tree rooted at the
+     *                 selected tile
+     */
+    private record BuildPathCache(TilePosition source, long railHash, Future<ShortestPathTree> tree) {
     }
 
     /**
      * Limits the given path with the given function and highlights it.
      *
      * @param terminateFunction the function that limits the path
-     * @param pathToHoveredTile the path to the hovered tile
+     * @param hoveredTile       the tile the path leads to
+     * @param pathToHoveredTile finds the path to the hovered tile
      */
     private void highlightTrimmedPath(BiFunction<Pair<Integer, Integer>, Integer, Boolean> terminateFunction,
-            List<Edge> pathToHoveredTile) {
-        highlightTrimmedPath(terminateFunction, pathToHoveredTile, List.of());
+            Tile hoveredTile, Supplier<List<Edge>> pathToHoveredTile) {
+        highlightTrimmedPath(terminateFunction, hoveredTile, pathToHoveredTile, List.of());
     }
 
     /**
      * Limits the given path with the given function and highlights it.
      * Also unhighlights all edges except the given highlighted edges.
+     * The path is found and trimmed in the background, only the result of the
+     * latest call is highlighted. Until then clicks on the hovered tile are
+     * ignored, see {@link #setupTileSelectionHandlers}.
      *
      * @param terminateFunction the function that limits the path, gets a pair of
      *                          the building costs and the parallel costs and the
      *                          distance. Returns true if the path shouldn't be
      *                          longer.
-     * @param pathToHoveredTile the path to highlight
+     * @param hoveredTile       the tile the path leads to
+     * @param pathToHoveredTile finds the path to highlight, is called on a
+     *                          background thread
      * @param highlightedEdges  the edges that are already highlighted
      */
     private void highlightTrimmedPath(BiFunction<Pair<Integer, Integer>, Integer, Boolean> terminateFunction,
-            List<Edge> pathToHoveredTile, Collection<Edge> highlightedEdges) {
-        getHexGridController().getEdgeControllers().stream().filter(ec -> !highlightedEdges.contains(ec.getEdge()))
-                .forEach(EdgeController::unhighlight);
+            Tile hoveredTile, Supplier<List<Edge>> pathToHoveredTile, Collection<Edge> highlightedEdges) {
+        previewService.submit(PATH_PREVIEW, () -> trimPath(terminateFunction, pathToHoveredTile.get()),
+                trimmedPath -> {
+                    getHexGridController().getHighlightManager().unhighlightEdgesExcept(highlightedEdges);
 
-        selectedRailPath.setAll(trimPath(terminateFunction, pathToHoveredTile));
+                    selectedRailPath.setAll(trimmedPath);
+                    selectedRailPathTile = hoveredTile;
 
-        highlightPath(selectedRailPath);
+                    highlightPath(selectedRailPath);
+                });
     }
 
     /**
@@ -423,6 +506,9 @@ public class PlayerActionsController {
             List<Edge> path) {
         // TODO: P4.2
         for (int i = 0; i < path.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("The path preview was superseded.");
+            }
             List<Edge> list1 = new LinkedList<>();
             int basisGesamt = 0;
             int parallelGesamt = 0;
@@ -451,7 +537,7 @@ public class PlayerActionsController {
     @StudentImplementationRequired("P4.2")
     private void highlightPath(List<Edge> path) {
         // TODO: P4.2
-       getHexGridController().getEdgeControllers().stream().filter(s -> path.contains(s.getEdge())).forEach(s -> s.highlight());
+        path.forEach(edge -> getHexGridController().getEdgeController(edge).highlight());
     }
 
     /**
@@ -533,6 +619,7 @@ public class PlayerActionsController {
         // TODO: P4.4
         //Jiawen write on 10.03
         selectedRailPath.clear();
+        selectedRailPathTile = null;
         selectedTileSubscription.unsubscribe();
         showConfirmBuildDialog(); //Daraufhin wird dem Spieler der Bestätigungs-Dialog angezeigt.
         if(playerStateProperty.getValue().buildingBudget() > 0){//aktuelle Baubudget nicht aufgebraucht
@@ -581,8 +668,8 @@ public class PlayerActionsController {
                             highlightStartingTiles();
                         }
                 );
-                List<Edge> pathToHoveredTile = findBuildPath(tileController.getTile(), tile);
-                highlightTrimmedPath(terminateFunction, pathToHoveredTile);
+                highlightTrimmedPath(terminateFunction, tileController.getTile(),
+                        () -> findBuildPath(tileController.getTile(), tile));
             };
             Consumer<TileController> handleTileClick = (tileController) -> {
                 tileController.highlight(
@@ -627,7 +714,7 @@ public class PlayerActionsController {
     private void showConfirmBuildDialog() {
         gameBoardController.updateConfirmationOverlay(
                 String.format("Finish building? (%s budget left)", getPlayerState().buildingBudget()),
-                () -> getPlayerController().triggerAction(new ConfirmBuildAction()), null);
+                () -> triggerAction(new ConfirmBuildAction()), null);
     }
 
     /**
@@ -656,11 +743,11 @@ public class PlayerActionsController {
         highlightStartingTiles();
         selectedTileSubscription = selectedTile.subscribe((oldValue, newValue) -> {
             if (newValue == null) {
-                getHexGridController().getEdgeControllers().stream()
-                        .filter(ec -> !highlightedEdges.contains(ec.getEdge()))
-                        .forEach(EdgeController::unhighlight);
-                getHexGridController().getTileControllers().forEach(TileController::removeMouseEnteredHandler);
+                previewService.cancel(PATH_PREVIEW);
+                getHexGridController().getHighlightManager().unhighlightEdgesExcept(highlightedEdges);
+                getHexGridController().getHighlightManager().removeMouseEnteredHandlers();
                 selectedRailPath.clear();
+                selectedRailPathTile = null;
                 return;
             }
             getHexGridController().getTileControllers().stream().filter(tc -> !tc.hasMouseClickedHandler())
@@ -669,7 +756,9 @@ public class PlayerActionsController {
                             handleTileHover.accept(tc, newValue);
                         });
                         tc.setMouseClickedHandler(e -> {
-                            if (selectedRailPath != null && !selectedRailPath.isEmpty()) {
+                            // the shown path may still lead to the previously hovered tile
+                            if (selectedRailPath != null && !selectedRailPath.isEmpty()
+                                    && tc.getTile().equals(selectedRailPathTile)) {
                                 handleTileClick.accept(tc);
                             }
                         });
@@ -698,26 +787,30 @@ public class PlayerActionsController {
      */
     public void addChooseEdgesHandlers() {
         selectedRailPath.clear();
+        selectedRailPathTile = null;
         selectedTileSubscription.unsubscribe();
 
         if (selectedEdges.size() == Config.MAX_RENTABLE_DISTANCE) {
             return;
         }
 
-        setupTileSelectionHandlers((tc, selectedTile) -> highlightTrimmedPath(
-                (costs, distance) -> {
-                    distance += selectedEdges.size();
-                    return distance > Config.MAX_RENTABLE_DISTANCE || distance > getPlayer().getCredits();
-                },
-                findChoosenEdgesPath(tc.getTile(), selectedTile), selectedEdges),
-                tc -> selectedEdges.addAll(selectedRailPath), selectedEdges);
+        setupTileSelectionHandlers((tc, selectedTile) -> {
+            final int chosenEdges = selectedEdges.size();
+            final int credits = getPlayer().getCredits();
+            highlightTrimmedPath(
+                    (costs, distance) -> {
+                        distance += chosenEdges;
+                        return distance > Config.MAX_RENTABLE_DISTANCE || distance > credits;
+                    }, tc.getTile(),
+                    () -> findChoosenEdgesPath(tc.getTile(), selectedTile), selectedEdges);
+        }, tc -> selectedEdges.addAll(selectedRailPath), selectedEdges);
     }
 
     /**
      * Triggers the chooseRailsAction with the selected edges.
      */
     public void confirmSelectedRails() {
-        getPlayerController().triggerAction(new ChooseRailsAction(selectedEdges));
+        triggerAction(new ChooseRailsAction(selectedEdges));
     }
 
     /**
@@ -726,6 +819,31 @@ public class PlayerActionsController {
      * @param accept whether the player accepts the path or not
      */
     public void confirmDrive(boolean accept) {
-        getPlayerController().triggerAction(new ConfirmDrive(accept));
+        triggerAction(new ConfirmDrive(accept));
+    }
+
+    /**
+     * Triggers the given action of the active player controller. With
+     * {@link Config#ENABLE_DIAGNOSTICS} set, the time until the game loop has
+     * executed it and updated the player state is recorded as
+     * {@link Diagnostics#ACTION_LATENCY}.
+     *
+     * @param action the action to trigger
+     */
+    private void triggerAction(final PlayerAction action) {
+        final PlayerController playerController = getPlayerController();
+        if (Config.ENABLE_DIAGNOSTICS) {
+            final long triggeredAt = System.nanoTime();
+            final Property<PlayerState> state = playerController.getPlayerStateProperty();
+            // the game loop sets a new player state after executing the action
+            state.addListener(new InvalidationListener() {
+                @Override
+                public void invalidated(final Observable observable) {
+                    state.removeListener(this);
+                    Diagnostics.ACTION_LATENCY.record(System.nanoTime() - triggeredAt);
+                }
+            });
+        }
+        playerController.triggerAction(action);
     }
 }
@@ -0,0 +1,113 @@
+package hProjekt.controller.gui;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+
+/**
+ * Computes the results of UI queries, like the path previewed while hovering a
+ * tile, on virtual threads so the JavaFX application thread never runs graph
+ * algorithms.
+ * <p>
+ * Queries are grouped by a key and the latest query of a key wins: submitting
+ * a query cancels the previous query with the same key, and results are only
+ * passed to the JavaFX application thread if no newer query was submitted and
+ * the key was not cancelled in the meantime.
+ */
+public class PreviewService {
+    private final ExecutorService executor = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("preview-", 0).factory());
+    private final Map<Object, FutureTask<?>> latest = new ConcurrentHashMap<>();
+
+    /**
+     * Computes the given query in the background and passes the result to the
+     * given consumer on the JavaFX application thread, unless the query was
+     * superseded or cancelled.
+     *
+     * @param <T>      the type of the result
+     * @param key      the key of the query, newer queries with the same key
+     *                 replace this one
+     * @param query    computes the result, is called on a virtual thread
+     * @param onResult receives the result on the JavaFX application thread
+     */
+    public <T> void submit(final Object key, final Supplier<T> query, final Consumer<T> onResult) {
+        final Query<T> task = new Query<>(key, query, onResult);
+        final FutureTask<?> previous = latest.put(key, task);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Cancels the pending query with the given key. Its result is discarded even if
+     * it is already computed.
+     *
+     * @param key the key of the query
+     */
+    public void cancel(final Object key) {
+        final FutureTask<?> task = latest.remove(key);
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Cancels all pending queries.
+     */
+    public void cancelAll() {
+        latest.keySet().forEach(this::cancel);
+    }
+
+    /**
+     * A query that passes its result to the JavaFX application thread if it is
+     * still the latest query of its key when it is done.
+     *
+     * @param <T> the type of the result
+     */
+    private final class Query<T> extends FutureTask<T> {
+        private final Object key;
+        private final Consumer<T> onResult;
+
+        /**
+         * Creates a new query.
+         *
+         * @param key      the key of the query
+         * @param query    computes the result
+         * @param onResult receives the result on the JavaFX application thread
+         */
+        private Query(final Object key, final Supplier<T> query, final Consumer<T> onResult) {
+            super(query::get);
+            this.key = key;
+            this.onResult = onResult;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled() || latest.get(key) != this) {
+                return;
+            }
+            try {
+                final T result = get();
+                Platform.runLater(() -> {
+                    if (latest.remove(key, this)) {
+                        onResult.accept(result);
+                    }
+                });
+            } catch (ExecutionException e) {
+                latest.remove(key, this);
+                System.out.println("Couldn't compute preview: " + e.getCause().getMessage());
+                e.getCause().printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package hProjekt.controller.gui;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -15,6 +16,7 @@ import hProjekt.controller.gui.scene.MainMenuSceneController;
 import hProjekt.controller.gui.scene.SceneController;
 import hProjekt.controller.gui.scene.SettingsSceneController;
 import hProjekt.controller.gui.scene.SetupGameSceneController;
+import hProjekt.model.GameState;
 import hProjekt.model.Player;
 import javafx.application.Platform;
 import javafx.scene.Scene;
@@ -92,10 +94,10 @@ public class SceneSwitcher {
 
         MAIN_MENU(MainMenuSceneController::new),
         ABOUT(AboutSceneController::new),
-        SETUP_GAME_MENU(() -> {
-            getInstance().gameController = new GameController();
-            return new SetupGameSceneController(getInstance().gameController.getState());
-        }),
+        SETUP_GAME_MENU(() -> new SetupGameSceneController(grid -> {
+            getInstance().gameController = new GameController(new GameState(grid, new ArrayList<>()));
+            return getInstance().gameController.getState();
+        })),
         LEADERBOARD(LeaderboardSceneController::new),
         END_SCREEN(() -> {
             List<Player> players = getInstance().gameController.getState().getPlayers();
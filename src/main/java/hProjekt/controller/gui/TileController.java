@@ -11,14 +11,17 @@ import javafx.scene.input.MouseEvent;
  */
 public class TileController implements Controller {
     private final TileBuilder builder;
+    private final HighlightManager highlights;
 
     /**
      * Creates a new tile controller.
      *
-     * @param tile the tile to render
+     * @param tile       the tile to render
+     * @param highlights the manager to report highlight changes to
      */
-    public TileController(final Tile tile) {
+    public TileController(final Tile tile, final HighlightManager highlights) {
         builder = new TileBuilder(tile);
+        this.highlights = highlights;
     }
 
     /**
@@ -37,6 +40,7 @@ public class TileController implements Controller {
      */
     public void highlight(final Consumer<Tile> handler) {
         builder.highlight(() -> handler.accept(getTile()));
+        highlights.setTileClickable(this, true);
     }
 
     /**
@@ -44,6 +48,7 @@ public class TileController implements Controller {
      */
     public void unhighlight() {
         builder.unhighlight();
+        highlights.setTileClickable(this, false);
     }
 
     /**
@@ -53,6 +58,7 @@ public class TileController implements Controller {
      */
     public void setMouseEnteredHandler(final Consumer<MouseEvent> handler) {
         builder.setMouseEnteredHandler(handler);
+        highlights.setTileHoverable(this, true);
     }
 
     /**
@@ -60,6 +66,7 @@ public class TileController implements Controller {
      */
     public void removeMouseEnteredHandler() {
         builder.removeMouseEnteredHandler();
+        highlights.setTileHoverable(this, false);
     }
 
     /**
@@ -69,6 +76,7 @@ public class TileController implements Controller {
      */
     public void setMouseClickedHandler(final Consumer<MouseEvent> handler) {
         builder.setMouseClickedHandler(handler);
+        highlights.setTileClickable(this, true);
     }
 
     /**
@@ -76,6 +84,7 @@ public class TileController implements Controller {
      */
     public void removeMouseClickedHandler() {
         builder.removeMouseClickedHandler();
+        highlights.setTileClickable(this, builder.isHighlighted());
     }
 
     /**
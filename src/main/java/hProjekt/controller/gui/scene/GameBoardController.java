@@ -1,23 +1,29 @@
 package hProjekt.controller.gui.scene;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 
+import hProjekt.Config;
 import hProjekt.controller.GamePhase;
 import hProjekt.controller.PlayerController;
+import hProjekt.controller.gui.DiagnosticsController;
 import hProjekt.controller.gui.HexGridController;
 import hProjekt.controller.gui.PlayerActionsController;
 import hProjekt.controller.gui.PlayerAnimationController;
 import hProjekt.model.City;
 import hProjekt.model.GameState;
+import hProjekt.model.MapFile;
+import hProjekt.model.MapType;
 import hProjekt.model.Player;
 import hProjekt.model.TilePosition;
 import hProjekt.view.GameBoardBuilder;
 import hProjekt.view.menus.overlays.ChosenCitiesOverlayView;
 import hProjekt.view.menus.overlays.CityOverlayView;
 import hProjekt.view.menus.overlays.ConfirmationOverlayView;
+import hProjekt.view.menus.overlays.DiagnosticsOverlayView;
 import hProjekt.view.menus.overlays.GameInfoOverlayView;
 import hProjekt.view.menus.overlays.PlayerOverlayView;
 import hProjekt.view.menus.overlays.RollDiceOverlayView;
@@ -77,6 +83,12 @@ public class GameBoardController implements SceneController {
                 rollDiceOverlayView, chosenCitiesOverlayView, cityOverlayView, confirmationOverlayView, event -> {
                     SceneController.loadEndScreenScene();
                 });
+        builder.setSaveMapAction(event -> saveMap());
+        if (Config.ENABLE_DIAGNOSTICS) {
+            DiagnosticsOverlayView diagnosticsOverlayView = new DiagnosticsOverlayView();
+            new DiagnosticsController(hexGridController.getBuilder().getHexGridPane(), diagnosticsOverlayView);
+            builder.setDiagnosticsOverlay(diagnosticsOverlayView);
+        }
         for (Player player : gameState.getPlayers()) {
             playerAnimationControllers.put(player,
                     new PlayerAnimationController(hexGridController.getBuilder(), player.getColor()));
@@ -186,6 +198,20 @@ public class GameBoardController implements SceneController {
         });
     }
 
+    /**
+     * Saves the map including the current rails to {@link Config#MAP_FILE_PATH},
+     * so it can be played again with {@link MapType#MAP_FILE}.
+     */
+    public void saveMap() {
+        try {
+            MapFile.write(gameState.getGrid(), Config.MAP_FILE_PATH);
+            System.out.println("Saved map to " + Config.MAP_FILE_PATH);
+        } catch (IOException e) {
+            System.out.println("Couldn't save map: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Updates the confirmation overlay with the given message and actions.
      *
@@ -1,12 +1,19 @@
 package hProjekt.controller.gui.scene;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import hProjekt.controller.AiController;
 import hProjekt.model.GameSetup;
 import hProjekt.model.GameSetupImpl;
 import hProjekt.model.GameState;
+import hProjekt.model.HexGrid;
+import hProjekt.model.MapFile;
+import hProjekt.model.MapType;
+import hProjekt.util.NgramModel;
 import hProjekt.view.menus.SetupGameBuilder;
+import javafx.application.Platform;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.util.Builder;
@@ -17,16 +24,17 @@ import javafx.util.Builder;
 public class SetupGameSceneController implements SceneController {
     private final Builder<Region> builder;
     private final GameSetup gameSetup;
-    private final GameState gameState;
+    private final Function<HexGrid, GameState> gameStateFactory;
 
     /**
      * Creates a new setup game scene controller.
      *
-     * @param gameState the game state
+     * @param gameStateFactory creates the game state for the grid of the selected
+     *                         map once the game is started
      */
-    public SetupGameSceneController(final GameState gameState) {
+    public SetupGameSceneController(final Function<HexGrid, GameState> gameStateFactory) {
         this.gameSetup = new GameSetupImpl();
-        this.gameState = gameState;
+        this.gameStateFactory = gameStateFactory;
 
         builder = new SetupGameBuilder(
                 this::loadGameSceneWithSetupData,
@@ -45,11 +53,30 @@ public class SetupGameSceneController implements SceneController {
     }
 
     /**
-     * Loads the game scene with the setup data.
+     * Creates the selected map in the background and loads the game scene with
+     * the setup data once it is ready, so the generation of the map does not
+     * block the JavaFX Application Thread.
      */
     private void loadGameSceneWithSetupData() {
+        final MapType mapType = MapType.fromDisplayName(gameSetup.getMapSelection());
+        CompletableFuture.supplyAsync(() -> mapType.createMap(NgramModel.townNames()))
+                .thenAccept(map -> Platform.runLater(() -> loadGameScene(map)))
+                .exceptionally(e -> {
+                    System.out.println("Couldn't create map: " + e.getMessage());
+                    e.printStackTrace();
+                    return null;
+                });
+    }
+
+    /**
+     * Loads the game scene with the setup data on the given map.
+     *
+     * @param map the created map
+     */
+    private void loadGameScene(final MapFile map) {
         System.out.println("Starting game with setup: ");
         List<String> playerNames = gameSetup.getPlayerNames();
+        GameState gameState = gameStateFactory.apply(map.getGrid());
 
         // Use GameState's newPlayer method to add players
         for (int i = 0; i < playerNames.size(); i++) {
@@ -61,6 +88,7 @@ public class SetupGameSceneController implements SceneController {
             // Create a new player and add it to the GameState
             gameState.newPlayer(playerName, playerColor, aiController);
         }
+        map.placeRails(gameState.getPlayers());
 
         // Print players for debugging
         StringBuilder playersInfo = new StringBuilder("  - Players:\n");
@@ -0,0 +1,161 @@
+package hProjekt.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import hProjekt.Config;
+
+/**
+ * Precomputed fields for placing cities on the plains of a grid, used by
+ * {@link HexGridImpl}.
+ * The coast mask and the mountain proximity are computed once, the city
+ * proximity is updated whenever a city is added. The placement probability of
+ * a plain is therefore a constant time lookup instead of two spiral scans.
+ * <p>
+ * Proximity follows the semantics of a spiral scan with a radius: a position is
+ * near a source if their distance is less than the radius. It is computed with
+ * a multi-source breadth first search over all positions, including positions
+ * without a tile, so gaps in the map do not change the distance.
+ */
+final class CityPlacementField {
+    private final List<TilePosition> plains = new ArrayList<>();
+    private final Map<TilePosition, Integer> indices = new HashMap<>();
+    private final boolean[] coast;
+    private final boolean[] nearMountain;
+    private final boolean[] nearCity;
+    private final boolean[] occupied;
+
+    /**
+     * Creates the fields for the given tiles.
+     *
+     * @param tiles          the tiles of the grid
+     * @param tilePositions  the positions of the tiles in a stable order
+     * @param mountainRadius the radius within which a plain is near a mountain
+     */
+    CityPlacementField(final Map<TilePosition, Tile> tiles, final List<TilePosition> tilePositions,
+            final int mountainRadius) {
+        final List<TilePosition> mountains = new ArrayList<>();
+        for (TilePosition position : tilePositions) {
+            if (tiles.get(position).getType() == Tile.Type.PLAIN) {
+                indices.put(position, plains.size());
+                plains.add(position);
+            } else if (tiles.get(position).getType() == Tile.Type.MOUNTAIN) {
+                mountains.add(position);
+            }
+        }
+        coast = new boolean[plains.size()];
+        nearMountain = new boolean[plains.size()];
+        nearCity = new boolean[plains.size()];
+        occupied = new boolean[plains.size()];
+
+        for (int i = 0; i < plains.size(); i++) {
+            for (TilePosition neighbour : TilePosition.neighbours(plains.get(i))) {
+                if (!tiles.containsKey(neighbour)) {
+                    coast[i] = true;
+                    break;
+                }
+            }
+        }
+        forEachNear(mountains, mountainRadius, index -> nearMountain[index] = true);
+    }
+
+    /**
+     * Returns the number of plains a city could be placed on.
+     *
+     * @return the number of plains
+     */
+    int getCandidateCount() {
+        return plains.size();
+    }
+
+    /**
+     * Returns a uniformly chosen plain.
+     *
+     * @param random the random source
+     * @return the position of a random plain
+     */
+    TilePosition getRandomCandidate(final Random random) {
+        return plains.get(random.nextInt(plains.size()));
+    }
+
+    /**
+     * Returns the probability to place a city on the given plain.
+     * Plains that already carry a city have a probability of zero.
+     *
+     * @param position the position of the plain
+     * @return the probability to place a city on the given plain
+     */
+    double getProbability(final TilePosition position) {
+        final int index = indices.get(position);
+        if (occupied[index]) {
+            return 0;
+        }
+        if (nearCity[index]) {
+            return Config.CITY_NEAR_CITY_PROBABILTY;
+        }
+        if (nearMountain[index]) {
+            return Config.CITY_NEAR_MOUNTAIN_PROBABILTY;
+        }
+        if (coast[index]) {
+            return Config.CITY_AT_COAST_PROBABILTY;
+        }
+        return Config.CITY_BASE_PROBABILTY;
+    }
+
+    /**
+     * Marks the given plain as occupied by a city and updates the city proximity.
+     *
+     * @param position   the position of the city
+     * @param cityRadius the radius within which a plain is near a city
+     */
+    void addCity(final TilePosition position, final int cityRadius) {
+        occupied[indices.get(position)] = true;
+        forEachNear(List.of(position), cityRadius, index -> nearCity[index] = true);
+    }
+
+    /**
+     * Runs a multi-source breadth first search from the given sources and calls
+     * the given action with the index of every plain closer than the given radius
+     * to any source.
+     *
+     * @param sources the sources of the search
+     * @param radius  the radius, positions with a distance less than it are near
+     * @param action  the action to call with the index of each near plain
+     */
+    private void forEachNear(final Collection<TilePosition> sources, final int radius,
+            final IntConsumer action) {
+        if (radius <= 0) {
+            return;
+        }
+        final Map<TilePosition, Integer> distances = new HashMap<>();
+        final Queue<TilePosition> queue = new ArrayDeque<>();
+        for (TilePosition source : sources) {
+            if (distances.putIfAbsent(source, 0) == null) {
+                queue.add(source);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final TilePosition current = queue.poll();
+            final int distance = distances.get(current);
+            final Integer index = indices.get(current);
+            if (index != null) {
+                action.accept(index);
+            }
+            if (distance + 1 >= radius) {
+                continue;
+            }
+            for (TilePosition neighbour : TilePosition.neighbours(current)) {
+                if (distances.putIfAbsent(neighbour, distance + 1) == null) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+    }
+}
@@ -118,7 +118,11 @@ public record EdgeImpl(HexGrid grid, TilePosition position1, TilePosition positi
 
     @Override
     public boolean removeRail(Player player) {
-        return getRailOwnersProperty().getValue().remove(player);
+        if (!getRailOwnersProperty().getValue().remove(player)) {
+            return false;
+        }
+        getHexGrid().getZobristHash().toggleRail(this, player);
+        return true;
     }
 
     @Override
@@ -162,6 +166,7 @@ public record EdgeImpl(HexGrid grid, TilePosition position1, TilePosition positi
         }
         //Set player list
         getRailOwners().add(player);
+        getHexGrid().getZobristHash().toggleRail(this, player);
 
         //it doesn't work as below, since add() returns boolean!
         //railOwners.setValue(addPlayer.add(player));
@@ -204,9 +209,38 @@ public record EdgeImpl(HexGrid grid, TilePosition position1, TilePosition positi
     public Set<Edge> getConnectedEdges() {
         // TODO: P1.3
         //Jiawen write on 25-02-2025
-        //this edge located on HexGrid "grid", look up all edges by calling grid.getEdges()
+        //connected edges share a position with this edge, so only the edges of the two tiles are checked
         //filter the edges with connectsTo, collect them in a Set
-        return grid.getEdges().values().stream().filter(this::connectsTo).collect(Collectors.toSet());
+        return Stream.of(position1, position2).flatMap(position -> grid.getTileAt(position).getEdges().stream())
+                .filter(this::connectsTo).collect(Collectors.toSet());
         //return org.tudalgo.algoutils.student.Student.crash("P1.3 - Remove if implemented");
     }
+
+    /**
+     * Returns whether the given object is an edge between the same tiles of the
+     * same grid. A grid in the lazy edge mode may return several instances for
+     * one edge, see {@link HexGridImpl#getEdges()}, which are equal and share
+     * their rail owners.
+     *
+     * @param other the object to compare to
+     * @return whether the object is the same edge
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof EdgeImpl edge) || grid != edge.grid) {
+            return false;
+        }
+        return position1.equals(edge.position1) && position2.equals(edge.position2)
+                || position1.equals(edge.position2) && position2.equals(edge.position1);
+    }
+
+    /**
+     * Returns a hash code that does not depend on the order of the positions.
+     *
+     * @return the hash code of this edge
+     */
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(grid) + position1.hashCode() + position2.hashCode();
+    }
 }
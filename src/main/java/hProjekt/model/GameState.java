@@ -119,7 +119,11 @@ public final class GameState {
      * @param position the {@link TilePosition} to set the position to
      */
     public void setPlayerPositon(final Player player, final TilePosition position) {
-        playerPositions.put(player, position);
+        final TilePosition previous = playerPositions.put(player, position);
+        if (previous != null) {
+            grid.getZobristHash().togglePosition(player, previous);
+        }
+        grid.getZobristHash().togglePosition(player, position);
     }
 
     /**
@@ -152,6 +156,7 @@ public final class GameState {
      * Resets the positions of all {@link Player}s currently driving.
      */
     public void resetPlayerPositions() {
+        playerPositions.forEach(grid.getZobristHash()::togglePosition);
         playerPositions.clear();
     }
 
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 
 import org.tudalgo.algoutils.student.annotation.DoNotTouch;
 
@@ -111,6 +112,19 @@ public interface HexGrid {
      */
     Edge getEdge(TilePosition position0, TilePosition position1);
 
+    /**
+     * Returns the cost of driving from the given position to the given
+     * neighbouring position. Unlike {@link Edge#getDrivingCost(TilePosition)},
+     * this does not need to look up the edge between the positions.
+     *
+     * @param from the position to drive from
+     * @param to   the neighbouring position to drive to
+     * @return the driving cost between the positions
+     * @throws IllegalArgumentException if the positions are no neighbouring tiles
+     *                                  of this grid
+     */
+    int getDrivingCost(TilePosition from, TilePosition to);
+
     /**
      * Returns all cities of the grid.
      *
@@ -147,6 +161,14 @@ public interface HexGrid {
      */
     Map<TilePosition, City> getStartingCities();
 
+    /**
+     * Returns the Zobrist hash of the rails, credits and positions of the game
+     * played on this grid.
+     *
+     * @return the Zobrist hash of the game played on this grid
+     */
+    ZobristHash getZobristHash();
+
     /**
      * Returns all rails of the given player.
      *
@@ -155,6 +177,15 @@ public interface HexGrid {
      */
     Map<Set<TilePosition>, Edge> getRails(Player player);
 
+    /**
+     * Returns all edges with at least one rail. Unlike iterating
+     * {@link #getEdges()}, this only visits the stored edges of a grid in the lazy
+     * edge mode.
+     *
+     * @return all edges with at least one rail
+     */
+    Map<Set<TilePosition>, Edge> getRails();
+
     /**
      * Finds the shortest path between start and end using the available edges and
      * the edgeCostFunction.
@@ -166,7 +197,52 @@ public interface HexGrid {
      *                         receives the two position of the edge as inputs.
      *                         First the current position, second the next position.
      * @return the shortest path between start and end
+     * @throws java.util.concurrent.CancellationException if the calling thread is
+     *                                                    interrupted during the
+     *                                                    search
      */
     List<Edge> findPath(TilePosition start, TilePosition end, Set<Edge> availabeEdges,
             BiFunction<TilePosition, TilePosition, Integer> edgeCostFunction);
+
+    /**
+     * Finds the shortest paths from start to every position that can be reached
+     * using the available edges and the edgeCostFunction.
+     * Unlike {@link #findPath(TilePosition, TilePosition, Set, BiFunction)} the
+     * search is not stopped at a target, so the returned tree answers path queries
+     * to any position without searching again.
+     *
+     * @param start            the start position
+     * @param isAvailable      whether the edge between the two given positions
+     *                         may be used by the paths. First the current
+     *                         position, second the next position.
+     * @param edgeCostFunction the function to calculate the cost of an edge
+     *                         receives the two position of the edge as inputs.
+     *                         First the current position, second the next position.
+     * @return the shortest path tree rooted at start
+     * @throws java.util.concurrent.CancellationException if the calling thread is
+     *                                                    interrupted during the
+     *                                                    search
+     */
+    ShortestPathTree findShortestPathTree(TilePosition start, BiPredicate<TilePosition, TilePosition> isAvailable,
+            BiFunction<TilePosition, TilePosition, Integer> edgeCostFunction);
+
+    /**
+     * Finds the Pareto frontier of routes between start and end with respect to
+     * the driving cost and the renting cost.
+     * No returned route is worse than another one in both costs. The routes are
+     * sorted by ascending driving cost, and therefore by descending renting cost.
+     * Edges the given player has no rail on count as rented, each rail owner is
+     * paid according to {@link Edge#getRentingCost(Player)}.
+     *
+     * @param start          the start position
+     * @param end            the end position
+     * @param availableEdges the edges to search for routes, own and rentable ones
+     * @param player         the player driving the route
+     * @param maxRentedEdges the maximum number of rented edges of a route
+     * @param maxRentingCost the maximum renting cost of a route
+     * @return the Pareto optimal routes between start and end, empty if there is
+     *         no route within the limits
+     */
+    List<Route> findRoutes(TilePosition start, TilePosition end, Set<Edge> availableEdges, Player player,
+            int maxRentedEdges, int maxRentingCost);
 }
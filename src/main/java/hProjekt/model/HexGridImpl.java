@@ -1,16 +1,25 @@
 package hProjekt.model;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
-import java.util.function.Predicate;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -20,25 +29,49 @@ import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 import hProjekt.Config;
 import hProjekt.model.TilePosition.EdgeDirection;
 import hProjekt.util.NameGenerator;
+import hProjekt.util.NgramModel;
+import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.Property;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableDoubleValue;
+import javafx.beans.value.ObservableValue;
 import javafx.util.Pair;
 
 /**
  * Default implementation of {@link HexGrid}.
+ * <p>
+ * Generated grids with at least {@link Config#LAZY_EDGES_MIN_TILES} tiles use
+ * a lazy edge mode: the edges are given implicitly by the adjacency of the
+ * tiles and only edges with rails are stored. Looking up or iterating an edge
+ * that is not stored returns a new instance, whose rail owners store the edge
+ * once they are changed or observed. All instances of an edge are equal and
+ * share the rail owners of the stored one. Path searches find neighbours and
+ * costs from the tile positions without looking up edges.
  */
 public class HexGridImpl implements HexGrid {
 
     private final Map<TilePosition, Tile> tiles = new HashMap<>();
-    private final Map<Set<TilePosition>, Edge> edges = new HashMap<>();
+    private final List<TilePosition> tilePositions = new ArrayList<>();
+    private final Map<Set<TilePosition>, Edge> edges = new ConcurrentHashMap<>();
+    private final Map<Set<TilePosition>, Edge> lazyEdges = new LazyEdgeMap();
+    private boolean lazyEdgeMode;
+    private int lazyEdgeCount;
     private final Map<TilePosition, City> cities = new HashMap<>();
     private final ObservableDoubleValue tileWidth;
     private final ObservableDoubleValue tileHeight;
     private final DoubleProperty tileSize = new SimpleDoubleProperty(50);
-    private final Random random = Config.RANDOM;
+    private final Random random;
+    private final ZobristHash zobristHash = new ZobristHash();
+
+    /**
+     * The directions that contain every pair of neighbours exactly once.
+     */
+    private static final EdgeDirection[] FORWARD_DIRECTIONS = { EdgeDirection.EAST, EdgeDirection.SOUTH_EAST,
+            EdgeDirection.SOUTH_WEST };
 
     /**
      * Creates a new HexGrid with the given scale.
@@ -49,6 +82,7 @@ public class HexGridImpl implements HexGrid {
      */
     @DoNotTouch
     public HexGridImpl(final int scale, final int numberOfCities, final String[] names) {
+        this.random = Config.RANDOM;
         this.tileHeight = Bindings.createDoubleBinding(() -> tileSize.get() * 2, tileSize);
         this.tileWidth = Bindings.createDoubleBinding(() -> Math.sqrt(3) * tileSize.get(), tileSize);
         initTiles(scale);
@@ -57,6 +91,63 @@ public class HexGridImpl implements HexGrid {
         initCities(numberOfCities, new NameGenerator(names, 3, random));
     }
 
+    /**
+     * Creates a new HexGrid with the given scale that names its cities with the
+     * given compiled model.
+     *
+     * @param scale          the scale of the grid
+     * @param numberOfCities the number of cities to place
+     * @param nameModel      the model to generate the names of the cities with,
+     *                       see {@link NgramModel#townNames()}
+     */
+    public HexGridImpl(final int scale, final int numberOfCities, final NgramModel nameModel) {
+        this(scale, numberOfCities, nameModel, Config.RANDOM);
+    }
+
+    /**
+     * Creates a new HexGrid with the given scale that names its cities with the
+     * given compiled model and draws all random decisions from the given random
+     * number generator, so the map only depends on its state.
+     *
+     * @param scale          the scale of the grid
+     * @param numberOfCities the number of cities to place
+     * @param nameModel      the model to generate the names of the cities with,
+     *                       see {@link NgramModel#townNames()}
+     * @param random         the random number generator of the map
+     */
+    public HexGridImpl(final int scale, final int numberOfCities, final NgramModel nameModel,
+            final Random random) {
+        this.random = random;
+        this.tileHeight = Bindings.createDoubleBinding(() -> tileSize.get() * 2, tileSize);
+        this.tileWidth = Bindings.createDoubleBinding(() -> Math.sqrt(3) * tileSize.get(), tileSize);
+        initTiles(scale);
+        initEdges();
+
+        initCities(numberOfCities, new NameGenerator(nameModel, random));
+    }
+
+    /**
+     * Creates a new HexGrid with the default values that names its cities with
+     * the given compiled model.
+     *
+     * @param nameModel the model to generate the names of the cities with, see
+     *                  {@link NgramModel#townNames()}
+     */
+    public HexGridImpl(final NgramModel nameModel) {
+        this(Config.MAP_SCALE, Config.NUMBER_OF_CITIES, nameModel);
+    }
+
+    /**
+     * Creates a new empty HexGrid, to be filled phase by phase with
+     * {@link #initTiles(int)}, {@link #initEdges()} and
+     * {@link #initCities(int, NameGenerator)}.
+     */
+    HexGridImpl() {
+        this.random = Config.RANDOM;
+        this.tileHeight = Bindings.createDoubleBinding(() -> tileSize.get() * 2, tileSize);
+        this.tileWidth = Bindings.createDoubleBinding(() -> Math.sqrt(3) * tileSize.get(), tileSize);
+    }
+
     /**
      * Creates a new HexGrid with the default values.
      *
@@ -66,8 +157,47 @@ public class HexGridImpl implements HexGrid {
         this(Config.MAP_SCALE, Config.NUMBER_OF_CITIES, names);
     }
 
+    /**
+     * Creates a new HexGrid with the given terrain.
+     * Edges are created between all neighbouring tiles and cities are placed like
+     * on a random walk map.
+     *
+     * @param terrain        the type of every tile, see
+     *                       {@link NoiseTerrainGenerator#generate(int)}
+     * @param numberOfCities the number of cities to place
+     * @param nameModel      the model to generate the names of the cities with
+     */
+    public HexGridImpl(final Map<TilePosition, Tile.Type> terrain, final int numberOfCities,
+            final NgramModel nameModel) {
+        this(terrain, numberOfCities, nameModel, Config.RANDOM);
+    }
+
+    /**
+     * Creates a new HexGrid with the given terrain that places its cities with
+     * the given random number generator.
+     *
+     * @param terrain        the type of every tile, see
+     *                       {@link NoiseTerrainGenerator#generate(int)}
+     * @param numberOfCities the number of cities to place
+     * @param nameModel      the model to generate the names of the cities with
+     * @param random         the random number generator of the map
+     */
+    public HexGridImpl(final Map<TilePosition, Tile.Type> terrain, final int numberOfCities,
+            final NgramModel nameModel, final Random random) {
+        this.random = random;
+        this.tileHeight = Bindings.createDoubleBinding(() -> tileSize.get() * 2, tileSize);
+        this.tileWidth = Bindings.createDoubleBinding(() -> Math.sqrt(3) * tileSize.get(), tileSize);
+        terrain.forEach(this::addTile);
+        initEdges();
+
+        initCities(numberOfCities, new NameGenerator(nameModel, random));
+    }
+
     /**
      * Creates a new HexGrid with the given tiles, edges, and cities.
+     * Tiles, edges and cities of the default implementations are rebound to
+     * this grid, so they may be created before the grid exists, e.g. when
+     * loading a {@link MapFile}.
      *
      * @param tiles  the tiles
      * @param edges  the edges
@@ -75,11 +205,19 @@ public class HexGridImpl implements HexGrid {
      */
     public HexGridImpl(final Map<TilePosition, Tile> tiles, final Map<Set<TilePosition>, Edge> edges,
             final Map<TilePosition, City> cities) {
-        this.tiles.putAll(tiles);
-        this.edges.putAll(edges);
-        this.cities.putAll(cities);
+        this.random = Config.RANDOM;
         this.tileHeight = Bindings.createDoubleBinding(() -> tileSize.get() * 2, tileSize);
         this.tileWidth = Bindings.createDoubleBinding(() -> Math.sqrt(3) * tileSize.get(), tileSize);
+        tiles.forEach((position, tile) -> this.tiles.put(position, tile instanceof TileImpl
+                ? new TileImpl(position, tile.getType(), tileHeight, tileWidth, this)
+                : tile));
+        this.tilePositions.addAll(tiles.keySet());
+        edges.forEach((positions, edge) -> this.edges.put(positions, edge instanceof EdgeImpl
+                ? new EdgeImpl(this, edge.getPosition1(), edge.getPosition2(), edge.getRailOwnersProperty())
+                : edge));
+        cities.forEach((position, city) -> this.cities.put(position, city instanceof CityImpl
+                ? new CityImpl(position, city.getName(), city.isStartingCity(), this)
+                : city));
     }
 
     /**
@@ -102,30 +240,6 @@ public class HexGridImpl implements HexGrid {
         }
     }
 
-    /**
-     * Checks if the neighbouring tiles of the given position satisfy the given
-     * predicate.
-     * Checks the tiles in the given radius.
-     *
-     * @param center    the center position
-     * @param predicate the predicate to check
-     * @param radius    the radius to check
-     * @return true if the predicate is satisfied by a neighbouring tile, false
-     *         otherwise
-     */
-    @DoNotTouch
-    private boolean isNear(final TilePosition center, final Predicate<Tile> predicate, final int radius) {
-        boolean[] found = { false };
-        TilePosition.forEachSpiral(center, radius, (position, params) -> {
-            if (predicate.test(tiles.get(position))) {
-                found[0] = true;
-                return true;
-            }
-            return false;
-        });
-        return found[0];
-    }
-
     /**
      * Initializes the tiles in this grid.
      * Performs several random walks to create a random map.
@@ -134,21 +248,29 @@ public class HexGridImpl implements HexGrid {
      * @param grid_scale the scale of the grid
      */
     @DoNotTouch
-    private void initTiles(final int grid_scale) {
+    void initTiles(final int grid_scale) {
         final TilePosition center = new TilePosition(0, 0);
         addTile(center, Tile.Type.PLAIN);
 
         for (int i = 0; i < 10 * grid_scale; i++) {
-            TilePosition start = tiles.keySet().stream().skip(random.nextInt(tiles.size())).findFirst().get();
-            doRandomWalk(start, Tile.Type.PLAIN, 3 * grid_scale);
+            doRandomWalk(getRandomTilePosition(), Tile.Type.PLAIN, 3 * grid_scale);
         }
 
         for (int i = 0; i < 4 * grid_scale; i++) {
-            TilePosition start = tiles.keySet().stream().skip(random.nextInt(tiles.size())).findFirst().get();
-            doRandomWalk(start, Tile.Type.MOUNTAIN, (int) (0.5 * grid_scale));
+            doRandomWalk(getRandomTilePosition(), Tile.Type.MOUNTAIN, (int) (0.5 * grid_scale));
         }
     }
 
+    /**
+     * Returns the position of a uniformly chosen tile of this grid in constant
+     * time.
+     *
+     * @return the position of a random tile
+     */
+    private TilePosition getRandomTilePosition() {
+        return tilePositions.get(random.nextInt(tilePositions.size()));
+    }
+
     /**
      * Initializes the cities in this grid.
      * The cities will be placed randomly on the map.
@@ -159,58 +281,61 @@ public class HexGridImpl implements HexGrid {
      * - If the tile is at the coast the probability is 0.1
      * - If the tile is near a mountain the probability is 0.05
      * - If the tile is near another city the probability is 0.001
+     * - Tiles that already carry a city are skipped
+     * Every city gets a distinct name.
+     * The probabilities are looked up in a {@link CityPlacementField}.
      *
      * @param amount        the amount of cities to place
      * @param nameGenerator the name generator to use
      */
     @DoNotTouch
-    private void initCities(int amount, NameGenerator nameGenerator) {
+    void initCities(int amount, NameGenerator nameGenerator) {
+        final CityPlacementField field = new CityPlacementField(tiles, tilePositions,
+                Config.CITY_NEAR_MOUNTAIN_RADIUS);
+        final int maxCities = Math.min(amount, field.getCandidateCount());
+        final Set<String> usedNames = new HashSet<>();
+        cities.values().forEach(city -> usedNames.add(city.getName()));
         int startingCitiesAdded = 0;
 
-        while (cities.size() < amount) {
-            Tile tile = tiles.values().stream().skip(random.nextInt(tiles.size())).findFirst().get();
+        while (cities.size() < maxCities) {
+            final TilePosition position = field.getRandomCandidate(random);
 
-            if (tile.getType() != Tile.Type.PLAIN) {
-                continue;
-            }
-
-            double probability = Config.CITY_BASE_PROBABILTY;
-
-            if (tile.isAtCoast()) {
-                probability = Config.CITY_AT_COAST_PROBABILTY;
-            }
-
-            if (isNear(tile.getPosition(), t -> t != null && t.getType() == Tile.Type.MOUNTAIN,
-                    Config.CITY_NEAR_MOUNTAIN_RADIUS)) {
-                probability = Config.CITY_NEAR_MOUNTAIN_PROBABILTY;
-            }
-
-            if (isNear(tile.getPosition(), t -> t != null && cities.get(t.getPosition()) != null,
-                    Config.CITY_NEAR_CITY_RADIUS)) {
-                probability = Config.CITY_NEAR_CITY_PROBABILTY;
-            }
-
-            if (random.nextDouble() < probability) {
+            if (random.nextDouble() < field.getProbability(position)) {
                 boolean isStartingCity = false;
                 if (startingCitiesAdded < Config.NUMBER_OF_STARTING_CITIES
-                        && (amount - cities.size() <= Config.NUMBER_OF_STARTING_CITIES - startingCitiesAdded
+                        && (maxCities - cities.size() <= Config.NUMBER_OF_STARTING_CITIES - startingCitiesAdded
                                 || random.nextBoolean())) {
                     isStartingCity = true;
                     startingCitiesAdded++;
                 }
 
-                final City city = new CityImpl(tile.getPosition(), nameGenerator.generateName(10), isStartingCity,
-                        this);
-                this.cities.put(tile.getPosition(), city);
+                final City city = new CityImpl(position, nameGenerator.generateUniqueName(10, usedNames),
+                        isStartingCity, this);
+                this.cities.put(position, city);
+                field.addCity(position, Config.CITY_NEAR_CITY_RADIUS);
             }
         }
     }
 
     /**
      * Initializes the edges in this grid.
+     * Grids with at least {@link Config#LAZY_EDGES_MIN_TILES} tiles only count
+     * their edges and create them on demand.
      */
     @DoNotTouch
-    private void initEdges() {
+    void initEdges() {
+        if (tiles.size() >= Config.LAZY_EDGES_MIN_TILES) {
+            lazyEdgeMode = true;
+            lazyEdgeCount = 0;
+            for (TilePosition position : tilePositions) {
+                for (EdgeDirection direction : FORWARD_DIRECTIONS) {
+                    if (tiles.containsKey(TilePosition.neighbour(position, direction))) {
+                        lazyEdgeCount++;
+                    }
+                }
+            }
+            return;
+        }
         for (final var tile : this.tiles.values()) {
             Arrays.stream(TilePosition.EdgeDirection.values())
                     .filter(ed -> this.tiles.containsKey(TilePosition.neighbour(tile.getPosition(), ed)))
@@ -281,19 +406,322 @@ public class HexGridImpl implements HexGrid {
      * @param type     type of the new tile
      */
     private void addTile(final TilePosition position, final Tile.Type type) {
+        final Tile previous = tiles.get(position);
+        if (previous != null && previous.getType() == type) {
+            return;
+        }
         tiles.put(position, new TileImpl(position, type, tileHeight, tileWidth, this));
+        if (previous == null) {
+            tilePositions.add(position);
+        }
     }
 
     // Edges / Roads
 
+    /**
+     * {@inheritDoc}
+     * In the lazy edge mode the returned map creates the edges it is asked for
+     * and all edges while it is iterated. Game logic therefore finds edges by
+     * the adjacency of tiles and rails through {@link #getRails()} instead of
+     * iterating this map.
+     */
     @Override
     public Map<Set<TilePosition>, Edge> getEdges() {
-        return Collections.unmodifiableMap(edges);
+        return lazyEdgeMode ? lazyEdges : Collections.unmodifiableMap(edges);
     }
 
     @Override
     public Edge getEdge(final TilePosition position0, final TilePosition position1) {
-        return edges.get(Set.of(position0, position1));
+        return (lazyEdgeMode ? lazyEdges : edges).get(Set.of(position0, position1));
+    }
+
+    @Override
+    public int getDrivingCost(final TilePosition from, final TilePosition to) {
+        final Tile fromTile = tiles.get(from);
+        final Tile toTile = tiles.get(to);
+        if (fromTile == null || toTile == null || !TilePosition.neighbours(from).contains(to)) {
+            throw new IllegalArgumentException("The given positions are no neighbouring tiles of this grid.");
+        }
+        return Config.TILE_TYPE_TO_DRIVING_COST.get(new Pair<>(fromTile.getType(), toTile.getType()));
+    }
+
+    /**
+     * Returns the stored edge between the given neighbouring tiles, storing a new
+     * one if there is none yet.
+     *
+     * @param position  the position of the first tile
+     * @param neighbour the position of the second tile
+     * @return the stored edge between the tiles
+     */
+    private Edge materializeEdge(final TilePosition position, final TilePosition neighbour) {
+        return edges.computeIfAbsent(Set.of(position, neighbour),
+                key -> new EdgeImpl(this, position, neighbour, new SimpleObjectProperty<>(new ArrayList<>())));
+    }
+
+    /**
+     * Returns the edge between the given neighbouring tiles of a grid in the lazy
+     * edge mode: the stored one if it exists or a new one that is not stored.
+     *
+     * @param position  the position of the first tile
+     * @param neighbour the position of the second tile
+     * @return the edge between the tiles
+     */
+    private Edge lazyEdge(final TilePosition position, final TilePosition neighbour) {
+        final Edge edge = edges.get(Set.of(position, neighbour));
+        return edge != null ? edge : new EdgeImpl(this, position, neighbour, new LazyRailOwners(position, neighbour));
+    }
+
+    /**
+     * The edges of a grid in the lazy edge mode. Lookups and iteration return the
+     * stored edges and new instances for all other edges, see
+     * {@link #lazyEdge(TilePosition, TilePosition)}.
+     * Every pair of neighbours is iterated once, from the tile the other one is in
+     * one of the {@link #FORWARD_DIRECTIONS} of.
+     */
+    private final class LazyEdgeMap extends AbstractMap<Set<TilePosition>, Edge> {
+        @Override
+        public int size() {
+            return lazyEdgeCount;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return toNeighbours(key) != null;
+        }
+
+        @Override
+        public Edge get(final Object key) {
+            final TilePosition[] neighbours = toNeighbours(key);
+            return neighbours == null ? null : lazyEdge(neighbours[0], neighbours[1]);
+        }
+
+        @Override
+        public Set<Entry<Set<TilePosition>, Edge>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return lazyEdgeCount;
+                }
+
+                @Override
+                public Iterator<Entry<Set<TilePosition>, Edge>> iterator() {
+                    return new Iterator<>() {
+                        private int tile = 0;
+                        private int direction = -1;
+
+                        {
+                            advance();
+                        }
+
+                        /**
+                         * Moves to the next pair of neighbours.
+                         */
+                        private void advance() {
+                            while (tile < tilePositions.size()) {
+                                direction++;
+                                if (direction == FORWARD_DIRECTIONS.length) {
+                                    direction = -1;
+                                    tile++;
+                                } else if (tiles.containsKey(TilePosition.neighbour(tilePositions.get(tile),
+                                        FORWARD_DIRECTIONS[direction]))) {
+                                    return;
+                                }
+                            }
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return tile < tilePositions.size();
+                        }
+
+                        @Override
+                        public Entry<Set<TilePosition>, Edge> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final TilePosition position = tilePositions.get(tile);
+                            final TilePosition neighbour = TilePosition.neighbour(position,
+                                    FORWARD_DIRECTIONS[direction]);
+                            advance();
+                            return new SimpleImmutableEntry<>(Set.of(position, neighbour),
+                                    lazyEdge(position, neighbour));
+                        }
+                    };
+                }
+            };
+        }
+
+        /**
+         * Returns the two positions of the given key if it is a pair of neighbouring
+         * tiles of this grid.
+         *
+         * @param key the key
+         * @return the two positions or {@code null} if the key is no edge
+         */
+        private TilePosition[] toNeighbours(final Object key) {
+            if (!(key instanceof Set<?> set) || set.size() != 2) {
+                return null;
+            }
+            final Iterator<?> iterator = set.iterator();
+            if (!(iterator.next() instanceof TilePosition position)
+                    || !(iterator.next() instanceof TilePosition neighbour)) {
+                return null;
+            }
+            final int dq = neighbour.q() - position.q();
+            final int dr = neighbour.r() - position.r();
+            if (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr) != 2 || !tiles.containsKey(position)
+                    || !tiles.containsKey(neighbour)) {
+                return null;
+            }
+            return new TilePosition[] { position, neighbour };
+        }
+    }
+
+    /**
+     * The rail owners of an edge of a grid in the lazy edge mode that was not
+     * stored when it was looked up. Reads are answered by the stored edge if it
+     * exists by now and with an empty list otherwise. Changing or observing the
+     * owners stores the edge first, see
+     * {@link #materializeEdge(TilePosition, TilePosition)}, so all instances of an
+     * edge share the owners of the stored one.
+     */
+    private final class LazyRailOwners implements Property<List<Player>> {
+        private final TilePosition position;
+        private final TilePosition neighbour;
+
+        /**
+         * Creates the rail owners of the edge between the given neighbouring tiles.
+         *
+         * @param position  the position of the first tile
+         * @param neighbour the position of the second tile
+         */
+        private LazyRailOwners(final TilePosition position, final TilePosition neighbour) {
+            this.position = position;
+            this.neighbour = neighbour;
+        }
+
+        /**
+         * Returns the rail owners of the stored edge.
+         *
+         * @return the rail owners of the stored edge or {@code null} if the edge is
+         *         not stored
+         */
+        private Property<List<Player>> stored() {
+            final Edge edge = edges.get(Set.of(position, neighbour));
+            return edge != null ? edge.getRailOwnersProperty() : null;
+        }
+
+        /**
+         * Returns the rail owners of the stored edge, storing the edge if necessary.
+         *
+         * @return the rail owners of the stored edge
+         */
+        private Property<List<Player>> materialize() {
+            return materializeEdge(position, neighbour).getRailOwnersProperty();
+        }
+
+        @Override
+        public List<Player> getValue() {
+            final Property<List<Player>> stored = stored();
+            if (stored != null) {
+                return stored.getValue();
+            }
+            // adding the first owner stores the edge, there is nothing to remove yet
+            return new AbstractList<>() {
+                @Override
+                public Player get(final int index) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+
+                @Override
+                public int size() {
+                    return 0;
+                }
+
+                @Override
+                public void add(final int index, final Player player) {
+                    materialize().getValue().add(index, player);
+                }
+            };
+        }
+
+        @Override
+        public void setValue(final List<Player> value) {
+            materialize().setValue(value);
+        }
+
+        @Override
+        public void addListener(final ChangeListener<? super List<Player>> listener) {
+            materialize().addListener(listener);
+        }
+
+        @Override
+        public void removeListener(final ChangeListener<? super List<Player>> listener) {
+            final Property<List<Player>> stored = stored();
+            if (stored != null) {
+                stored.removeListener(listener);
+            }
+        }
+
+        @Override
+        public void addListener(final InvalidationListener listener) {
+            materialize().addListener(listener);
+        }
+
+        @Override
+        public void removeListener(final InvalidationListener listener) {
+            final Property<List<Player>> stored = stored();
+            if (stored != null) {
+                stored.removeListener(listener);
+            }
+        }
+
+        @Override
+        public void bind(final ObservableValue<? extends List<Player>> observable) {
+            materialize().bind(observable);
+        }
+
+        @Override
+        public void unbind() {
+            final Property<List<Player>> stored = stored();
+            if (stored != null) {
+                stored.unbind();
+            }
+        }
+
+        @Override
+        public boolean isBound() {
+            final Property<List<Player>> stored = stored();
+            return stored != null && stored.isBound();
+        }
+
+        @Override
+        public void bindBidirectional(final Property<List<Player>> other) {
+            materialize().bindBidirectional(other);
+        }
+
+        @Override
+        public void unbindBidirectional(final Property<List<Player>> other) {
+            final Property<List<Player>> stored = stored();
+            if (stored != null) {
+                stored.unbindBidirectional(other);
+            }
+        }
+
+        @Override
+        public Object getBean() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "";
+        }
+    }
+
+    @Override
+    public ZobristHash getZobristHash() {
+        return zobristHash;
     }
 
     @Override
@@ -314,6 +742,14 @@ public class HexGridImpl implements HexGrid {
         //return org.tudalgo.algoutils.student.Student.crash("P1.3 - Remove if implemented");
     }
 
+    @Override
+    public Map<Set<TilePosition>, Edge> getRails() {
+        // only stored edges can carry rails, so the lazy ones are skipped
+        return edges.entrySet().stream()
+                .filter(entry -> entry.getValue().hasRail())
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
     @Override
     public Map<TilePosition, City> getCities() {
         return Collections.unmodifiableMap(cities);
@@ -333,7 +769,8 @@ public class HexGridImpl implements HexGrid {
                 City city = entry.getValue();
                 // Loop over all edges and check if the condition that the edge has a rail built on and if the current
                 // city is next to this edge on either positions is satisfied at least once
-                return getEdges().values().stream()
+                // only stored edges can carry rails, so the lazy ones are skipped
+                return edges.values().stream()
                     .anyMatch(edge -> edge.hasRail() &&
                         (edge.getPosition1().equals(city.getPosition()) || edge.getPosition2().equals(city.getPosition())));
             })
@@ -350,7 +787,7 @@ public class HexGridImpl implements HexGrid {
                 City city = entry.getValue();
                 // Loop over all edges and check if the condition that the edge has a rail built on and if the current
                 // city is next to this edge on either positions is never satisfied
-                return getEdges().values().stream()
+                return edges.values().stream()
                     .noneMatch(edge -> edge.hasRail() &&
                         (edge.getPosition1().equals(city.getPosition()) || edge.getPosition2().equals(city.getPosition())));
             })
@@ -375,13 +812,19 @@ public class HexGridImpl implements HexGrid {
         previous.put(start, start);
         distance.put(start, 0);
 
+        final Map<Set<TilePosition>, Edge> edgesByPositions = byPositions(availableEdges);
+
         while (!positionQueue.isEmpty()) {
+            checkInterrupted();
             TilePosition current = positionQueue.poll().getKey();
             if (current.equals(target)) {
                 break;
             }
-            for (TilePosition next : getTileAt(current).getConnectedNeighbours(availableEdges).stream()
-                    .map(Tile::getPosition).toList()) {
+            for (EdgeDirection direction : EdgeDirection.VALUES) {
+                final TilePosition next = TilePosition.neighbour(current, direction);
+                if (!edgesByPositions.containsKey(Set.of(current, next))) {
+                    continue;
+                }
                 int newDistance = distance.get(current)
                         + edgeCostFunction.apply(current, next);
                 if (!distance.containsKey(next) || newDistance < distance.get(next)) {
@@ -401,9 +844,157 @@ public class HexGridImpl implements HexGrid {
 
         while (!current.equals(start)) {
             TilePosition previousPosition = previous.get(current);
-            pathEdges.add(getEdge(previousPosition, current));
+            pathEdges.add(edgesByPositions.get(Set.of(previousPosition, current)));
             current = previousPosition;
         }
         return pathEdges.reversed();
     }
+
+    @Override
+    public ShortestPathTree findShortestPathTree(final TilePosition start,
+            final BiPredicate<TilePosition, TilePosition> isAvailable,
+            final BiFunction<TilePosition, TilePosition, Integer> edgeCostFunction) {
+        final PriorityQueue<Pair<TilePosition, Integer>> positionQueue = new PriorityQueue<>(
+                (pair1, pair2) -> Integer.compare(pair1.getValue(), pair2.getValue()));
+        final Map<TilePosition, TilePosition> previous = new HashMap<>();
+        final Map<TilePosition, Integer> distance = new HashMap<>();
+        positionQueue.add(new Pair<>(start, 0));
+        previous.put(start, start);
+        distance.put(start, 0);
+
+        while (!positionQueue.isEmpty()) {
+            checkInterrupted();
+            final Pair<TilePosition, Integer> entry = positionQueue.poll();
+            final TilePosition current = entry.getKey();
+            if (entry.getValue() > distance.get(current)) {
+                continue;
+            }
+            for (EdgeDirection direction : EdgeDirection.VALUES) {
+                final TilePosition next = TilePosition.neighbour(current, direction);
+                if (getTileAt(next) == null || !isAvailable.test(current, next)) {
+                    continue;
+                }
+                final int newDistance = entry.getValue() + edgeCostFunction.apply(current, next);
+                if (!distance.containsKey(next) || newDistance < distance.get(next)) {
+                    distance.put(next, newDistance);
+                    previous.put(next, current);
+                    positionQueue.add(new Pair<>(next, newDistance));
+                }
+            }
+        }
+        return new ShortestPathTree(this, start, previous, distance);
+    }
+
+    /**
+     * Returns the given edges by the positions of their tiles, so a path search
+     * can find the available edges around a position without looking up edges
+     * of the grid.
+     *
+     * @param edges the edges
+     * @return the edges by the positions of their tiles
+     */
+    private static Map<Set<TilePosition>, Edge> byPositions(final Set<Edge> edges) {
+        final Map<Set<TilePosition>, Edge> edgesByPositions = new HashMap<>();
+        for (Edge edge : edges) {
+            edgesByPositions.put(edge.getAdjacentTilePositions(), edge);
+        }
+        return edgesByPositions;
+    }
+
+    /**
+     * Stops a path search if the calling thread was interrupted, so previews that
+     * are no longer needed don't keep searching the whole grid.
+     *
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("The path search was interrupted.");
+        }
+    }
+
+    /**
+     * A partial route ending at a position, used by
+     * {@link #findRoutes(TilePosition, TilePosition, Set, Player, int, int)}.
+     *
+     * @param position    the position the partial route ends at
+     * @param drivingCost the driving cost so far
+     * @param rentingCost the renting cost so far
+     * @param rentedEdges the number of rented edges so far
+     * @param edge        the last edge of the partial route or {@code null} at the
+     *                    start
+     * @param previous    the partial route without the last edge or {@code null} at
+     *                    the start
+     */
+    private record RouteLabel(TilePosition position, int drivingCost, int rentingCost, int rentedEdges, Edge edge,
+            RouteLabel previous) {
+
+        /**
+         * Returns whether this label is at least as good as the given label in every
+         * criterion.
+         *
+         * @param other the label to compare to
+         * @return whether this label covers the given label
+         */
+        private boolean covers(final RouteLabel other) {
+            return drivingCost <= other.drivingCost && rentingCost <= other.rentingCost
+                    && rentedEdges <= other.rentedEdges;
+        }
+    }
+
+    @Override
+    public List<Route> findRoutes(final TilePosition start, final TilePosition target,
+            final Set<Edge> availableEdges, final Player player, final int maxRentedEdges, final int maxRentingCost) {
+        final PriorityQueue<RouteLabel> labelQueue = new PriorityQueue<>(Comparator
+                .comparingInt(RouteLabel::drivingCost).thenComparingInt(RouteLabel::rentingCost));
+        final Map<TilePosition, List<RouteLabel>> settled = new HashMap<>();
+        final List<Route> frontier = new ArrayList<>();
+        labelQueue.add(new RouteLabel(start, 0, 0, 0, null, null));
+        final Map<Set<TilePosition>, Edge> edgesByPositions = byPositions(availableEdges);
+
+        while (!labelQueue.isEmpty()) {
+            final RouteLabel current = labelQueue.poll();
+            final List<RouteLabel> settledLabels = settled.computeIfAbsent(current.position(), p -> new ArrayList<>());
+            if (settledLabels.stream().anyMatch(label -> label.covers(current))) {
+                continue;
+            }
+            settledLabels.add(current);
+
+            if (current.position().equals(target)) {
+                // labels are polled by ascending driving cost, so a new route is only
+                // optimal if it is cheaper to rent than every route found before
+                if (frontier.isEmpty() || current.rentingCost() < frontier.getLast().rentingCost()) {
+                    final List<Edge> routeEdges = new ArrayList<>();
+                    for (RouteLabel label = current; label.edge() != null; label = label.previous()) {
+                        routeEdges.add(label.edge());
+                    }
+                    frontier.add(new Route(routeEdges.reversed(), current.drivingCost(), current.rentingCost(),
+                            player));
+                }
+                continue;
+            }
+
+            for (EdgeDirection direction : EdgeDirection.VALUES) {
+                final TilePosition next = TilePosition.neighbour(current.position(), direction);
+                final Edge edge = edgesByPositions.get(Set.of(current.position(), next));
+                if (edge == null) {
+                    continue;
+                }
+                final Map<Player, Integer> renting = edge.getRentingCost(player);
+                final int rentingCost = current.rentingCost()
+                        + renting.values().stream().mapToInt(Integer::intValue).sum();
+                final int rentedEdges = current.rentedEdges() + (renting.isEmpty() ? 0 : 1);
+                if (rentedEdges > maxRentedEdges || rentingCost > maxRentingCost) {
+                    continue;
+                }
+                final RouteLabel label = new RouteLabel(next,
+                        current.drivingCost() + getDrivingCost(current.position(), next), rentingCost, rentedEdges,
+                        edge, current);
+                if (settled.getOrDefault(label.position(), List.of()).stream().noneMatch(l -> l.covers(label))) {
+                    labelQueue.add(label);
+                }
+            }
+        }
+        return frontier;
+    }
 }
@@ -0,0 +1,24 @@
+package hProjekt.model;
+
+import java.util.Map;
+
+/**
+ * The result of analyzing a map with a {@link MapAnalyzer}.
+ *
+ * @param landmasses      the number of connected landmasses
+ * @param plainRegions    the number of connected regions of plains, mountains
+ *                        separate them
+ * @param isolatedCities  the number of cities outside the region of plains
+ *                        containing the most cities
+ * @param distances       the building distance from every starting city to
+ *                        every city, missing if a city cannot be reached
+ * @param nearestStarting the starting city every city is closest to
+ * @param access          the mean building distance from every starting city to
+ *                        its {@link hProjekt.Config#FAIRNESS_NEAREST_CITIES}
+ *                        nearest other cities
+ * @param fairness        the fairness score in [0, 1], higher is fairer
+ */
+public record MapAnalysis(int landmasses, int plainRegions, int isolatedCities,
+        Map<TilePosition, Map<TilePosition, Integer>> distances, Map<TilePosition, TilePosition> nearestStarting,
+        Map<TilePosition, Double> access, double fairness) {
+}
@@ -0,0 +1,336 @@
+package hProjekt.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+
+import hProjekt.Config;
+
+/**
+ * Analyzes the connectivity and fairness of maps.
+ * <p>
+ * The tiles are numbered densely. Landmasses and regions of plains are found
+ * with a union-find that always links to the root with the smaller index and
+ * halves paths on every find.
+ * <p>
+ * Building distances use the building costs of
+ * {@link Config#TILE_TYPE_TO_BUILDING_COST}, so mountains are expensive to
+ * cross. They are computed with one Dijkstra search per starting city. The
+ * starting city every city is closest to, the result of a multi-source search,
+ * is the minimum over these searches.
+ * <p>
+ * A single analysis runs sequentially on the calling thread. Only
+ * {@link #generateFairest} uses the pool, to generate and analyze its
+ * candidates concurrently, so no task of the pool waits for another one.
+ * <p>
+ * The fairness score is the ratio of the best to the worst access of the
+ * starting cities, where the access of a starting city is the mean distance to
+ * its nearest other cities, multiplied by the fraction of cities that are not
+ * isolated by mountains. Maps where a city cannot be reached at all score zero.
+ */
+public class MapAnalyzer {
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new analyzer.
+     *
+     * @param pool the pool to generate and analyze candidate maps on
+     */
+    public MapAnalyzer(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Generates the given number of maps concurrently and returns the one with
+     * the highest fairness score. Ties are won by the map generated first.
+     * <p>
+     * The seeds of all candidates are drawn from the given random number
+     * generator in order before any map is generated, so the result only depends
+     * on its state and not on the scheduling of the candidates.
+     *
+     * @param candidates the number of maps to generate, at least one
+     * @param random     the random number generator to draw the seeds from
+     * @param generator  generates a new map from the given seed, is called
+     *                   concurrently on the pool and must not wait for other tasks
+     *                   of the pool
+     * @return the fairest map
+     */
+    public HexGrid generateFairest(final int candidates, final Random random, final LongFunction<HexGrid> generator) {
+        if (candidates <= 1) {
+            return generator.apply(random.nextLong());
+        }
+        final long[] seeds = random.longs(candidates).toArray();
+        final List<HexGrid> grids = pool.submit(() -> Arrays.stream(seeds).parallel()
+                .mapToObj(generator)
+                .toList()).join();
+        final List<Double> scores = pool.submit(() -> grids.parallelStream()
+                .map(grid -> analyze(grid).fairness())
+                .toList()).join();
+        int best = 0;
+        for (int i = 1; i < candidates; i++) {
+            if (scores.get(i) > scores.get(best)) {
+                best = i;
+            }
+        }
+        return grids.get(best);
+    }
+
+    /**
+     * Analyzes the given map on the calling thread.
+     *
+     * @param grid the map
+     * @return the analysis
+     */
+    public MapAnalysis analyze(final HexGrid grid) {
+        final Graph graph = new Graph(grid);
+        final int[] land = new int[graph.size()];
+        final int[] plains = new int[graph.size()];
+        for (int tile = 0; tile < graph.size(); tile++) {
+            land[tile] = tile;
+            plains[tile] = tile;
+        }
+        for (int tile = 0; tile < graph.size(); tile++) {
+            for (int direction = 0; direction < Graph.DIRECTIONS; direction++) {
+                final int neighbour = graph.neighbour(tile, direction);
+                if (neighbour > tile) {
+                    union(land, tile, neighbour);
+                    if (graph.type(tile) == Tile.Type.PLAIN && graph.type(neighbour) == Tile.Type.PLAIN) {
+                        union(plains, tile, neighbour);
+                    }
+                }
+            }
+        }
+
+        int landmasses = 0;
+        int plainRegions = 0;
+        for (int tile = 0; tile < graph.size(); tile++) {
+            if (find(land, tile) == tile) {
+                landmasses++;
+            }
+            if (graph.type(tile) == Tile.Type.PLAIN && find(plains, tile) == tile) {
+                plainRegions++;
+            }
+        }
+
+        final List<TilePosition> cities = new ArrayList<>(grid.getCities().keySet());
+        cities.sort(null);
+        final Map<Integer, Integer> citiesPerRegion = new HashMap<>();
+        for (TilePosition city : cities) {
+            citiesPerRegion.merge(find(plains, graph.index(city)), 1, Integer::sum);
+        }
+        final int isolatedCities = cities.size()
+                - citiesPerRegion.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        final List<TilePosition> startingCities = cities.stream()
+                .filter(city -> grid.getCities().get(city).isStartingCity())
+                .toList();
+        final List<int[]> distanceFields = startingCities.stream()
+                .map(start -> graph.distances(graph.index(start)))
+                .toList();
+
+        final Map<TilePosition, Map<TilePosition, Integer>> distances = new LinkedHashMap<>();
+        final Map<TilePosition, Double> access = new LinkedHashMap<>();
+        boolean unreachable = false;
+        for (int i = 0; i < startingCities.size(); i++) {
+            final Map<TilePosition, Integer> cityDistances = new LinkedHashMap<>();
+            final List<Integer> otherDistances = new ArrayList<>();
+            for (TilePosition city : cities) {
+                final int distance = distanceFields.get(i)[graph.index(city)];
+                if (distance == Integer.MAX_VALUE) {
+                    unreachable = true;
+                    continue;
+                }
+                cityDistances.put(city, distance);
+                if (!city.equals(startingCities.get(i))) {
+                    otherDistances.add(distance);
+                }
+            }
+            distances.put(startingCities.get(i), cityDistances);
+            otherDistances.sort(null);
+            access.put(startingCities.get(i), otherDistances.stream()
+                    .limit(Config.FAIRNESS_NEAREST_CITIES)
+                    .mapToInt(Integer::intValue)
+                    .average()
+                    .orElse(Double.POSITIVE_INFINITY));
+        }
+
+        final Map<TilePosition, TilePosition> nearestStarting = new LinkedHashMap<>();
+        for (TilePosition city : cities) {
+            int best = Integer.MAX_VALUE;
+            for (int i = 0; i < startingCities.size(); i++) {
+                final int distance = distanceFields.get(i)[graph.index(city)];
+                if (distance < best) {
+                    best = distance;
+                    nearestStarting.put(city, startingCities.get(i));
+                }
+            }
+        }
+
+        double fairness = 0;
+        if (!unreachable && !access.isEmpty()) {
+            final double best = access.values().stream().mapToDouble(Double::doubleValue).min().getAsDouble();
+            final double worst = access.values().stream().mapToDouble(Double::doubleValue).max().getAsDouble();
+            final double balance = worst == 0 || Double.isInfinite(worst) ? 1 : best / worst;
+            fairness = balance * (cities.size() - isolatedCities) / cities.size();
+        }
+        return new MapAnalysis(landmasses, plainRegions, isolatedCities, distances, nearestStarting, access,
+                fairness);
+    }
+
+    /**
+     * Returns the root of the set containing the given element and halves the
+     * path to it.
+     *
+     * @param parents the parent of every element
+     * @param element the element
+     * @return the root of its set
+     */
+    private static int find(final int[] parents, final int element) {
+        int current = element;
+        while (parents[current] != current) {
+            parents[current] = parents[parents[current]];
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merges the sets containing the given elements.
+     *
+     * @param parents  the parent of every element
+     * @param element1 the first element
+     * @param element2 the second element
+     */
+    private static void union(final int[] parents, final int element1, final int element2) {
+        final int root1 = find(parents, element1);
+        final int root2 = find(parents, element2);
+        parents[Math.max(root1, root2)] = Math.min(root1, root2);
+    }
+
+    /**
+     * The tiles of a map as a graph with dense indices.
+     */
+    private static final class Graph {
+        private static final int DIRECTIONS = TilePosition.EdgeDirection.values().length;
+
+        private final Map<TilePosition, Integer> indices = new HashMap<>();
+        private final Tile.Type[] types;
+        private final int[] neighbours;
+        private final int[][] buildingCosts;
+
+        /**
+         * Creates the graph of the given map.
+         *
+         * @param grid the map
+         */
+        private Graph(final HexGrid grid) {
+            final List<TilePosition> positions = new ArrayList<>(grid.getTiles().keySet());
+            positions.sort(null);
+            types = new Tile.Type[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                indices.put(positions.get(i), i);
+                types[i] = grid.getTileAt(positions.get(i)).getType();
+            }
+            neighbours = new int[positions.size() * DIRECTIONS];
+            final TilePosition.EdgeDirection[] directions = TilePosition.EdgeDirection.values();
+            for (int i = 0; i < positions.size(); i++) {
+                for (int direction = 0; direction < DIRECTIONS; direction++) {
+                    neighbours[i * DIRECTIONS + direction] = indices
+                            .getOrDefault(TilePosition.neighbour(positions.get(i), directions[direction]), -1);
+                }
+            }
+            final Tile.Type[] typeValues = Tile.Type.values();
+            buildingCosts = new int[typeValues.length][typeValues.length];
+            for (Tile.Type type1 : typeValues) {
+                for (Tile.Type type2 : typeValues) {
+                    buildingCosts[type1.ordinal()][type2.ordinal()] = Config.TILE_TYPE_TO_BUILDING_COST
+                            .get(EnumSet.of(type1, type2));
+                }
+            }
+        }
+
+        /**
+         * Returns the number of tiles.
+         *
+         * @return the number of tiles
+         */
+        private int size() {
+            return types.length;
+        }
+
+        /**
+         * Returns the index of the tile at the given position.
+         *
+         * @param position the position
+         * @return the index of the tile
+         */
+        private int index(final TilePosition position) {
+            return indices.get(position);
+        }
+
+        /**
+         * Returns the type of the given tile.
+         *
+         * @param tile the index of the tile
+         * @return the type of the tile
+         */
+        private Tile.Type type(final int tile) {
+            return types[tile];
+        }
+
+        /**
+         * Returns the neighbour of the given tile in the given direction.
+         *
+         * @param tile      the index of the tile
+         * @param direction the ordinal of the direction
+         * @return the index of the neighbour or -1 if there is none
+         */
+        private int neighbour(final int tile, final int direction) {
+            return neighbours[tile * DIRECTIONS + direction];
+        }
+
+        /**
+         * Returns the building distance from the given tile to every tile.
+         *
+         * @param source the index of the source tile
+         * @return the distance to every tile, {@link Integer#MAX_VALUE} if it cannot
+         *         be reached
+         */
+        private int[] distances(final int source) {
+            final int[] distances = new int[size()];
+            Arrays.fill(distances, Integer.MAX_VALUE);
+            distances[source] = 0;
+            // entries are the distance in the upper and the tile in the lower half
+            final PriorityQueue<Long> queue = new PriorityQueue<>();
+            queue.add((long) source);
+            while (!queue.isEmpty()) {
+                final long entry = queue.poll();
+                final int tile = (int) entry;
+                if ((int) (entry >>> 32) > distances[tile]) {
+                    continue;
+                }
+                for (int direction = 0; direction < DIRECTIONS; direction++) {
+                    final int neighbour = neighbour(tile, direction);
+                    if (neighbour < 0) {
+                        continue;
+                    }
+                    final int distance = distances[tile]
+                            + buildingCosts[types[tile].ordinal()][types[neighbour].ordinal()];
+                    if (distance < distances[neighbour]) {
+                        distances[neighbour] = distance;
+                        queue.add((long) distance << 32 | neighbour);
+                    }
+                }
+            }
+            return distances;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package hProjekt.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+/**
+ * A map stored in a compact binary file, so curated maps can be replayed
+ * instead of generating a new one for every game.
+ * <p>
+ * All values are little endian. The file consists of
+ * <ul>
+ * <li>a header: the magic number, the version, the minimum q and r coordinate,
+ * the width and height of the bounding box of all tiles, the number of cities
+ * and the number of edges with rails,</li>
+ * <li>the tile types: one byte per position of the bounding box in row major
+ * order, {@code 0} for no tile and the ordinal of the {@link Tile.Type} plus
+ * one otherwise,</li>
+ * <li>the city table: for every city the index of its position in the tile
+ * types, whether it is a starting city and its name as length prefixed
+ * UTF-8,</li>
+ * <li>the optional rail ownership: for every edge with rails the index of its
+ * first position, the {@link TilePosition.EdgeDirection} to its second
+ * position and the ids of the rail owners.</li>
+ * </ul>
+ * Edges are not stored, every pair of neighbouring tiles has one.
+ * Files are read through a memory mapped {@link FileChannel}.
+ */
+public final class MapFile {
+    private static final int MAGIC = 0x50414d48;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8 * Integer.BYTES;
+
+    private final HexGrid grid;
+    private final Map<Set<TilePosition>, List<Integer>> railOwnerIds;
+
+    /**
+     * Creates a new loaded map.
+     *
+     * @param grid         the grid of the map
+     * @param railOwnerIds the ids of the rail owners of every edge with rails
+     */
+    private MapFile(final HexGrid grid, final Map<Set<TilePosition>, List<Integer>> railOwnerIds) {
+        this.grid = grid;
+        this.railOwnerIds = railOwnerIds;
+    }
+
+    /**
+     * Creates a map of the given grid without stored rails, e.g. for a generated
+     * grid.
+     *
+     * @param grid the grid of the map
+     * @return the map
+     */
+    public static MapFile of(final HexGrid grid) {
+        return new MapFile(grid, Map.of());
+    }
+
+    /**
+     * Returns the grid of the map.
+     *
+     * @return the grid of the map
+     */
+    public HexGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the ids of the rail owners of every edge with rails, keyed like
+     * {@link HexGrid#getEdges()}.
+     *
+     * @return the ids of the rail owners
+     */
+    public Map<Set<TilePosition>, List<Integer>> getRailOwnerIds() {
+        return Collections.unmodifiableMap(railOwnerIds);
+    }
+
+    /**
+     * Places the stored rails for the given players. Rails of ids without a
+     * player are skipped. Should be called once after the players of the game
+     * have been created for the grid of this map.
+     *
+     * @param players the players of the game
+     */
+    public void placeRails(final List<Player> players) {
+        final Map<Integer, Player> playersById = new HashMap<>();
+        players.forEach(player -> playersById.put(player.getID(), player));
+        railOwnerIds.forEach((positions, ids) -> {
+            final Edge edge = grid.getEdges().get(positions);
+            final List<Player> owners = new ArrayList<>(edge.getRailOwners());
+            for (int id : ids) {
+                final Player player = playersById.get(id);
+                if (player != null && !owners.contains(player)) {
+                    owners.add(player);
+                    grid.getZobristHash().toggleRail(edge, player);
+                }
+            }
+            edge.getRailOwnersProperty().setValue(owners);
+        });
+    }
+
+    /**
+     * Writes the given grid to the given file, including the current rail
+     * owners. An existing file is replaced atomically.
+     *
+     * @param grid the grid to write
+     * @param file the file to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(final HexGrid grid, final Path file) throws IOException {
+        int minQ = Integer.MAX_VALUE;
+        int minR = Integer.MAX_VALUE;
+        int maxQ = Integer.MIN_VALUE;
+        int maxR = Integer.MIN_VALUE;
+        for (TilePosition position : grid.getTiles().keySet()) {
+            minQ = Math.min(minQ, position.q());
+            minR = Math.min(minR, position.r());
+            maxQ = Math.max(maxQ, position.q());
+            maxR = Math.max(maxR, position.r());
+        }
+        final int originQ = minQ;
+        final int originR = minR;
+        final int width = grid.getTiles().isEmpty() ? 0 : maxQ - minQ + 1;
+        final int height = grid.getTiles().isEmpty() ? 0 : maxR - minR + 1;
+
+        final List<City> cities = new ArrayList<>(grid.getCities().values());
+        cities.sort(Comparator.comparing(City::getPosition));
+        final List<Edge> railEdges = grid.getRails().values().stream()
+                .sorted(Comparator.comparing(Edge::getPosition1).thenComparing(Edge::getPosition2))
+                .toList();
+
+        long size = HEADER_SIZE + (long) width * height;
+        final List<byte[]> names = new ArrayList<>(cities.size());
+        for (City city : cities) {
+            final byte[] name = city.getName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xffff) {
+                throw new IOException("City name too long: " + city.getName());
+            }
+            names.add(name);
+            size += Integer.BYTES + 1 + Short.BYTES + name.length;
+        }
+        for (Edge edge : railEdges) {
+            size += Integer.BYTES + 2 + edge.getRailOwners().size();
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(minQ)
+                .putInt(minR)
+                .putInt(width)
+                .putInt(height)
+                .putInt(cities.size())
+                .putInt(railEdges.size());
+        final int typesOffset = buffer.position();
+        grid.getTiles().forEach((position, tile) -> buffer.put(
+                typesOffset + (position.r() - originR) * width + position.q() - originQ,
+                (byte) (tile.getType().ordinal() + 1)));
+        buffer.position(typesOffset + width * height);
+        for (int i = 0; i < cities.size(); i++) {
+            final TilePosition position = cities.get(i).getPosition();
+            buffer.putInt((position.r() - minR) * width + position.q() - minQ)
+                    .put((byte) (cities.get(i).isStartingCity() ? 1 : 0))
+                    .putShort((short) names.get(i).length)
+                    .put(names.get(i));
+        }
+        for (Edge edge : railEdges) {
+            final TilePosition position = edge.getPosition1();
+            buffer.putInt((position.r() - minR) * width + position.q() - minQ)
+                    .put((byte) getDirection(position, edge.getPosition2()).ordinal())
+                    .put((byte) edge.getRailOwners().size());
+            for (Player owner : edge.getRailOwners()) {
+                buffer.put((byte) owner.getID());
+            }
+        }
+        buffer.flip();
+
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the map stored in the given file.
+     *
+     * @param file the file to read
+     * @return the loaded map
+     * @throws IOException if reading fails or the file is not a valid map
+     */
+    public static MapFile read(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return read(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid map file " + file, e);
+        }
+    }
+
+    /**
+     * Parses a map from the given buffer.
+     *
+     * @param buffer the buffer positioned at the start of the map
+     * @return the loaded map
+     * @throws IOException if the buffer does not contain a valid map
+     */
+    private static MapFile read(final ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC
+                || buffer.getInt() != VERSION) {
+            throw new IOException("Not a map file");
+        }
+        final int minQ = buffer.getInt();
+        final int minR = buffer.getInt();
+        final int width = buffer.getInt();
+        final int height = buffer.getInt();
+        final int cityCount = buffer.getInt();
+        final int railEdgeCount = buffer.getInt();
+        if (width < 0 || height < 0 || (long) width * height > buffer.remaining()) {
+            throw new IOException("Invalid map size " + width + "x" + height);
+        }
+
+        final byte[] types = new byte[width * height];
+        buffer.get(types);
+        final Tile.Type[] typeValues = Tile.Type.values();
+        final TilePosition[] positions = new TilePosition[types.length];
+        final Map<TilePosition, Tile> tiles = new LinkedHashMap<>(types.length);
+        for (int index = 0; index < types.length; index++) {
+            if (types[index] != 0) {
+                positions[index] = toPosition(index, minQ, minR, width);
+                tiles.put(positions[index], new TileImpl(positions[index], typeValues[types[index] - 1], null, null,
+                        null));
+            }
+        }
+
+        // every pair of neighbours is visited once, from the neighbour with the lower index
+        final Map<Set<TilePosition>, Edge> edges = new HashMap<>(tiles.size() * 4);
+        for (int index = 0; index < types.length; index++) {
+            if (positions[index] == null) {
+                continue;
+            }
+            final int column = index % width;
+            if (column + 1 < width) {
+                addEdge(edges, positions[index], positions[index + 1]);
+            }
+            if (index + width < types.length) {
+                if (column > 0) {
+                    addEdge(edges, positions[index], positions[index + width - 1]);
+                }
+                addEdge(edges, positions[index], positions[index + width]);
+            }
+        }
+
+        final Map<TilePosition, City> cities = new HashMap<>();
+        for (int i = 0; i < cityCount; i++) {
+            final TilePosition position = toPosition(buffer.getInt(), minQ, minR, width);
+            final boolean startingCity = buffer.get() != 0;
+            final byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(name);
+            cities.put(position, new CityImpl(position, new String(name, StandardCharsets.UTF_8), startingCity, null));
+        }
+
+        final Map<Set<TilePosition>, List<Integer>> railOwnerIds = new HashMap<>();
+        for (int i = 0; i < railEdgeCount; i++) {
+            final TilePosition position = toPosition(buffer.getInt(), minQ, minR, width);
+            final TilePosition neighbour = TilePosition.neighbour(position,
+                    TilePosition.EdgeDirection.values()[buffer.get()]);
+            final List<Integer> ids = new ArrayList<>();
+            for (int owners = Byte.toUnsignedInt(buffer.get()); owners > 0; owners--) {
+                ids.add(Byte.toUnsignedInt(buffer.get()));
+            }
+            if (!edges.containsKey(Set.of(position, neighbour))) {
+                throw new IOException("Rail on missing edge " + position + " - " + neighbour);
+            }
+            railOwnerIds.put(Set.of(position, neighbour), ids);
+        }
+
+        return new MapFile(new HexGridImpl(tiles, edges, cities), railOwnerIds);
+    }
+
+    /**
+     * Adds an edge without rails between the given positions if both have a tile.
+     *
+     * @param edges     the edges to add to
+     * @param position  the first position, may be {@code null} if it has no tile
+     * @param neighbour the second position, may be {@code null} if it has no tile
+     */
+    private static void addEdge(final Map<Set<TilePosition>, Edge> edges, final TilePosition position,
+            final TilePosition neighbour) {
+        if (position != null && neighbour != null) {
+            edges.put(Set.of(position, neighbour),
+                    new EdgeImpl(null, position, neighbour, new SimpleObjectProperty<>(new ArrayList<>())));
+        }
+    }
+
+    /**
+     * Returns the position of the given index in the tile types.
+     *
+     * @param index the index in the tile types
+     * @param minQ  the minimum q coordinate
+     * @param minR  the minimum r coordinate
+     * @param width the width of the bounding box
+     * @return the position of the index
+     */
+    private static TilePosition toPosition(final int index, final int minQ, final int minR, final int width) {
+        return new TilePosition(index % width + minQ, index / width + minR);
+    }
+
+    /**
+     * Returns the direction from the given position to its given neighbour.
+     *
+     * @param position  the position
+     * @param neighbour the neighbour of the position
+     * @return the direction to the neighbour
+     */
+    private static TilePosition.EdgeDirection getDirection(final TilePosition position,
+            final TilePosition neighbour) {
+        for (TilePosition.EdgeDirection direction : TilePosition.EdgeDirection.values()) {
+            if (TilePosition.neighbour(position, direction).equals(neighbour)) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException(position + " and " + neighbour + " are not neighbours");
+    }
+}
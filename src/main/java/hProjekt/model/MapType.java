@@ -0,0 +1,98 @@
+package hProjekt.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import hProjekt.Config;
+import hProjekt.util.NgramModel;
+
+/**
+ * The kinds of maps a game can be played on, as offered by the map selection
+ * of the game setup, see {@link GameSetup#getMapSelection()}.
+ */
+public enum MapType {
+    /**
+     * A map created by random walks, see {@link HexGridImpl#HexGridImpl(NgramModel)}.
+     * The fairest of {@link Config#MAP_CANDIDATES} maps is chosen.
+     */
+    RANDOM_WALK("Generate Random Map") {
+        @Override
+        public MapFile createMap(final NgramModel nameModel) {
+            return MapFile.of(new MapAnalyzer(Config.WORKER_POOL).generateFairest(Config.MAP_CANDIDATES,
+                    Config.RANDOM, seed -> new HexGridImpl(Config.MAP_SCALE, Config.NUMBER_OF_CITIES, nameModel,
+                            new Random(seed))));
+        }
+    },
+
+    /**
+     * A map created from layered noise, see {@link NoiseTerrainGenerator}. The
+     * fairest of {@link Config#MAP_CANDIDATES} maps is chosen. A single candidate
+     * generates its noise on the {@link Config#WORKER_POOL}.
+     */
+    NOISE("Generate Noise Map") {
+        @Override
+        public MapFile createMap(final NgramModel nameModel) {
+            // several candidates already run on the pool, so each generates its noise sequentially
+            final ForkJoinPool noisePool = Config.MAP_CANDIDATES > 1 ? null : Config.WORKER_POOL;
+            return MapFile.of(new MapAnalyzer(Config.WORKER_POOL).generateFairest(Config.MAP_CANDIDATES,
+                    Config.RANDOM, seed -> {
+                        final Random random = new Random(seed);
+                        return new HexGridImpl(
+                                new NoiseTerrainGenerator(random.nextLong(), noisePool).generate(Config.MAP_SCALE),
+                                Config.NUMBER_OF_CITIES, nameModel, random);
+                    }));
+        }
+    },
+
+    /**
+     * A map loaded from {@link Config#MAP_FILE_PATH}, see {@link MapFile}, including
+     * its stored rails. Falls back to a random map if the file cannot be loaded.
+     */
+    MAP_FILE("Load Map File") {
+        @Override
+        public MapFile createMap(final NgramModel nameModel) {
+            try {
+                return MapFile.read(Config.MAP_FILE_PATH);
+            } catch (IOException e) {
+                System.out.println("Couldn't load map: " + e.getMessage());
+                e.printStackTrace();
+                return RANDOM_WALK.createMap(nameModel);
+            }
+        }
+    };
+
+    /**
+     * The name shown in the map selection.
+     */
+    public final String displayName;
+
+    MapType(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Creates a new map of this type with the configured scale and number of
+     * cities. Stored rails of the map are placed with
+     * {@link MapFile#placeRails(java.util.List)} once the players exist.
+     *
+     * @param nameModel the model to generate the names of the cities with
+     * @return the new map
+     */
+    public abstract MapFile createMap(NgramModel nameModel);
+
+    /**
+     * Returns the map type with the given display name.
+     *
+     * @param displayName the display name
+     * @return the map type with the given display name or {@link #RANDOM_WALK} if
+     *         there is none
+     */
+    public static MapType fromDisplayName(final String displayName) {
+        return Arrays.stream(values())
+                .filter(type -> type.displayName.equals(displayName))
+                .findFirst()
+                .orElse(RANDOM_WALK);
+    }
+}
@@ -0,0 +1,259 @@
+package hProjekt.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import hProjekt.Config;
+
+/**
+ * Generates terrain from layered value noise.
+ * The height of a position is the sum of several octaves of value noise,
+ * lowered towards the border of the map so the land forms an island. Positions
+ * below {@link Config#NOISE_WATER_LEVEL} are water and get no tile, positions
+ * above {@link Config#NOISE_MOUNTAIN_LEVEL} are mountains and all others are
+ * plains. Only the largest connected landmass is kept.
+ * <p>
+ * The map is split into square chunks of axial coordinates that are computed
+ * independently on a {@link ForkJoinPool}, each writing its own part of a
+ * shared array that is then stitched into the tile map in row major order.
+ * Generators without a pool compute the chunks one after another on the
+ * calling thread, e.g. when they already run on a pool themselves.
+ * The noise is a pure function of the seed and the position, so the result
+ * only depends on the seed and the scale, never on the number of threads.
+ */
+public class NoiseTerrainGenerator {
+    private static final int CHUNK_SIZE = 32;
+    private static final int OCTAVES = 4;
+    private static final double BASE_FREQUENCY = 0.08;
+    private static final double PERSISTENCE = 0.5;
+    private static final double SQRT_3 = Math.sqrt(3);
+
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new generator.
+     *
+     * @param seed the seed of the noise
+     * @param pool the pool to compute the chunks on
+     */
+    public NoiseTerrainGenerator(final long seed, final ForkJoinPool pool) {
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a new generator that computes the chunks on the calling thread.
+     *
+     * @param seed the seed of the noise
+     */
+    public NoiseTerrainGenerator(final long seed) {
+        this(seed, null);
+    }
+
+    /**
+     * Generates the terrain of a map with the given scale.
+     * The map covers a hexagon with a radius of twice the scale.
+     *
+     * @param scale the scale of the map, bigger values mean a bigger map
+     * @return the type of every land position, in a deterministic iteration order
+     */
+    public Map<TilePosition, Tile.Type> generate(final int scale) {
+        final int radius = Math.max(2, 2 * scale);
+        final int side = 2 * radius + 1;
+        final int chunksPerSide = (side + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final Tile.Type[] types = new Tile.Type[side * side];
+        final IntConsumer chunkGenerator = chunk -> generateChunk(types, side, chunk % chunksPerSide,
+                chunk / chunksPerSide, radius);
+        if (pool == null) {
+            IntStream.range(0, chunksPerSide * chunksPerSide).forEach(chunkGenerator);
+        } else {
+            pool.submit(() -> IntStream.range(0, chunksPerSide * chunksPerSide).parallel().forEach(chunkGenerator))
+                    .join();
+        }
+
+        final boolean[] kept = findLargestLandmass(types, side);
+        final Map<TilePosition, Tile.Type> terrain = new LinkedHashMap<>();
+        for (int index = 0; index < types.length; index++) {
+            if (kept[index]) {
+                terrain.put(new TilePosition(index % side - radius, index / side - radius), types[index]);
+            }
+        }
+        return terrain;
+    }
+
+    /**
+     * Computes the tile types of a single chunk. Chunks write disjoint parts of
+     * the given array.
+     *
+     * @param types  the tile types of the whole map in row major order,
+     *               {@code null} for water
+     * @param side   the side length of the map
+     * @param chunkQ the chunk column
+     * @param chunkR the chunk row
+     * @param radius the radius of the map
+     */
+    private void generateChunk(final Tile.Type[] types, final int side, final int chunkQ, final int chunkR,
+            final int radius) {
+        final int maxQ = Math.min(side, (chunkQ + 1) * CHUNK_SIZE);
+        final int maxR = Math.min(side, (chunkR + 1) * CHUNK_SIZE);
+        for (int row = chunkR * CHUNK_SIZE; row < maxR; row++) {
+            for (int column = chunkQ * CHUNK_SIZE; column < maxQ; column++) {
+                final int q = column - radius;
+                final int r = row - radius;
+                final int distance = (Math.abs(q) + Math.abs(r) + Math.abs(q + r)) / 2;
+                if (distance > radius) {
+                    continue;
+                }
+                final double height = getHeight(q, r) - Math.pow((double) distance / radius, 2) * 0.5;
+                if (height >= Config.NOISE_MOUNTAIN_LEVEL) {
+                    types[row * side + column] = Tile.Type.MOUNTAIN;
+                } else if (height >= Config.NOISE_WATER_LEVEL) {
+                    types[row * side + column] = Tile.Type.PLAIN;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the height of the given position, the sum of all noise octaves
+     * normalized to [0, 1].
+     *
+     * @param q the q coordinate
+     * @param r the r coordinate
+     * @return the height of the position
+     */
+    private double getHeight(final int q, final int r) {
+        final double x = q + r / 2.0;
+        final double y = r * SQRT_3 / 2;
+        double frequency = BASE_FREQUENCY;
+        double amplitude = 1;
+        double total = 0;
+        double maxTotal = 0;
+        for (int octave = 0; octave < OCTAVES; octave++) {
+            total += amplitude * getValueNoise(x * frequency, y * frequency, octave);
+            maxTotal += amplitude;
+            amplitude *= PERSISTENCE;
+            frequency *= 2;
+        }
+        return total / maxTotal;
+    }
+
+    /**
+     * Returns smoothly interpolated value noise at the given point.
+     *
+     * @param x      the x coordinate
+     * @param y      the y coordinate
+     * @param octave the octave, every octave uses different lattice values
+     * @return the noise value in [0, 1]
+     */
+    private double getValueNoise(final double x, final double y, final int octave) {
+        final int x0 = (int) Math.floor(x);
+        final int y0 = (int) Math.floor(y);
+        final double tx = smooth(x - x0);
+        final double ty = smooth(y - y0);
+        final double top = lerp(getLatticeValue(x0, y0, octave), getLatticeValue(x0 + 1, y0, octave), tx);
+        final double bottom = lerp(getLatticeValue(x0, y0 + 1, octave), getLatticeValue(x0 + 1, y0 + 1, octave),
+                tx);
+        return lerp(top, bottom, ty);
+    }
+
+    /**
+     * Returns the pseudo random value of a lattice point.
+     *
+     * @param x      the x coordinate of the lattice point
+     * @param y      the y coordinate of the lattice point
+     * @param octave the octave
+     * @return a value in [0, 1) that only depends on the seed and the arguments
+     */
+    private double getLatticeValue(final int x, final int y, final int octave) {
+        long z = seed + 0x9e3779b97f4a7c15L * (octave + 1);
+        z ^= x * 0xbf58476d1ce4e5b9L;
+        z ^= y * 0x94d049bb133111ebL;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Finds the largest connected landmass. Ties are broken by the first land
+     * position in row major order.
+     *
+     * @param types the tile types of the map in row major order, {@code null} for
+     *              water
+     * @param side  the side length of the map
+     * @return whether each position belongs to the largest landmass
+     */
+    private static boolean[] findLargestLandmass(final Tile.Type[] types, final int side) {
+        final int[] landmasses = new int[types.length];
+        final int[] queue = new int[types.length];
+        final int[][] offsets = TilePosition.EdgeDirection.stream()
+                .map(direction -> new int[] { direction.position.q(), direction.position.r() })
+                .toArray(int[][]::new);
+        int largest = 0;
+        int largestSize = 0;
+        int landmass = 0;
+        for (int start = 0; start < types.length; start++) {
+            if (types[start] == null || landmasses[start] != 0) {
+                continue;
+            }
+            landmass++;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            landmasses[start] = landmass;
+            while (head < tail) {
+                final int current = queue[head++];
+                final int q = current % side;
+                final int r = current / side;
+                for (int[] offset : offsets) {
+                    final int nq = q + offset[0];
+                    final int nr = r + offset[1];
+                    if (nq < 0 || nr < 0 || nq >= side || nr >= side) {
+                        continue;
+                    }
+                    final int neighbour = nr * side + nq;
+                    if (types[neighbour] != null && landmasses[neighbour] == 0) {
+                        landmasses[neighbour] = landmass;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+            if (tail > largestSize) {
+                largestSize = tail;
+                largest = landmass;
+            }
+        }
+        final boolean[] kept = new boolean[types.length];
+        for (int index = 0; index < types.length; index++) {
+            kept[index] = largest != 0 && landmasses[index] == largest;
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the smoothstep of the given value.
+     *
+     * @param t the value in [0, 1]
+     * @return the smoothed value
+     */
+    private static double smooth(final double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    /**
+     * Linearly interpolates between two values.
+     *
+     * @param a the first value
+     * @param b the second value
+     * @param t the interpolation factor in [0, 1]
+     * @return the interpolated value
+     */
+    private static double lerp(final double a, final double b, final double t) {
+        return a + (b - a) * t;
+    }
+}
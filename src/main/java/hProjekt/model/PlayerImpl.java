@@ -31,6 +31,7 @@ public class PlayerImpl implements Player {
         this.name = name;
         this.aiController = ai;
         this.credits = Config.STARTING_CREDITS;
+        hexGrid.getZobristHash().toggleCredits(this, credits);
     }
 
     @Override
@@ -72,13 +73,17 @@ public class PlayerImpl implements Player {
     @Override
     @StudentImplementationRequired("P1.2")
     public void addCredits(int amount) {
+        hexGrid.getZobristHash().toggleCredits(this, credits);
         this.credits += amount;
+        hexGrid.getZobristHash().toggleCredits(this, credits);
     }
 
     @Override
     @StudentImplementationRequired("P1.2")
     public boolean removeCredits(int amount) {
+        hexGrid.getZobristHash().toggleCredits(this, credits);
         this.credits -= amount;
+        hexGrid.getZobristHash().toggleCredits(this, credits);
         return amount > 0 && this.credits >= amount;
     }
 
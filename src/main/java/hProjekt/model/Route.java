@@ -0,0 +1,43 @@
+package hProjekt.model;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A route between two tiles together with its costs.
+ *
+ * @param edges        the edges of the route in driving order
+ * @param drivingCost  the total driving cost of the route
+ * @param rentingCost  the total credits to pay for rented edges
+ * @param rentedEdges  the edges of the route the player has to rent
+ */
+public record Route(List<Edge> edges, int drivingCost, int rentingCost, Set<Edge> rentedEdges) {
+
+    /**
+     * Creates a new route from the given edges, computing the rented edges for the
+     * given player.
+     *
+     * @param edges       the edges of the route in driving order
+     * @param drivingCost the total driving cost of the route
+     * @param rentingCost the total credits to pay for rented edges
+     * @param player      the player driving the route
+     */
+    public Route(final List<Edge> edges, final int drivingCost, final int rentingCost, final Player player) {
+        this(List.copyOf(edges), drivingCost, rentingCost, edges.stream()
+                .filter(edge -> !edge.getRailOwners().contains(player))
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    /**
+     * Returns whether this route is at least as good as the given route in both
+     * costs and strictly better in at least one.
+     *
+     * @param other the route to compare to
+     * @return whether this route dominates the given route
+     */
+    public boolean dominates(final Route other) {
+        return drivingCost <= other.drivingCost && rentingCost <= other.rentingCost
+                && (drivingCost < other.drivingCost || rentingCost < other.rentingCost);
+    }
+}
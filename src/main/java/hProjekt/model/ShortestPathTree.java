@@ -0,0 +1,86 @@
+package hProjekt.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The shortest paths from a single source position to every reachable position
+ * of a {@link HexGrid}, see {@link HexGrid#findShortestPathTree}.
+ * Paths are reconstructed by walking the predecessor links, so answering a
+ * query costs only as much as the length of the path.
+ */
+public final class ShortestPathTree {
+    private final HexGrid grid;
+    private final TilePosition source;
+    private final Map<TilePosition, TilePosition> previous;
+    private final Map<TilePosition, Integer> distances;
+
+    /**
+     * Creates a new shortest path tree.
+     *
+     * @param grid      the grid the tree was computed on
+     * @param source    the source position
+     * @param previous  the predecessor of every reachable position, the source is
+     *                  its own predecessor
+     * @param distances the distance from the source to every reachable position
+     */
+    ShortestPathTree(final HexGrid grid, final TilePosition source, final Map<TilePosition, TilePosition> previous,
+            final Map<TilePosition, Integer> distances) {
+        this.grid = grid;
+        this.source = source;
+        this.previous = previous;
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the source position of the tree.
+     *
+     * @return the source position
+     */
+    public TilePosition getSource() {
+        return source;
+    }
+
+    /**
+     * Returns whether the given position can be reached from the source.
+     *
+     * @param target the position to check
+     * @return true if there is a path to the position, false otherwise
+     */
+    public boolean isReachable(final TilePosition target) {
+        return previous.containsKey(target);
+    }
+
+    /**
+     * Returns the cost of the shortest path from the source to the given position.
+     *
+     * @param target the position to get the distance to
+     * @return the distance or {@link Integer#MAX_VALUE} if the position cannot be
+     *         reached
+     */
+    public int distanceTo(final TilePosition target) {
+        return distances.getOrDefault(target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the shortest path from the source to the given position.
+     *
+     * @param target the position to find the path to
+     * @return the edges of the path in order, empty if the position cannot be
+     *         reached or is the source
+     */
+    public List<Edge> pathTo(final TilePosition target) {
+        if (!previous.containsKey(target)) {
+            return List.of();
+        }
+        final List<Edge> pathEdges = new ArrayList<>();
+        TilePosition current = target;
+        while (!current.equals(source)) {
+            final TilePosition previousPosition = previous.get(current);
+            pathEdges.add(grid.getEdge(previousPosition, current));
+            current = previousPosition;
+        }
+        return pathEdges.reversed();
+    }
+}
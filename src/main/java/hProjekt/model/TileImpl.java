@@ -2,7 +2,7 @@ package hProjekt.model;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -56,7 +56,7 @@ public record TileImpl(TilePosition position, Type type, ObservableDoubleValue h
     @StudentImplementationRequired("P1.4")
     public Edge getEdge(final EdgeDirection direction) {
         // TODO: P1.4
-        return this.getEdge(direction);
+        return hexGrid.getEdge(position, TilePosition.neighbour(position, direction));
     }
 
     @Override
@@ -77,16 +77,17 @@ public record TileImpl(TilePosition position, Type type, ObservableDoubleValue h
 
     @Override
     public Set<Tile> getNeighbours() {
-        return getHexGrid().getTiles().entrySet().stream()
-                .filter(entrySet -> TilePosition.neighbours(getPosition()).contains(entrySet.getKey()))
-                .map(Map.Entry::getValue).collect(Collectors.toSet());
+        return TilePosition.neighbours(getPosition()).stream()
+                .map(getHexGrid()::getTileAt)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
 
     @Override
     @StudentImplementationRequired("P1.4")
     public Tile getNeighbour(final EdgeDirection direction) {
         // TODO: P1.4
-       return this.getNeighbour(direction);
+        return hexGrid.getTileAt(TilePosition.neighbour(position, direction));
     }
 
     @Override
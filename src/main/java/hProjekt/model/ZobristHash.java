@@ -0,0 +1,139 @@
+package hProjekt.model;
+
+/**
+ * An incrementally updated Zobrist hash of the mutable state of a game: the
+ * rail owners of every edge, the credits of every player and the positions of
+ * the driving players.
+ * Every element of the state has a pseudo random key, the hash is the XOR of
+ * the keys of all present elements. Toggling an element therefore adds it to or
+ * removes it from the hash in constant time, independent of the order of the
+ * changes.
+ * Keys are derived from the element itself instead of stored in tables, so
+ * they are equal across games and can be recomputed by simulations, see
+ * {@link #railKey(Edge, int)}, {@link #creditsKey(int, int)} and
+ * {@link #positionKey(int, TilePosition)}.
+ * The hash is written by the game thread only and may be read from any thread.
+ */
+public final class ZobristHash {
+    private static final long RAIL_TAG = 0x52a1L;
+    private static final long CREDITS_TAG = 0xc4ed17L;
+    private static final long POSITION_TAG = 0x9051L;
+
+    private volatile long hash;
+    private volatile long railHash;
+
+    /**
+     * Returns the current hash.
+     *
+     * @return the current hash
+     */
+    public long get() {
+        return hash;
+    }
+
+    /**
+     * Returns the hash of the rails alone. It only changes when a rail is added or
+     * removed, so it can be used to invalidate data derived from the rails.
+     *
+     * @return the current hash of the rails
+     */
+    public long getRailHash() {
+        return railHash;
+    }
+
+    /**
+     * Adds or removes the rail of the given player on the given edge.
+     *
+     * @param edge   the edge
+     * @param player the owner of the rail
+     */
+    public void toggleRail(final Edge edge, final Player player) {
+        hash ^= railKey(edge, player.getID());
+        railHash ^= railKey(edge, player.getID());
+    }
+
+    /**
+     * Adds or removes the given credits of the given player.
+     *
+     * @param player  the player
+     * @param credits the credits of the player
+     */
+    public void toggleCredits(final Player player, final int credits) {
+        hash ^= creditsKey(player.getID(), credits);
+    }
+
+    /**
+     * Adds or removes the given position of the given player.
+     *
+     * @param player   the player
+     * @param position the position of the player
+     */
+    public void togglePosition(final Player player, final TilePosition position) {
+        hash ^= positionKey(player.getID(), position);
+    }
+
+    /**
+     * Returns the key of a rail of the given player on the given edge. The key
+     * does not depend on the order of the edge's positions.
+     *
+     * @param edge     the edge
+     * @param playerId the id of the owner of the rail
+     * @return the key of the rail
+     */
+    public static long railKey(final Edge edge, final int playerId) {
+        return railKey(edge.getPosition1(), edge.getPosition2(), playerId);
+    }
+
+    /**
+     * Returns the key of a rail of the given player between the given
+     * neighbouring positions. The key does not depend on the order of the
+     * positions.
+     *
+     * @param position1 the first position of the edge
+     * @param position2 the second position of the edge
+     * @param playerId  the id of the owner of the rail
+     * @return the key of the rail
+     */
+    public static long railKey(final TilePosition position1, final TilePosition position2, final int playerId) {
+        final boolean ordered = position1.compareTo(position2) <= 0;
+        final TilePosition first = ordered ? position1 : position2;
+        final TilePosition second = ordered ? position2 : position1;
+        return mix(mix(mix(mix(mix(RAIL_TAG, playerId), first.q()), first.r()), second.q()), second.r());
+    }
+
+    /**
+     * Returns the key of the given credits of the given player.
+     *
+     * @param playerId the id of the player
+     * @param credits  the credits of the player
+     * @return the key of the credits
+     */
+    public static long creditsKey(final int playerId, final int credits) {
+        return mix(mix(CREDITS_TAG, playerId), credits);
+    }
+
+    /**
+     * Returns the key of the given position of the given player.
+     *
+     * @param playerId the id of the player
+     * @param position the position of the player
+     * @return the key of the position
+     */
+    public static long positionKey(final int playerId, final TilePosition position) {
+        return mix(mix(mix(POSITION_TAG, playerId), position.q()), position.r());
+    }
+
+    /**
+     * Mixes the given value into the given key using the SplitMix64 finalizer.
+     *
+     * @param key   the current key
+     * @param value the value to mix in
+     * @return the new key
+     */
+    private static long mix(final long key, final int value) {
+        long z = key * 0x9e3779b97f4a7c15L + value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,88 @@
+package hProjekt.util;
+
+import hProjekt.Config;
+
+/**
+ * Performance measurements of the running game, shown by the diagnostics
+ * overlay and readable by automated performance tests through
+ * {@link #snapshot()}.
+ * <p>
+ * The pulse, frame and {@code Platform.runLater} measurements are only taken
+ * while the game board is shown with {@link Config#ENABLE_DIAGNOSTICS} set. The
+ * action latency is recorded for the actions the UI triggers while it is set.
+ */
+public final class Diagnostics {
+    /**
+     * The time the JavaFX application thread spends in a pulse, from the start of
+     * the animations to the end of the layout.
+     */
+    public static final LatencyStats PULSE_DURATION = new LatencyStats(Config.DIAGNOSTICS_WINDOW);
+
+    /**
+     * The time between two pulses.
+     */
+    public static final LatencyStats FRAME_TIME = new LatencyStats(Config.DIAGNOSTICS_WINDOW);
+
+    /**
+     * The time a runnable waits in the {@code Platform.runLater} queue, from
+     * enqueuing to running it.
+     */
+    public static final LatencyStats RUN_LATER_LATENCY = new LatencyStats(Config.DIAGNOSTICS_WINDOW);
+
+    /**
+     * The time from the UI triggering a player action to the game loop updating
+     * the player state after its execution.
+     */
+    public static final LatencyStats ACTION_LATENCY = new LatencyStats(Config.DIAGNOSTICS_WINDOW);
+
+    private static volatile int mapNodeCount = 0;
+
+    /**
+     * This class only has static members.
+     */
+    private Diagnostics() {
+    }
+
+    /**
+     * Sets the number of nodes in the scene graph of the map.
+     *
+     * @param count the number of nodes
+     */
+    public static void setMapNodeCount(final int count) {
+        mapNodeCount = count;
+    }
+
+    /**
+     * Returns the current measurements.
+     *
+     * @return the current measurements
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(PULSE_DURATION.snapshot(), FRAME_TIME.snapshot(), RUN_LATER_LATENCY.snapshot(),
+                ACTION_LATENCY.snapshot(), mapNodeCount);
+    }
+
+    /**
+     * Removes all measurements, used to measure a single scenario.
+     */
+    public static void reset() {
+        PULSE_DURATION.reset();
+        FRAME_TIME.reset();
+        RUN_LATER_LATENCY.reset();
+        ACTION_LATENCY.reset();
+        mapNodeCount = 0;
+    }
+
+    /**
+     * The measurements at one point in time.
+     *
+     * @param pulseDuration   see {@link Diagnostics#PULSE_DURATION}
+     * @param frameTime       see {@link Diagnostics#FRAME_TIME}
+     * @param runLaterLatency see {@link Diagnostics#RUN_LATER_LATENCY}
+     * @param actionLatency   see {@link Diagnostics#ACTION_LATENCY}
+     * @param mapNodeCount    the number of nodes in the scene graph of the map
+     */
+    public record Snapshot(LatencyStats.Snapshot pulseDuration, LatencyStats.Snapshot frameTime,
+            LatencyStats.Snapshot runLaterLatency, LatencyStats.Snapshot actionLatency, int mapNodeCount) {
+    }
+}
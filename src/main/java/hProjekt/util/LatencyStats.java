@@ -0,0 +1,104 @@
+package hProjekt.util;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent samples of a duration and computes percentiles over
+ * them. Samples may be recorded from any thread.
+ */
+public final class LatencyStats {
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+    private long count = 0;
+
+    /**
+     * Creates new statistics keeping the given number of recent samples.
+     *
+     * @param window the number of samples to keep
+     */
+    public LatencyStats(final int window) {
+        this.samples = new long[window];
+    }
+
+    /**
+     * Records a sample.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public synchronized void record(final long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        count++;
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public synchronized void reset() {
+        next = 0;
+        size = 0;
+        count = 0;
+    }
+
+    /**
+     * Returns the percentiles of the recent samples.
+     *
+     * @return the current statistics
+     */
+    public Snapshot snapshot() {
+        final long[] sorted;
+        final long total;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, size);
+            total = count;
+        }
+        Arrays.sort(sorted);
+        return new Snapshot(total, percentile(sorted, 0.5), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : toMillis(sorted[sorted.length - 1]));
+    }
+
+    /**
+     * Returns the given percentile of the given sorted samples by the nearest
+     * rank.
+     *
+     * @param sorted     the samples in ascending order
+     * @param percentile the percentile in (0, 1]
+     * @return the percentile in milliseconds, 0 if there are no samples
+     */
+    private static double percentile(final long[] sorted, final double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percentile * sorted.length);
+        return toMillis(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * Converts the given nanoseconds to milliseconds.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the duration in milliseconds
+     */
+    private static double toMillis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * The percentiles of the recent samples of a duration, all in milliseconds.
+     *
+     * @param count the number of samples recorded in total
+     * @param p50   the median
+     * @param p95   the 95th percentile
+     * @param p99   the 99th percentile
+     * @param max   the maximum
+     */
+    public record Snapshot(long count, double p50, double p95, double p99, double max) {
+
+        @Override
+        public String toString() {
+            return String.format("p50 %.1f  p95 %.1f  p99 %.1f  max %.1f ms", p50, p95, p99, max);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package hProjekt.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+
+import hProjekt.Config;
 
 /**
  * The NameGenerator class generates new names based on a given list of names
@@ -19,11 +24,14 @@ import java.util.function.Function;
  * (https://www.destatis.de/DE/Themen/Laender-Regionen/Regionales/Gemeindeverzeichnis/_inhalt.html)
  * version from the 30.09.2024.
  *
+ * The trained n-grams are compiled into a {@link NgramModel} once, changes to
+ * {@link #ngramCollection} after the construction do not affect the generated
+ * names.
  */
 public class NameGenerator {
     public final Map<String, SortedMap<Character, Integer>> ngramCollection = new HashMap<>();
-    private final int order;
     private final Random random;
+    private final NgramModel model;
 
     /**
      * Creates a new NameGenerator trained on the given names with the specified
@@ -36,8 +44,20 @@ public class NameGenerator {
      */
     public NameGenerator(String[] names, int order, Random random) {
         this.random = random;
-        this.order = order;
         train(names, order);
+        this.model = NgramModel.compile(ngramCollection, order);
+    }
+
+    /**
+     * Creates a new NameGenerator that uses the given compiled model instead of
+     * training one. {@link #ngramCollection} stays empty.
+     *
+     * @param model  the compiled model, may be shared with other generators
+     * @param random the random instance to use
+     */
+    public NameGenerator(NgramModel model, Random random) {
+        this.random = random;
+        this.model = model;
     }
 
     /**
@@ -55,6 +75,15 @@ public class NameGenerator {
         this(names, order, new Random());
     }
 
+    /**
+     * Returns the compiled model names are generated with.
+     *
+     * @return the compiled model
+     */
+    NgramModel getModel() {
+        return model;
+    }
+
     /**
      * Trains the markov chain on the given names with the specified order.
      *
@@ -77,54 +106,78 @@ public class NameGenerator {
     }
 
     /**
-     * Returns a weighted random choice based on the given characters and weights.
+     * Generates a new name with at most the given length.
+     * The name is generated by the compiled model, see {@link NgramModel}.
      *
-     * @param characters the characters to choose from
-     * @param weights    the weights of the characters
-     * @return the chosen character
+     * @param length the maximum length of the name
+     * @return the generated name
      */
-    private char weightedRandomChoice(List<Character> characters, List<Integer> weights) {
-        int totalWeight = weights.stream().mapToInt(Integer::intValue).sum();
-        int randomIndex = random.nextInt(totalWeight);
-        int cumulativeWeight = 0;
-
-        for (int i = 0; i < characters.size(); i++) {
-            cumulativeWeight += weights.get(i);
-            if (randomIndex < cumulativeWeight) {
-                return characters.get(i);
-            }
-        }
-
-        return characters.get(characters.size() - 1);
+    public String generateName(int length) {
+        return model.generate(length, random);
     }
 
     /**
-     * Generates a new name with at most the given length.
+     * Generates a new name with at most the given length that is not contained in
+     * the given set of used names and adds it to the set.
+     * Draws up to {@link Config#NAME_GENERATOR_MAX_RETRIES} names. If all of them
+     * are taken, the last one is made unique by appending the smallest free
+     * number starting at 2, e.g. "Neustadt 2". Names with a suffix may exceed the
+     * given length.
+     * <p>
+     * Names are claimed with {@link Set#add(Object)}, so generators running in
+     * parallel, e.g. for different chunks of a map, never return the same name if
+     * they share a concurrent set like {@link ConcurrentHashMap#newKeySet()}.
      *
-     * @param length the maximum length of the name
+     * @param length    the maximum length of the name
+     * @param usedNames the names that are already taken, the new name is added
      * @return the generated name
      */
-    public String generateName(int length) {
-        String result = ((Function<List<String>, String>) (ngrams) -> {
-            return ngrams.stream().skip(random.nextInt(ngrams.size())).findFirst().get();
-        }).apply(ngramCollection.keySet().stream().filter(ngram -> ngram.startsWith("^")).toList());
-
-        for (int i = 0; i < length; i++) {
-            String ngram = result.substring(result.length() - order);
-
-            if (!ngramCollection.containsKey(ngram)) {
-                break;
+    public String generateUniqueName(int length, Set<String> usedNames) {
+        String name = generateName(length);
+        for (int i = 1; i < Config.NAME_GENERATOR_MAX_RETRIES; i++) {
+            if (usedNames.add(name)) {
+                return name;
             }
-
-            Character nextChar = weightedRandomChoice(ngramCollection.get(ngram).keySet().stream().toList(),
-                    ngramCollection.get(ngram).values().stream().toList());
-
-            if (nextChar == '$') {
-                break;
+            name = generateName(length);
+        }
+        if (usedNames.add(name)) {
+            return name;
+        }
+        for (int suffix = 2;; suffix++) {
+            final String suffixedName = name + " " + suffix;
+            if (usedNames.add(suffixedName)) {
+                return suffixedName;
             }
+        }
+    }
 
-            result += nextChar;
+    /**
+     * Generates the given number of distinct names with at most the given length
+     * that are not contained in the given set of used names, see
+     * {@link #generateUniqueName(int, Set)}.
+     *
+     * @param count     the number of names
+     * @param length    the maximum length of the names
+     * @param usedNames the names that are already taken, the new names are added
+     * @return the generated names in the order they were generated
+     */
+    public List<String> generateUniqueNames(int count, int length, Set<String> usedNames) {
+        final List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(generateUniqueName(length, usedNames));
         }
-        return result.substring(1, 2).toUpperCase() + result.substring(2);
+        return names;
+    }
+
+    /**
+     * Generates the given number of distinct names with at most the given length,
+     * see {@link #generateUniqueName(int, Set)}.
+     *
+     * @param count  the number of names
+     * @param length the maximum length of the names
+     * @return the generated names in the order they were generated
+     */
+    public List<String> generateUniqueNames(int count, int length) {
+        return generateUniqueNames(count, length, new HashSet<>(count * 2));
     }
 }
@@ -0,0 +1,413 @@
+package hProjekt.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import hProjekt.Config;
+
+/**
+ * A compiled, immutable markov chain of n-grams as trained by
+ * {@link NameGenerator}.
+ * Every n-gram gets a dense state id. The transitions of all states are stored
+ * in flat primitive arrays, the transitions of state {@code s} are the indices
+ * from {@code offsets[s]} to {@code offsets[s + 1]}. Every transition knows the
+ * state it leads to, so generating a character never builds or looks up an
+ * n-gram string.
+ * The next character is sampled with Walker's alias method in constant time,
+ * independent of the number of possible characters.
+ * <p>
+ * Since the model is immutable it can be shared between threads, every caller
+ * passes its own {@link Random}. The model of the town names is precompiled
+ * into a resource by {@link #main(String[])} and shared by all games, see
+ * {@link #townNames()}.
+ */
+public final class NgramModel {
+    private static final int MAGIC = 0x4e47524d;
+    private static final int VERSION = 2;
+    private static final char START = '^';
+    private static final char END = '$';
+    private static final int NO_STATE = -1;
+
+    private final int order;
+    private final String[] ngrams;
+    private final int[] startStates;
+    private final int[] offsets;
+    private final char[] symbols;
+    private final int[] nextStates;
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * Holds the shared town name model, so it is only loaded when first used.
+     */
+    private static final class Holder {
+        private static final NgramModel TOWN_NAMES = loadTownNames();
+    }
+
+    /**
+     * Creates a new model from the given arrays.
+     *
+     * @param order         the order of the markov chain
+     * @param ngrams        the n-gram of every state
+     * @param startStates   the states of the n-grams at the start of a name
+     * @param offsets       the index of the first transition of every state
+     * @param symbols       the character of every transition
+     * @param nextStates    the state every transition leads to
+     * @param probabilities the probability to keep the column of every
+     *                      transition in the alias table
+     * @param aliases       the alias of every transition in the alias table
+     */
+    private NgramModel(final int order, final String[] ngrams, final int[] startStates, final int[] offsets,
+            final char[] symbols, final int[] nextStates, final double[] probabilities, final int[] aliases) {
+        this.order = order;
+        this.ngrams = ngrams;
+        this.startStates = startStates;
+        this.offsets = offsets;
+        this.symbols = symbols;
+        this.nextStates = nextStates;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Compiles the given n-gram counts.
+     *
+     * @param ngramCollection the number of times each character followed each
+     *                        n-gram, see {@link NameGenerator#ngramCollection}
+     * @param order           the order of the markov chain, the length of the
+     *                        n-grams
+     * @return the compiled model
+     */
+    public static NgramModel compile(final Map<String, SortedMap<Character, Integer>> ngramCollection,
+            final int order) {
+        final Map<String, SortedMap<Character, Integer>> sorted = new TreeMap<>(ngramCollection);
+        final String[] ngrams = sorted.keySet().toArray(String[]::new);
+        final Map<String, Integer> states = new HashMap<>();
+        for (int state = 0; state < ngrams.length; state++) {
+            states.put(ngrams[state], state);
+        }
+
+        final List<Integer> startStates = new ArrayList<>();
+        final int[] offsets = new int[ngrams.length + 1];
+        for (int state = 0; state < ngrams.length; state++) {
+            if (ngrams[state].charAt(0) == START) {
+                startStates.add(state);
+            }
+            offsets[state + 1] = offsets[state] + sorted.get(ngrams[state]).size();
+        }
+
+        final int transitions = offsets[ngrams.length];
+        final char[] symbols = new char[transitions];
+        final int[] nextStates = new int[transitions];
+        final double[] probabilities = new double[transitions];
+        final int[] aliases = new int[transitions];
+        for (int state = 0; state < ngrams.length; state++) {
+            final int[] weights = new int[offsets[state + 1] - offsets[state]];
+            int transition = offsets[state];
+            for (Map.Entry<Character, Integer> entry : sorted.get(ngrams[state]).entrySet()) {
+                symbols[transition] = entry.getKey();
+                nextStates[transition] = states.getOrDefault(ngrams[state].substring(1) + entry.getKey(), NO_STATE);
+                weights[transition - offsets[state]] = entry.getValue();
+                transition++;
+            }
+            buildAliasTable(weights, probabilities, aliases, offsets[state]);
+        }
+
+        return new NgramModel(order, ngrams, startStates.stream().mapToInt(Integer::intValue).toArray(), offsets,
+                symbols, nextStates, probabilities, aliases);
+    }
+
+    /**
+     * Trains a new model on the given names.
+     *
+     * @param names the names to train on
+     * @param order the order of the markov chain
+     * @return the trained model
+     */
+    public static NgramModel train(final String[] names, final int order) {
+        return new NameGenerator(names, order).getModel();
+    }
+
+    /**
+     * Returns the model of the town names shared by all games. It is loaded from
+     * {@link Config#TOWN_NAME_MODEL_RESOURCE} when first used, or trained on
+     * {@link Config#TOWN_NAMES_RESOURCE} if that fails.
+     *
+     * @return the shared town name model
+     */
+    public static NgramModel townNames() {
+        return Holder.TOWN_NAMES;
+    }
+
+    /**
+     * Loads the town name model, see {@link #townNames()}.
+     *
+     * @return the town name model
+     */
+    private static NgramModel loadTownNames() {
+        try (InputStream in = NgramModel.class.getResourceAsStream(Config.TOWN_NAME_MODEL_RESOURCE)) {
+            if (in != null) {
+                return read(in);
+            }
+            System.out.println("Couldn't find the town name model, training it instead");
+        } catch (IOException e) {
+            System.out.println("Couldn't load the town name model: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return train(readNames(Config.TOWN_NAMES_RESOURCE), Config.NAME_GENERATOR_ORDER);
+    }
+
+    /**
+     * Reads a list of names, one per line, from the given resource.
+     *
+     * @param resource the name of the resource
+     * @return the names or an empty array if the resource cannot be read
+     */
+    public static String[] readNames(final String resource) {
+        final InputStream in = NgramModel.class.getResourceAsStream(resource);
+        if (in == null) {
+            System.out.println("Couldn't find the names " + resource);
+            return new String[0];
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toArray(String[]::new);
+        } catch (IOException e) {
+            System.out.println("Couldn't read the names " + resource + ": " + e.getMessage());
+            e.printStackTrace();
+            return new String[0];
+        }
+    }
+
+    /**
+     * Reads a model written by {@link #write(OutputStream)}.
+     *
+     * @param stream the stream to read from, is not closed
+     * @return the model
+     * @throws IOException if reading fails or the stream does not contain a model
+     */
+    public static NgramModel read(final InputStream stream) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not an n-gram model");
+        }
+        final int order = in.readInt();
+        final String[] ngrams = new String[in.readInt()];
+        for (int state = 0; state < ngrams.length; state++) {
+            ngrams[state] = in.readUTF();
+        }
+        final int[] startStates = readInts(in, in.readInt());
+        final int[] offsets = readInts(in, ngrams.length + 1);
+        final int transitions = offsets[ngrams.length];
+        final char[] symbols = new char[transitions];
+        for (int transition = 0; transition < transitions; transition++) {
+            symbols[transition] = in.readChar();
+        }
+        final int[] nextStates = readInts(in, transitions);
+        final double[] probabilities = new double[transitions];
+        for (int transition = 0; transition < transitions; transition++) {
+            probabilities[transition] = in.readDouble();
+        }
+        final int[] aliases = new int[transitions];
+        for (int transition = 0; transition < transitions; transition++) {
+            aliases[transition] = in.readUnsignedShort();
+        }
+        return new NgramModel(order, ngrams, startStates, offsets, symbols, nextStates, probabilities, aliases);
+    }
+
+    /**
+     * Reads the given number of {@code int}s.
+     *
+     * @param in    the stream to read from
+     * @param count the number of values
+     * @return the values
+     * @throws IOException if reading fails
+     */
+    private static int[] readInts(final DataInputStream in, final int count) throws IOException {
+        final int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Writes this model to the given stream. Probabilities are stored with full
+     * {@code double} precision, so a loaded model generates exactly the same names
+     * as the trained one for the same random numbers.
+     *
+     * @param stream the stream to write to, is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void write(final OutputStream stream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(order);
+        out.writeInt(ngrams.length);
+        for (String ngram : ngrams) {
+            out.writeUTF(ngram);
+        }
+        out.writeInt(startStates.length);
+        for (int state : startStates) {
+            out.writeInt(state);
+        }
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        for (char symbol : symbols) {
+            out.writeChar(symbol);
+        }
+        for (int state : nextStates) {
+            out.writeInt(state);
+        }
+        for (double probability : probabilities) {
+            out.writeDouble(probability);
+        }
+        for (int alias : aliases) {
+            out.writeShort(alias);
+        }
+        out.flush();
+    }
+
+    /**
+     * Trains the town name model on {@link Config#TOWN_NAMES_RESOURCE} and writes
+     * it to the given file, to be packaged as
+     * {@link Config#TOWN_NAME_MODEL_RESOURCE}.
+     *
+     * @param args the file to write the model to
+     * @throws IOException if writing fails
+     */
+    public static void main(final String[] args) throws IOException {
+        final Path file = Paths.get(args.length > 0 ? args[0] : "town_names_ger.ngram");
+        final NgramModel model = train(readNames(Config.TOWN_NAMES_RESOURCE), Config.NAME_GENERATOR_ORDER);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            model.write(out);
+        }
+        System.out.printf("Wrote %d states to %s%n", model.getStateCount(), file.toAbsolutePath());
+    }
+
+    /**
+     * Builds the alias table of the given weights with Vose's algorithm.
+     *
+     * @param weights       the weights, all positive
+     * @param probabilities the array to store the probabilities of the columns in
+     * @param aliases       the array to store the aliases of the columns in
+     * @param offset        the index of the first column in the arrays
+     */
+    private static void buildAliasTable(final int[] weights, final double[] probabilities, final int[] aliases,
+            final int offset) {
+        final int size = weights.length;
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        final double[] scaled = new double[size];
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (double) weights[i] * size / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+            probabilities[offset + less] = scaled[less];
+            aliases[offset + less] = more;
+            scaled[more] += scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // the remaining columns are full, up to rounding errors
+        while (largeCount > 0) {
+            final int column = large[--largeCount];
+            probabilities[offset + column] = 1;
+            aliases[offset + column] = column;
+        }
+        while (smallCount > 0) {
+            final int column = small[--smallCount];
+            probabilities[offset + column] = 1;
+            aliases[offset + column] = column;
+        }
+    }
+
+    /**
+     * Returns the order of the markov chain.
+     *
+     * @return the order of the markov chain
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the number of states, i.e. distinct n-grams.
+     *
+     * @return the number of states
+     */
+    public int getStateCount() {
+        return ngrams.length;
+    }
+
+    /**
+     * Generates a new name with at most the given number of characters after the
+     * start n-gram. The start n-gram is chosen uniformly, every following
+     * character according to the trained counts.
+     *
+     * @param length the maximum number of generated characters
+     * @param random the random instance to use
+     * @return the generated name, starting with an upper case letter
+     */
+    public String generate(final int length, final Random random) {
+        int state = startStates[random.nextInt(startStates.length)];
+        final StringBuilder name = new StringBuilder(order + length).append(ngrams[state]);
+        for (int i = 0; i < length && state != NO_STATE; i++) {
+            final int transition = sample(state, random);
+            if (symbols[transition] == END) {
+                break;
+            }
+            name.append(symbols[transition]);
+            state = nextStates[transition];
+        }
+        return name.substring(1, 2).toUpperCase() + name.substring(2);
+    }
+
+    /**
+     * Samples a transition of the given state with the alias method.
+     *
+     * @param state  the state
+     * @param random the random instance to use
+     * @return the index of the sampled transition
+     */
+    private int sample(final int state, final Random random) {
+        final int offset = offsets[state];
+        final int column = offset + random.nextInt(offsets[state + 1] - offset);
+        return random.nextDouble() < probabilities[column] ? column : offset + aliases[column];
+    }
+}
@@ -0,0 +1,916 @@
+package hProjekt.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import hProjekt.model.City;
+import hProjekt.model.Edge;
+import hProjekt.model.HexGrid;
+import hProjekt.model.Player;
+import hProjekt.model.Tile;
+import hProjekt.model.TilePosition;
+import hProjekt.model.TilePosition.EdgeDirection;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Affine;
+
+/**
+ * A {@link HexGridBuilder} that draws the map onto a single {@link Canvas}
+ * instead of creating nodes for every tile, edge and city.
+ * <p>
+ * Tiles, rails, highlights, cities and labels are drawn in batched passes with
+ * one path per color, and only the part of the map inside the viewport is
+ * drawn. A change of a single tile, edge or city only repaints the region it
+ * covers, all changes until the next repaint are merged.
+ * <p>
+ * The {@link TileBuilder}s, {@link EdgeLine}s and {@link CityBuilder}s are not
+ * added to the scene but keep the highlights and handlers set by their
+ * controllers and report changes, so the controllers work unchanged. The edge
+ * lines are only requested for tiles that are drawn or hovered, so the edges
+ * of a grid in the lazy edge mode are not looked up all at once. Mouse
+ * events on the canvas are forwarded to the edge or tile under the cursor.
+ * The hex grid pane only contains overlays like the trains and carries the
+ * pan and zoom transform, which the canvas follows.
+ */
+public class CanvasHexGridBuilder extends HexGridBuilder {
+    private static final double TILE_BORDER_WIDTH = 5;
+    private static final double RAIL_WIDTH = 5;
+    private static final double RAIL_OUTLINE_WIDTH = RAIL_WIDTH * 1.4;
+    private static final double HIGHLIGHT_WIDTH = RAIL_WIDTH * 2;
+    private static final double RAIL_INSET = 5;
+    private static final double RAIL_OWNER_GAP = 0.02;
+    private static final double SELECTABLE_DASH_SCALE = 0.1;
+    private static final double SELECTABLE_DASH_GAP = 10;
+    private static final double CITY_RADIUS = 10;
+    // labels of edges and cities reach up to this many tiles beyond their tile
+    private static final int LABEL_TILE_MARGIN = 2;
+
+    private static final Color SELECTABLE_COLOR = Color.GRAY;
+    private static final Color SELECTABLE_TILE_COLOR = Color.RED;
+    private static final Color SELECTED_COLOR = Color.WHITE;
+    private static final Color HOVER_COLOR = Color.LIME;
+    private static final Color LABEL_COLOR = Color.WHITE;
+    private static final Color SELECTED_LABEL_COLOR = Color.rgb(0, 251, 255);
+
+    private static final String LABEL_FONT_FAMILY = "Roboto Merged Icons Black";
+    private static final String LABEL_FONT_RESOURCE = "/fonts/Roboto-Merged-Icons-Black.ttf";
+
+    private final Canvas canvas = new Canvas();
+    private final Pane canvasPane = new Pane(canvas);
+    private final Map<TilePosition, TileBuilder> tiles = new LinkedHashMap<>();
+    private final Function<Edge, EdgeLine> edgeLines;
+    private final Map<TilePosition, List<EdgeLine>> edgesAtTile = new HashMap<>();
+    private final List<CityBuilder> cities;
+    private final Map<TilePosition, CityBuilder> citiesAtTile = new HashMap<>();
+    private final Map<TilePosition, Point2D> centers = new HashMap<>();
+    private final Map<EdgeLine, Bounds> edgeExtents = new HashMap<>();
+    private final Map<CityBuilder, Bounds> cityExtents = new HashMap<>();
+    private final double[] corners = new double[12];
+    private final Font labelFont;
+    private final Font selectedLabelFont;
+
+    private Bounds dirtyRegion;
+    private boolean repaintScheduled = false;
+    private TileBuilder hoveredTile;
+    private EdgeLine hoveredEdge;
+
+    /**
+     * Creates a new canvas hex grid builder with the given hex grid, edge lines,
+     * tile builders, city builders and event handlers.
+     *
+     * @param grid                The hex grid.
+     * @param edgeLines           Returns the edge line of an edge, always the
+     *                            same one for equal edges.
+     * @param tileBuilders        The tile builders.
+     * @param cityBuilders        The city builders.
+     * @param scrollHandler       The handler for the scroll event. Used for
+     *                            zooming.
+     * @param pressedHandler      The handler for the mouse pressed event.
+     * @param draggedHandler      The handler for the mouse dragged event. Used for
+     *                            panning
+     * @param centerButtonHandler The handler for the center button event.
+     */
+    public CanvasHexGridBuilder(
+            final HexGrid grid,
+            final Function<Edge, EdgeLine> edgeLines,
+            final Set<TileBuilder> tileBuilders, final Set<CityBuilder> cityBuilders,
+            final BiConsumer<ScrollEvent, Region> scrollHandler,
+            final Consumer<MouseEvent> pressedHandler, final BiConsumer<MouseEvent, Region> draggedHandler,
+            final BiConsumer<Event, Region> centerButtonHandler) {
+        // the edge lines are drawn by this builder only
+        super(grid, Set.of(), tileBuilders, cityBuilders, scrollHandler, pressedHandler, draggedHandler,
+                centerButtonHandler);
+        this.edgeLines = edgeLines;
+
+        tileBuilders.stream()
+                .sorted(Comparator.comparing(builder -> builder.getTile().getPosition()))
+                .forEach(builder -> tiles.put(builder.getTile().getPosition(), builder));
+        this.cities = cityBuilders.stream()
+                .sorted(Comparator.comparing(builder -> builder.getCity().getPosition()))
+                .toList();
+        cities.forEach(builder -> citiesAtTile.put(builder.getCity().getPosition(), builder));
+
+        final double defaultFontSize = Font.getDefault().getSize();
+        // the stylesheet of the map, which would otherwise load the font, is not applied yet
+        ResourceCache.getFont(LABEL_FONT_RESOURCE);
+        this.labelFont = Font.font(LABEL_FONT_FAMILY, FontWeight.BLACK, defaultFontSize * 3);
+        this.selectedLabelFont = Font.font(LABEL_FONT_FAMILY, FontWeight.BLACK, defaultFontSize * 4);
+
+        updateLayout();
+        tiles.values().forEach(builder -> builder.setChangeListener(
+                () -> runOnFxThread(() -> markDirty(tileExtent(builder.getTile().getPosition())))));
+        cities.forEach(builder -> builder.setChangeListener(() -> runOnFxThread(() -> cityChanged(builder))));
+
+        canvasPane.setMinSize(0, 0);
+        canvasPane.setPrefSize(0, 0);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener(observable -> repaintAll());
+        canvas.heightProperty().addListener(observable -> repaintAll());
+        getHexGridPane().localToParentTransformProperty().addListener(observable -> repaintAll());
+        getHexGridPane().setPickOnBounds(false);
+
+        canvas.setOnMouseMoved(this::mouseMovedHandler);
+        canvas.setOnMouseExited(event -> setHovered(null, null));
+        canvas.setOnMouseClicked(this::mouseClickedHandler);
+    }
+
+    @Override
+    protected void placeMap(final StackPane mapPane) {
+        mapPane.getChildren().add(0, canvasPane);
+        repaintAll();
+    }
+
+    @Override
+    public void drawTiles() {
+        repaintAll();
+    }
+
+    @Override
+    public void drawEdges() {
+        edgeExtents.replaceAll((line, extent) -> edgeExtent(line));
+        repaintAll();
+    }
+
+    @Override
+    public void drawCities() {
+        cities.forEach(builder -> cityExtents.put(builder, cityExtent(builder)));
+        repaintAll();
+    }
+
+    /**
+     * Returns the canvas the map is drawn onto.
+     *
+     * @return The canvas.
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Runs the given action on the JavaFX application thread.
+     *
+     * @param action The action to run.
+     */
+    private static void runOnFxThread(final Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    /**
+     * Calculates the tile centers, the tile corners and the extents of the edges
+     * and cities in layout coordinates. Tile size changes are handled by the
+     * transform of the hex grid pane.
+     */
+    private void updateLayout() {
+        centers.clear();
+        tiles.keySet().forEach(position -> centers.put(position, calculatePositionCenterOffset(position)));
+        final double size = getLayoutTileSize();
+        for (int i = 0; i < 6; i++) {
+            final double angle = Math.toRadians(60 * i - 90);
+            corners[2 * i] = size * Math.cos(angle);
+            corners[2 * i + 1] = size * Math.sin(angle);
+        }
+        edgeExtents.replaceAll((line, extent) -> edgeExtent(line));
+        cities.forEach(builder -> cityExtents.put(builder, cityExtent(builder)));
+    }
+
+    /**
+     * Returns the edge lines of the edges of the tile at the given position. The
+     * lines are requested when the tile is first needed and then listened to.
+     *
+     * @param position The position of the tile.
+     * @return The edge lines of the tile.
+     */
+    private List<EdgeLine> edgesAt(final TilePosition position) {
+        final List<EdgeLine> cached = edgesAtTile.get(position);
+        if (cached != null) {
+            return cached;
+        }
+        final List<EdgeLine> lines = new ArrayList<>();
+        if (tiles.containsKey(position)) {
+            for (EdgeDirection direction : EdgeDirection.VALUES) {
+                final TilePosition neighbour = TilePosition.neighbour(position, direction);
+                if (!tiles.containsKey(neighbour)) {
+                    continue;
+                }
+                final EdgeLine line = edgeLines.apply(getGrid().getEdge(position, neighbour));
+                if (!edgeExtents.containsKey(line)) {
+                    edgeExtents.put(line, edgeExtent(line));
+                    line.setChangeListener(() -> runOnFxThread(() -> edgeChanged(line)));
+                }
+                lines.add(line);
+            }
+        }
+        edgesAtTile.put(position, lines);
+        return lines;
+    }
+
+    /**
+     * Returns the center of the tile at the given position.
+     *
+     * @param position The position of the tile.
+     * @return The center of the tile.
+     */
+    private Point2D center(final TilePosition position) {
+        final Point2D center = centers.get(position);
+        return center != null ? center : calculatePositionCenterOffset(position);
+    }
+
+    /**
+     * Returns the region covered by the tile at the given position.
+     *
+     * @param position The position of the tile.
+     * @return The region covered by the tile.
+     */
+    private Bounds tileExtent(final TilePosition position) {
+        final Point2D center = center(position);
+        final double width = getLayoutTileWidth() + TILE_BORDER_WIDTH;
+        final double height = getLayoutTileHeight() + TILE_BORDER_WIDTH;
+        return new BoundingBox(center.getX() - width / 2, center.getY() - height / 2, width, height);
+    }
+
+    /**
+     * Returns the region covered by the given edge line, including its label.
+     *
+     * @param line The edge line.
+     * @return The region covered by the edge line.
+     */
+    private Bounds edgeExtent(final EdgeLine line) {
+        final Point2D start = center(line.getEdge().getPosition1());
+        final Point2D end = center(line.getEdge().getPosition2());
+        final Bounds lineBounds = new BoundingBox(
+                Math.min(start.getX(), end.getX()) - HIGHLIGHT_WIDTH,
+                Math.min(start.getY(), end.getY()) - HIGHLIGHT_WIDTH,
+                Math.abs(start.getX() - end.getX()) + 2 * HIGHLIGHT_WIDTH,
+                Math.abs(start.getY() - end.getY()) + 2 * HIGHLIGHT_WIDTH);
+        final String label = line.getLabelText();
+        if (label == null) {
+            return lineBounds;
+        }
+        final Point2D middle = start.midpoint(end);
+        final Bounds textBounds = textBounds(label, labelFont);
+        return union(lineBounds, new BoundingBox(middle.getX() - textBounds.getWidth() / 2,
+                middle.getY() - textBounds.getHeight() / 2, textBounds.getWidth(), textBounds.getHeight()));
+    }
+
+    /**
+     * Returns the region covered by the given city, including its name.
+     *
+     * @param builder The city builder.
+     * @return The region covered by the city.
+     */
+    private Bounds cityExtent(final CityBuilder builder) {
+        final Point2D center = center(builder.getCity().getPosition());
+        final Bounds textBounds = textBounds(builder.getCity().getName(),
+                builder.isHighlighted() ? selectedLabelFont : labelFont);
+        final double width = Math.max(textBounds.getWidth(), 2 * CITY_RADIUS) + 2;
+        return new BoundingBox(center.getX() - width / 2, center.getY() - CITY_RADIUS - 1, width,
+                2 * CITY_RADIUS + 2 + textBounds.getHeight());
+    }
+
+    /**
+     * Measures the given text.
+     *
+     * @param text The text.
+     * @param font The font of the text.
+     * @return The bounds of the text.
+     */
+    private static Bounds textBounds(final String text, final Font font) {
+        final Text measuredText = new Text(text);
+        measuredText.setFont(font);
+        final Bounds bounds = measuredText.getLayoutBounds();
+        return new BoundingBox(0, 0, bounds.getWidth() + 4, bounds.getHeight() + 4);
+    }
+
+    /**
+     * Returns the smallest bounds containing both given bounds.
+     *
+     * @param bounds1 The first bounds.
+     * @param bounds2 The second bounds.
+     * @return The union of the bounds.
+     */
+    private static Bounds union(final Bounds bounds1, final Bounds bounds2) {
+        final double minX = Math.min(bounds1.getMinX(), bounds2.getMinX());
+        final double minY = Math.min(bounds1.getMinY(), bounds2.getMinY());
+        return new BoundingBox(minX, minY, Math.max(bounds1.getMaxX(), bounds2.getMaxX()) - minX,
+                Math.max(bounds1.getMaxY(), bounds2.getMaxY()) - minY);
+    }
+
+    /**
+     * Updates the extent of the given edge line and repaints the regions it
+     * covered and covers.
+     *
+     * @param line The edge line that changed.
+     */
+    private void edgeChanged(final EdgeLine line) {
+        final Bounds oldExtent = edgeExtents.get(line);
+        final Bounds newExtent = edgeExtent(line);
+        edgeExtents.put(line, newExtent);
+        markDirty(oldExtent != null ? union(oldExtent, newExtent) : newExtent);
+    }
+
+    /**
+     * Updates the extent of the given city and repaints the regions it covered and
+     * covers.
+     *
+     * @param builder The city builder that changed.
+     */
+    private void cityChanged(final CityBuilder builder) {
+        final Bounds oldExtent = cityExtents.get(builder);
+        final Bounds newExtent = cityExtent(builder);
+        cityExtents.put(builder, newExtent);
+        markDirty(oldExtent != null ? union(oldExtent, newExtent) : newExtent);
+    }
+
+    /**
+     * Marks the given region of the map for repainting.
+     *
+     * @param region The region in the coordinates of the hex grid pane.
+     */
+    private void markDirty(final Bounds region) {
+        dirtyRegion = dirtyRegion == null ? region : union(dirtyRegion, region);
+        scheduleRepaint();
+    }
+
+    /**
+     * Marks the whole map for repainting.
+     */
+    private void repaintAll() {
+        final Bounds visible = visibleRegion();
+        if (visible != null) {
+            markDirty(visible);
+        }
+    }
+
+    /**
+     * Schedules a repaint of the dirty region unless one is already scheduled.
+     */
+    private void scheduleRepaint() {
+        if (!repaintScheduled) {
+            repaintScheduled = true;
+            Platform.runLater(this::repaint);
+        }
+    }
+
+    /**
+     * Returns the part of the map inside the viewport.
+     *
+     * @return The visible region in the coordinates of the hex grid pane or null
+     *         if nothing is visible.
+     */
+    private Bounds visibleRegion() {
+        if (canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+            return null;
+        }
+        return getHexGridPane().parentToLocal(new BoundingBox(0, 0, canvas.getWidth(), canvas.getHeight()));
+    }
+
+    /**
+     * Repaints the dirty region of the map.
+     */
+    private void repaint() {
+        repaintScheduled = false;
+        final Bounds dirty = dirtyRegion;
+        dirtyRegion = null;
+        if (dirty == null || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+            return;
+        }
+        final Bounds dirtyPixels = getHexGridPane().localToParent(dirty);
+        final double minX = Math.max(0, Math.floor(dirtyPixels.getMinX()));
+        final double minY = Math.max(0, Math.floor(dirtyPixels.getMinY()));
+        final double maxX = Math.min(canvas.getWidth(), Math.ceil(dirtyPixels.getMaxX()));
+        final double maxY = Math.min(canvas.getHeight(), Math.ceil(dirtyPixels.getMaxY()));
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+        final Bounds pixels = new BoundingBox(minX, minY, maxX - minX, maxY - minY);
+        final Bounds region = getHexGridPane().parentToLocal(pixels);
+        if (region == null) {
+            return;
+        }
+
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.save();
+        gc.clearRect(minX, minY, maxX - minX, maxY - minY);
+        gc.beginPath();
+        gc.rect(minX, minY, maxX - minX, maxY - minY);
+        gc.clip();
+        gc.setTransform(new Affine(getHexGridPane().getLocalToParentTransform()));
+
+        final List<TilePosition> visibleTiles = new ArrayList<>();
+        final Set<EdgeLine> visibleEdgeSet = new LinkedHashSet<>();
+        final List<CityBuilder> visibleCities = new ArrayList<>();
+        collectVisible(region, visibleTiles, visibleEdgeSet, visibleCities);
+        final List<EdgeLine> visibleEdges = List.copyOf(visibleEdgeSet);
+        drawTiles(gc, visibleTiles);
+        drawHighlightedEdges(gc, visibleEdges);
+        drawRails(gc, visibleEdges);
+        drawCityMarkers(gc, visibleCities);
+        drawLabels(gc, visibleEdges, visibleCities);
+        gc.restore();
+    }
+
+    /**
+     * Collects the tiles, edges and cities to repaint in the given region.
+     * Only the rows and columns of tiles covering the region are visited, in axial
+     * coordinates like {@link #tileAt(Point2D)}, so the work depends on the size
+     * of the region and not on the size of the map. Tiles are collected with one
+     * more row and column on every side, which covers their borders, edges and
+     * cities with {@link #LABEL_TILE_MARGIN} more and only if their extent
+     * intersects the region.
+     *
+     * @param region The region in the coordinates of the hex grid pane.
+     * @param tiles  Receives the positions of the tiles to repaint.
+     * @param edges  Receives the edge lines to repaint.
+     * @param cities Receives the cities to repaint.
+     */
+    private void collectVisible(final Bounds region, final List<TilePosition> tiles, final Set<EdgeLine> edges,
+            final List<CityBuilder> cities) {
+        final Point2D origin = calculatePositionCenterOffset(new TilePosition(0, 0));
+        final double columnWidth = Math.sqrt(3) * getLayoutTileSize();
+        final double rowHeight = 1.5 * getLayoutTileSize();
+        final double minColumn = (region.getMinX() - origin.getX()) / columnWidth;
+        final double maxColumn = (region.getMaxX() - origin.getX()) / columnWidth;
+        final int minRow = (int) Math.floor((region.getMinY() - origin.getY()) / rowHeight);
+        final int maxRow = (int) Math.ceil((region.getMaxY() - origin.getY()) / rowHeight);
+        for (int r = minRow - LABEL_TILE_MARGIN; r <= maxRow + LABEL_TILE_MARGIN; r++) {
+            // the columns of a row are shifted by half a tile per row
+            final int minQ = (int) Math.floor(minColumn - r / 2.0);
+            final int maxQ = (int) Math.ceil(maxColumn - r / 2.0);
+            final boolean tileRow = r >= minRow - 1 && r <= maxRow + 1;
+            for (int q = minQ - LABEL_TILE_MARGIN; q <= maxQ + LABEL_TILE_MARGIN; q++) {
+                final TilePosition position = new TilePosition(q, r);
+                if (!this.tiles.containsKey(position)) {
+                    continue;
+                }
+                if (tileRow && q >= minQ - 1 && q <= maxQ + 1) {
+                    tiles.add(position);
+                }
+                for (EdgeLine line : edgesAt(position)) {
+                    if (edgeExtents.get(line).intersects(region)) {
+                        edges.add(line);
+                    }
+                }
+                final CityBuilder city = citiesAtTile.get(position);
+                if (city != null && cityExtents.get(city).intersects(region)) {
+                    cities.add(city);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the outline of the tile at the given position to the current path.
+     *
+     * @param gc       The graphics context.
+     * @param position The position of the tile.
+     */
+    private void addHexagon(final GraphicsContext gc, final TilePosition position) {
+        final Point2D center = center(position);
+        gc.moveTo(center.getX() + corners[0], center.getY() + corners[1]);
+        for (int i = 1; i < 6; i++) {
+            gc.lineTo(center.getX() + corners[2 * i], center.getY() + corners[2 * i + 1]);
+        }
+        gc.closePath();
+    }
+
+    /**
+     * Draws the given tiles with one fill per tile type and one stroke per border
+     * color.
+     *
+     * @param gc        The graphics context.
+     * @param positions The positions of the tiles to draw.
+     */
+    private void drawTiles(final GraphicsContext gc, final List<TilePosition> positions) {
+        for (Tile.Type type : Tile.Type.values()) {
+            gc.beginPath();
+            positions.stream()
+                    .filter(position -> tiles.get(position).getTile().getType() == type)
+                    .forEach(position -> addHexagon(gc, position));
+            gc.setFill(type.color);
+            gc.fill();
+        }
+
+        gc.setLineWidth(TILE_BORDER_WIDTH);
+        gc.setLineDashes();
+        gc.beginPath();
+        positions.forEach(position -> addHexagon(gc, position));
+        gc.setStroke(Color.BLACK);
+        gc.stroke();
+
+        gc.beginPath();
+        positions.stream()
+                .filter(position -> tiles.get(position).isHighlighted() && tiles.get(position) != hoveredTile)
+                .forEach(position -> addHexagon(gc, position));
+        gc.setStroke(SELECTABLE_TILE_COLOR);
+        gc.stroke();
+
+        if (hoveredTile != null && hoveredTile.isHighlighted()
+                && positions.contains(hoveredTile.getTile().getPosition())) {
+            gc.beginPath();
+            addHexagon(gc, hoveredTile.getTile().getPosition());
+            gc.setStroke(HOVER_COLOR);
+            gc.stroke();
+        }
+    }
+
+    /**
+     * Adds the visible part of the given edge line to the current path, the part
+     * between the insets at both tile centers.
+     *
+     * @param gc   The graphics context.
+     * @param line The edge line.
+     * @param from The start of the part as a fraction of the line.
+     * @param to   The end of the part as a fraction of the line.
+     */
+    private void addEdgeSegment(final GraphicsContext gc, final EdgeLine line, final double from,
+            final double to) {
+        final Point2D start = center(line.getEdge().getPosition1());
+        final Point2D end = center(line.getEdge().getPosition2());
+        final double inset = RAIL_INSET / start.distance(end);
+        final double clippedFrom = Math.max(from, inset);
+        final double clippedTo = Math.min(to, 1 - inset);
+        if (clippedFrom >= clippedTo) {
+            return;
+        }
+        final Point2D direction = end.subtract(start);
+        gc.moveTo(start.getX() + direction.getX() * clippedFrom, start.getY() + direction.getY() * clippedFrom);
+        gc.lineTo(start.getX() + direction.getX() * clippedTo, start.getY() + direction.getY() * clippedTo);
+    }
+
+    /**
+     * Sets dashes on the graphics context like the ones of a selectable
+     * {@link EdgeLine}.
+     *
+     * @param gc The graphics context.
+     */
+    private void setSelectableDashes(final GraphicsContext gc) {
+        final double length = getLayoutTileWidth() - 2 * RAIL_INSET;
+        gc.setLineDashes(length * SELECTABLE_DASH_SCALE, SELECTABLE_DASH_GAP);
+    }
+
+    /**
+     * Draws the highlights of the given edge lines with one stroke per color.
+     *
+     * @param gc    The graphics context.
+     * @param lines The edge lines to draw.
+     */
+    private void drawHighlightedEdges(final GraphicsContext gc, final List<EdgeLine> lines) {
+        gc.setLineWidth(HIGHLIGHT_WIDTH);
+        gc.setLineCap(StrokeLineCap.SQUARE);
+        for (boolean selectable : new boolean[] { false, true }) {
+            if (selectable) {
+                setSelectableDashes(gc);
+            } else {
+                gc.setLineDashes();
+            }
+            for (Color color : List.of(SELECTABLE_COLOR, SELECTED_COLOR, HOVER_COLOR)) {
+                gc.beginPath();
+                lines.stream()
+                        .filter(line -> line.isSelectable() == selectable && highlightColor(line) == color)
+                        .forEach(line -> addEdgeSegment(gc, line, 0, 1));
+                gc.setStroke(color);
+                gc.stroke();
+            }
+        }
+    }
+
+    /**
+     * Returns the color of the highlight of the given edge line.
+     *
+     * @param line The edge line.
+     * @return The color of the highlight or null if it is not highlighted.
+     */
+    private Color highlightColor(final EdgeLine line) {
+        if (line.isSelectable() && line == hoveredEdge) {
+            return HOVER_COLOR;
+        }
+        if (line.isSelected()) {
+            return SELECTED_COLOR;
+        }
+        return line.isSelectable() ? SELECTABLE_COLOR : null;
+    }
+
+    /**
+     * Draws the rails of the given edge lines. The outlines of all rails are drawn
+     * at once, then the parts of all owners with the same color.
+     *
+     * @param gc    The graphics context.
+     * @param lines The edge lines to draw.
+     */
+    private void drawRails(final GraphicsContext gc, final List<EdgeLine> lines) {
+        final List<EdgeLine> rails = lines.stream().filter(line -> line.getEdge().hasRail()).toList();
+        gc.setLineDashes();
+        gc.setLineWidth(RAIL_OUTLINE_WIDTH);
+        gc.setLineCap(StrokeLineCap.SQUARE);
+        gc.beginPath();
+        rails.stream()
+                .filter(line -> highlightColor(line) == null)
+                .forEach(line -> addEdgeSegment(gc, line, 0, 1));
+        gc.setStroke(Color.BLACK);
+        gc.stroke();
+
+        gc.setLineWidth(RAIL_WIDTH);
+        gc.setLineCap(StrokeLineCap.BUTT);
+        for (boolean selectable : new boolean[] { false, true }) {
+            if (selectable) {
+                setSelectableDashes(gc);
+            } else {
+                gc.setLineDashes();
+            }
+            final Map<Color, List<Runnable>> segmentsByColor = new LinkedHashMap<>();
+            for (EdgeLine line : rails) {
+                if (line.isSelectable() != selectable) {
+                    continue;
+                }
+                final List<Player> owners = line.getEdge().getRailOwners().stream()
+                        .sorted(Comparator.comparingInt(Player::getID))
+                        .toList();
+                final double share = 1.0 / owners.size();
+                for (int i = 0; i < owners.size(); i++) {
+                    final double from = i * share;
+                    final double to = (i + 1) * share - (i < owners.size() - 1 ? RAIL_OWNER_GAP : 0);
+                    segmentsByColor.computeIfAbsent(owners.get(i).getColor(), color -> new ArrayList<>())
+                            .add(() -> addEdgeSegment(gc, line, from, to));
+                }
+            }
+            segmentsByColor.forEach((color, segments) -> {
+                gc.beginPath();
+                segments.forEach(Runnable::run);
+                gc.setStroke(color);
+                gc.stroke();
+            });
+        }
+        gc.setLineCap(StrokeLineCap.SQUARE);
+        gc.setLineDashes();
+    }
+
+    /**
+     * Draws the markers of the given cities with one fill per color and one
+     * stroke.
+     *
+     * @param gc       The graphics context.
+     * @param builders The cities to draw.
+     */
+    private void drawCityMarkers(final GraphicsContext gc, final List<CityBuilder> builders) {
+        for (boolean startingCity : new boolean[] { false, true }) {
+            gc.beginPath();
+            builders.stream()
+                    .map(CityBuilder::getCity)
+                    .filter(city -> city.isStartingCity() == startingCity)
+                    .forEach(city -> addCircle(gc, city));
+            gc.setFill(startingCity ? Color.RED : Color.BLACK);
+            gc.fill();
+        }
+        gc.setLineWidth(1);
+        gc.beginPath();
+        builders.forEach(builder -> addCircle(gc, builder.getCity()));
+        gc.setStroke(Color.BLACK);
+        gc.stroke();
+    }
+
+    /**
+     * Adds the marker of the given city to the current path.
+     *
+     * @param gc   The graphics context.
+     * @param city The city.
+     */
+    private void addCircle(final GraphicsContext gc, final City city) {
+        final Point2D center = center(city.getPosition());
+        gc.moveTo(center.getX() + CITY_RADIUS, center.getY());
+        gc.arc(center.getX(), center.getY(), CITY_RADIUS, CITY_RADIUS, 0, 360);
+        gc.closePath();
+    }
+
+    /**
+     * Draws the labels of the given edge lines and, unless the map is zoomed out
+     * to {@link DetailLevel#MINIMAL}, the names of the given cities.
+     *
+     * @param gc       The graphics context.
+     * @param lines    The edge lines whose labels to draw.
+     * @param builders The cities whose names to draw.
+     */
+    private void drawLabels(final GraphicsContext gc, final List<EdgeLine> lines,
+            final List<CityBuilder> builders) {
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setFont(labelFont);
+        gc.setFill(LABEL_COLOR);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        for (EdgeLine line : lines) {
+            final String label = line.getLabelText();
+            if (label != null) {
+                final Edge edge = line.getEdge();
+                final Point2D middle = center(edge.getPosition1()).midpoint(center(edge.getPosition2()));
+                gc.fillText(label, middle.getX(), middle.getY());
+                gc.strokeText(label, middle.getX(), middle.getY());
+            }
+        }
+
+        if (DetailLevel.forScale(getMapScale()) == DetailLevel.MINIMAL) {
+            return;
+        }
+        gc.setTextBaseline(VPos.TOP);
+        for (boolean highlighted : new boolean[] { false, true }) {
+            gc.setFont(highlighted ? selectedLabelFont : labelFont);
+            gc.setFill(highlighted ? SELECTED_LABEL_COLOR : LABEL_COLOR);
+            gc.setLineWidth(highlighted ? 2 : 1);
+            for (CityBuilder builder : builders) {
+                if (builder.isHighlighted() == highlighted) {
+                    final Point2D center = center(builder.getCity().getPosition());
+                    final double top = center.getY() + CITY_RADIUS + 1;
+                    gc.fillText(builder.getCity().getName(), center.getX(), top);
+                    gc.strokeText(builder.getCity().getName(), center.getX(), top);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tile at the given point.
+     *
+     * @param point The point in the coordinates of the hex grid pane.
+     * @return The tile builder of the tile or null if there is no tile.
+     */
+    private TileBuilder tileAt(final Point2D point) {
+        final Point2D origin = calculatePositionCenterOffset(new TilePosition(0, 0));
+        final double x = (point.getX() - origin.getX()) / getLayoutTileSize();
+        final double y = (point.getY() - origin.getY()) / getLayoutTileSize();
+        final double q = Math.sqrt(3) / 3 * x - 1.0 / 3 * y;
+        final double r = 2.0 / 3 * y;
+        final double s = -q - r;
+        long roundedQ = Math.round(q);
+        long roundedR = Math.round(r);
+        final long roundedS = Math.round(s);
+        final double differenceQ = Math.abs(roundedQ - q);
+        final double differenceR = Math.abs(roundedR - r);
+        final double differenceS = Math.abs(roundedS - s);
+        if (differenceQ > differenceR && differenceQ > differenceS) {
+            roundedQ = -roundedR - roundedS;
+        } else if (differenceR > differenceS) {
+            roundedR = -roundedQ - roundedS;
+        }
+        return tiles.get(new TilePosition((int) roundedQ, (int) roundedR));
+    }
+
+    /**
+     * Returns the selectable edge line at the given point.
+     *
+     * @param point The point in the coordinates of the hex grid pane.
+     * @param tile  The tile at the point.
+     * @return The closest selectable edge line within its highlight or null if
+     *         there is none.
+     */
+    private EdgeLine selectableEdgeAt(final Point2D point, final TileBuilder tile) {
+        if (tile == null) {
+            return null;
+        }
+        EdgeLine closest = null;
+        double closestDistance = HIGHLIGHT_WIDTH / 2;
+        for (EdgeLine line : edgesAt(tile.getTile().getPosition())) {
+            if (!line.isSelectable()) {
+                continue;
+            }
+            final double distance = distanceToSegment(point, center(line.getEdge().getPosition1()),
+                    center(line.getEdge().getPosition2()));
+            if (distance <= closestDistance) {
+                closest = line;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Returns the distance of the given point to the part of the given segment
+     * between the rail insets.
+     *
+     * @param point The point.
+     * @param start The start of the segment.
+     * @param end   The end of the segment.
+     * @return The distance.
+     */
+    private static double distanceToSegment(final Point2D point, final Point2D start, final Point2D end) {
+        final Point2D direction = end.subtract(start);
+        final double length = direction.magnitude();
+        final double inset = RAIL_INSET / length;
+        final double t = Math.clamp(point.subtract(start).dotProduct(direction) / (length * length), inset,
+                1 - inset);
+        return point.distance(start.add(direction.multiply(t)));
+    }
+
+    /**
+     * Sets the hovered tile and edge line and repaints them if they changed.
+     *
+     * @param tile The hovered tile or null.
+     * @param line The hovered edge line or null.
+     */
+    private void setHovered(final TileBuilder tile, final EdgeLine line) {
+        if (tile != hoveredTile) {
+            if (hoveredTile != null) {
+                markDirty(tileExtent(hoveredTile.getTile().getPosition()));
+            }
+            if (tile != null) {
+                markDirty(tileExtent(tile.getTile().getPosition()));
+            }
+            hoveredTile = tile;
+        }
+        if (line != hoveredEdge) {
+            if (hoveredEdge != null) {
+                markDirty(edgeExtents.get(hoveredEdge));
+            }
+            if (line != null) {
+                markDirty(edgeExtents.get(line));
+            }
+            hoveredEdge = line;
+        }
+    }
+
+    /**
+     * The handler for the mouse moved event on the canvas.
+     * <p>
+     * Updates the hovered tile and edge and forwards the event to the mouse
+     * entered handler of a newly hovered tile.
+     *
+     * @param event the event that triggered the handler
+     */
+    private void mouseMovedHandler(final MouseEvent event) {
+        final Point2D point = getHexGridPane().sceneToLocal(event.getSceneX(), event.getSceneY());
+        final TileBuilder tile = tileAt(point);
+        final TileBuilder previousTile = hoveredTile;
+        setHovered(tile, selectableEdgeAt(point, tile));
+        if (tile != null && tile != previousTile) {
+            tile.fireMouseEntered(event);
+        }
+    }
+
+    /**
+     * The handler for the mouse clicked event on the canvas.
+     * <p>
+     * Forwards the event to the selectable edge under the cursor or, if there is
+     * none, to the tile under the cursor.
+     *
+     * @param event the event that triggered the handler
+     */
+    private void mouseClickedHandler(final MouseEvent event) {
+        final Point2D point = getHexGridPane().sceneToLocal(event.getSceneX(), event.getSceneY());
+        final TileBuilder tile = tileAt(point);
+        final EdgeLine line = selectableEdgeAt(point, tile);
+        if (line != null) {
+            line.fireMouseClicked(event);
+        } else if (tile != null) {
+            tile.fireMouseClicked(event);
+        }
+    }
+}
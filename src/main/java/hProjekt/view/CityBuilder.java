@@ -20,6 +20,10 @@ public class CityBuilder implements Builder<Region> {
     private final VBox pane = new VBox();
     private Label label;
     private Node marker;
+    private boolean highlighted = false;
+    private boolean labelVisible = true;
+    private Runnable changeListener = () -> {
+    };
 
     /**
      * Creates a new CityBuilder for the given {@link City}.
@@ -70,6 +74,10 @@ public class CityBuilder implements Builder<Region> {
         label = new Label(city.getName());
         label.setTextAlignment(TextAlignment.CENTER);
         label.getStyleClass().add("highlighted-label");
+        if (highlighted) {
+            label.getStyleClass().add("selected");
+        }
+        label.setVisible(labelVisible);
         pane.getChildren().add(label);
 
         pane.setAlignment(Pos.CENTER);
@@ -82,13 +90,52 @@ public class CityBuilder implements Builder<Region> {
      * Highlights the city.
      */
     public void highlight() {
-        label.getStyleClass().add("selected");
+        if (label != null) {
+            label.getStyleClass().add("selected");
+        }
+        highlighted = true;
+        changeListener.run();
     }
 
     /**
      * Unhighlights the city.
      */
     public void unhighlight() {
-        label.getStyleClass().remove("selected");
+        if (label != null) {
+            label.getStyleClass().remove("selected");
+        }
+        highlighted = false;
+        changeListener.run();
+    }
+
+    /**
+     * Sets whether the name of the city is shown. Used when the map is zoomed out.
+     *
+     * @param visible whether to show the name
+     */
+    public void setLabelVisible(final boolean visible) {
+        labelVisible = visible;
+        if (label != null) {
+            label.setVisible(visible);
+        }
+    }
+
+    /**
+     * Returns whether the city is highlighted.
+     *
+     * @return true if the city is highlighted, false otherwise
+     */
+    public boolean isHighlighted() {
+        return highlighted;
+    }
+
+    /**
+     * Sets the listener that is called whenever the highlight of the city changes.
+     * Used by renderers that draw the city without building its view.
+     *
+     * @param listener the listener to call
+     */
+    public void setChangeListener(final Runnable listener) {
+        changeListener = listener;
     }
 }
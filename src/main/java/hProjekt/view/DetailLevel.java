@@ -0,0 +1,38 @@
+package hProjekt.view;
+
+import hProjekt.Config;
+
+/**
+ * The levels of detail the map is drawn with, depending on how far it is
+ * zoomed out.
+ */
+public enum DetailLevel {
+    /**
+     * Everything is drawn.
+     */
+    FULL,
+
+    /**
+     * Rails are drawn as solid lines in the color of a single owner, without
+     * gradients and dashes.
+     */
+    REDUCED,
+
+    /**
+     * Like {@link #REDUCED}, and the names of the cities are hidden.
+     */
+    MINIMAL;
+
+    /**
+     * Returns the level of detail for the given zoom.
+     *
+     * @param scale the scale of the map
+     * @return the level of detail
+     */
+    public static DetailLevel forScale(final double scale) {
+        if (scale < Config.MINIMAL_DETAIL_SCALE) {
+            return MINIMAL;
+        }
+        return scale < Config.REDUCED_DETAIL_SCALE ? REDUCED : FULL;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 import hProjekt.model.Edge;
 import hProjekt.model.EdgeImpl;
 import hProjekt.model.Player;
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
@@ -20,14 +21,36 @@ import javafx.scene.shape.Line;
 /**
  * A Line that represents an {@link EdgeImpl}. Has methods to highlight and
  * unhighlight itself.
+ * <p>
+ * Highlighting only records the requested state and invalidates the EdgeLine
+ * if the state changed. All invalidated EdgeLines are rendered once before the
+ * next pulse, so resetting the highlights of every edge only costs as much as
+ * the edges that were actually highlighted. The stroke of the rails is cached
+ * and only rebuilt when the rail owners change.
  */
 public class EdgeLine extends Line {
+    private static final RenderQueue<EdgeLine> RENDER_QUEUE = new RenderQueue<>(EdgeLine::render);
+
+    /**
+     * The ways an EdgeLine can be highlighted.
+     */
+    private enum HighlightState {
+        NONE, HIGHLIGHTED, SELECTABLE, SELECTED
+    }
+
     private final Edge edge;
     private double distance = 0;
     private final int strokeWidth = 5;
     private final double positionOffset = 10;
     private final Line outline = new Line();
     private final Label label = new Label();
+    private HighlightState highlightState = HighlightState.NONE;
+    private Consumer<MouseEvent> clickHandler = null;
+    private boolean simplified = false;
+    private List<Player> strokeOwners = null;
+    private boolean strokeSimplified = false;
+    private Runnable changeListener = () -> {
+    };
 
     /**
      * Creates a new EdgeLine for the given {@link EdgeImpl}.
@@ -43,6 +66,7 @@ public class EdgeLine extends Line {
         outline.strokeDashOffsetProperty().bind(strokeDashOffsetProperty());
         outline.setStrokeWidth(strokeWidth * 1.4);
         outline.setStroke(Color.TRANSPARENT);
+        outline.setOnMouseClicked(this::handleClick);
         getStrokeDashArray().subscribe(() -> {
             outline.getStrokeDashArray().setAll(getStrokeDashArray());
         });
@@ -50,6 +74,11 @@ public class EdgeLine extends Line {
         outline.setMouseTransparent(true);
         label.getStyleClass().add("highlighted-label");
         label.setMouseTransparent(true);
+        label.setVisible(false);
+        label.translateXProperty().bind(
+                Bindings.createDoubleBinding(() -> -label.getWidth() / 2, label.widthProperty()));
+        label.translateYProperty().bind(
+                Bindings.createDoubleBinding(() -> -label.getHeight() / 2, label.heightProperty()));
     }
 
     /**
@@ -71,51 +100,150 @@ public class EdgeLine extends Line {
     }
 
     /**
-     * Initializes the EdgeLine with a dashScale of 1.
+     * Returns the label of the EdgeLine.
      *
-     * @see #init(double)
+     * @return the label
+     */
+    public Label getLabel() {
+        return label;
+    }
+
+    /**
+     * Initializes the EdgeLine after its position changed and renders it
+     * immediately.
      */
     public void init() {
-        init(1);
+        this.distance = new Point2D(getStartX(), getStartY()).distance(getEndX(), getEndY());
+        strokeOwners = null;
+        setStrokeWidth(strokeWidth);
+        setStrokeDashOffset(-positionOffset / 2);
+        RENDER_QUEUE.remove(this);
+        render();
     }
 
     /**
-     * Initializes the EdgeLine with the given dashScale.
+     * Invalidates the EdgeLine if the owners of its rails changed since it was
+     * last rendered.
+     */
+    public void updateRails() {
+        if (!sortedRailOwners().equals(strokeOwners)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Sets whether the EdgeLine is drawn simplified, with rails in the color of a
+     * single owner and without dashes. Used when the map is zoomed out.
      *
-     * @param dashScale factor to scale the dash length by
+     * @param simplified whether to draw the EdgeLine simplified
      */
-    public void init(final double dashScale) {
-        this.distance = new Point2D(getStartX(), getStartY()).distance(getEndX(), getEndY());
-        if (edge.hasRail()) {
-            final List<Player> railOwners = edge.getRailOwners().stream()
-                    .sorted((p1, p2) -> Integer.compare(p1.getID(), p2.getID())).toList();
-            double offset = 1.0 / railOwners.size();
-            List<Stop> stops = new ArrayList<>();
-            for (int i = 0; i < railOwners.size(); i++) {
-                final Player player = railOwners.get(i);
-                stops.addAll(
-                        List.of(new Stop(i * offset, player.getColor()),
-                                new Stop((i + 1) * offset - 0.02, player.getColor())));
-                if (i < railOwners.size() - 1) {
-                    stops.addAll(List.of(new Stop((i + 1) * offset - 0.02, Color.BLACK),
-                            new Stop((i + 1) * offset, Color.BLACK)));
-                }
-            }
+    public void setSimplified(final boolean simplified) {
+        if (this.simplified == simplified) {
+            return;
+        }
+        this.simplified = simplified;
+        invalidate();
+    }
+
+    /**
+     * Queues the EdgeLine to be rendered before the next pulse.
+     */
+    private void invalidate() {
+        RENDER_QUEUE.invalidate(this);
+    }
 
-            LinearGradient lg1 = new LinearGradient(
-                    getStartX(), getStartY(), getEndX(), getEndY(),
-                    false,
-                    CycleMethod.NO_CYCLE, stops);
-            setStroke(lg1);
+    /**
+     * Applies the rails and the requested highlight to the EdgeLine and its
+     * outline.
+     */
+    private void render() {
+        final List<Player> railOwners = sortedRailOwners();
+        if (!railOwners.equals(strokeOwners) || simplified != strokeSimplified) {
+            updateStroke(railOwners);
+        }
+        final boolean selectable = isSelectable();
+        if (selectable) {
+            outline.setStroke(Color.GRAY);
         } else {
+            outline.setStroke(edge.hasRail() ? Color.BLACK : Color.TRANSPARENT);
+        }
+        outline.setStrokeWidth(strokeWidth * (highlightState == HighlightState.NONE ? 1.4 : 2));
+        switch (highlightState) {
+            case NONE -> outline.getStyleClass().clear();
+            case HIGHLIGHTED -> outline.getStyleClass().setAll("selected");
+            case SELECTABLE -> outline.getStyleClass().setAll("selectable");
+            case SELECTED -> outline.getStyleClass().setAll("selectable", "selected");
+        }
+        outline.setMouseTransparent(!selectable);
+        updateDashes(selectable ? 0.1 : 1, selectable ? 10 : 0);
+        changeListener.run();
+    }
+
+    /**
+     * Returns the owners of the rail on the edge, ordered by their id.
+     *
+     * @return the rail owners
+     */
+    private List<Player> sortedRailOwners() {
+        if (!edge.hasRail()) {
+            return List.of();
+        }
+        return edge.getRailOwners().stream()
+                .sorted((p1, p2) -> Integer.compare(p1.getID(), p2.getID())).toList();
+    }
+
+    /**
+     * Sets the stroke to the colors of the given rail owners.
+     *
+     * @param railOwners the owners of the rail, ordered by their id
+     */
+    private void updateStroke(final List<Player> railOwners) {
+        strokeOwners = railOwners;
+        strokeSimplified = simplified;
+        if (railOwners.isEmpty()) {
             setStroke(Color.TRANSPARENT);
+            return;
         }
-        setStrokeWidth(strokeWidth);
-        setStrokeDashOffset(-positionOffset / 2);
-        getStrokeDashArray().clear();
-        getStrokeDashArray().add((distance - positionOffset) * dashScale);
-        if (edge.hasRail()) {
-            outline.setStroke(Color.BLACK);
+        if (simplified) {
+            setStroke(railOwners.get(0).getColor());
+            return;
+        }
+        double offset = 1.0 / railOwners.size();
+        List<Stop> stops = new ArrayList<>();
+        for (int i = 0; i < railOwners.size(); i++) {
+            final Player player = railOwners.get(i);
+            stops.addAll(
+                    List.of(new Stop(i * offset, player.getColor()),
+                            new Stop((i + 1) * offset - 0.02, player.getColor())));
+            if (i < railOwners.size() - 1) {
+                stops.addAll(List.of(new Stop((i + 1) * offset - 0.02, Color.BLACK),
+                        new Stop((i + 1) * offset, Color.BLACK)));
+            }
+        }
+
+        LinearGradient lg1 = new LinearGradient(
+                getStartX(), getStartY(), getEndX(), getEndY(),
+                false,
+                CycleMethod.NO_CYCLE, stops);
+        setStroke(lg1);
+    }
+
+    /**
+     * Sets the dashes of the EdgeLine and its outline, none if it is simplified.
+     *
+     * @param dashScale factor to scale the dash length by
+     * @param dashGap   the gap between two dashes, none if 0
+     */
+    private void updateDashes(final double dashScale, final double dashGap) {
+        if (simplified) {
+            getStrokeDashArray().clear();
+            return;
+        }
+        final List<Double> dashes = dashGap > 0
+                ? List.of((distance - positionOffset) * dashScale, dashGap)
+                : List.of((distance - positionOffset) * dashScale);
+        if (!getStrokeDashArray().equals(dashes)) {
+            getStrokeDashArray().setAll(dashes);
         }
     }
 
@@ -125,11 +253,15 @@ public class EdgeLine extends Line {
      * @param text the text to set the label to
      */
     public void setLabel(final String text) {
+        if (label.isVisible() && label.getText().equals(text)) {
+            return;
+        }
         label.setVisible(true);
         label.setText(text);
-        label.setLayoutX(((getStartX() + getEndX()) / 2) - label.getWidth() / 2);
-        label.setLayoutY(((getStartY() + getEndY()) / 2) - label.getHeight() / 2);
+        label.setLayoutX((getStartX() + getEndX()) / 2);
+        label.setLayoutY((getStartY() + getEndY()) / 2);
         label.toFront();
+        changeListener.run();
     }
 
     /**
@@ -156,16 +288,35 @@ public class EdgeLine extends Line {
      * Hides the label of the EdgeLine.
      */
     public void hideLabel() {
+        if (!label.isVisible()) {
+            return;
+        }
         label.setVisible(false);
+        changeListener.run();
+    }
+
+    /**
+     * Requests the given highlight and invalidates the EdgeLine if it differs
+     * from the current one.
+     *
+     * @param state   the highlight to show
+     * @param handler the handler to call when the EdgeLine is clicked, null if it
+     *                cannot be clicked
+     */
+    private void setHighlight(final HighlightState state, final Consumer<MouseEvent> handler) {
+        if (highlightState == state && clickHandler == handler) {
+            return;
+        }
+        highlightState = state;
+        clickHandler = handler;
+        invalidate();
     }
 
     /**
      * Highlights the EdgeLine without a click handler.
      */
     public void highlight() {
-        init();
-        outline.getStyleClass().add("selected");
-        outline.setStrokeWidth(strokeWidth * 2);
+        setHighlight(HighlightState.HIGHLIGHTED, null);
     }
 
     /**
@@ -174,39 +325,89 @@ public class EdgeLine extends Line {
      * @param handler the handler to call when the EdgeLine is clicked
      */
     public void highlight(final Consumer<MouseEvent> handler) {
-        init(0.1);
-        outline.setStroke(Color.GRAY);
-        outline.setStrokeWidth(strokeWidth * 2);
-        outline.getStyleClass().add("selectable");
-        getStrokeDashArray().add(10.0);
-        // setStrokeWidth(strokeWidth * 1.2);
-        outline.setOnMouseClicked(handler::accept);
-        outline.setMouseTransparent(false);
+        setHighlight(HighlightState.SELECTABLE, handler);
     }
 
     /**
      * Highlights the EdgeLine and sets a handler to deselect it.
      * The EdgeLine gets a different style class to indicate that it is selected.
+     * Clicking it highlights it as selectable again before calling the handler.
      *
      * @param deselectHandler the handler to call when the EdgeLine is deselected
      */
     public void selected(final Consumer<MouseEvent> deselectHandler) {
-        highlight(event -> {
-            outline.getStyleClass().remove("selected");
-            deselectHandler.accept(event);
-        });
-        outline.getStyleClass().add("selected");
+        setHighlight(HighlightState.SELECTED, deselectHandler);
     }
 
     /**
-     * Removes the highlight from the EdgeLine.
+     * Removes the highlight from the EdgeLine. Does nothing if it is not
+     * highlighted.
      */
     public void unhighlight() {
-        outline.setStroke(Color.TRANSPARENT);
-        outline.setStrokeWidth(strokeWidth * 1.4);
-        outline.setOnMouseClicked(null);
-        outline.getStyleClass().clear();
-        init();
-        outline.setMouseTransparent(true);
+        setHighlight(HighlightState.NONE, null);
+    }
+
+    /**
+     * Calls the click handler, leaving the selected state first if the EdgeLine
+     * is selected.
+     *
+     * @param event the click event
+     */
+    private void handleClick(final MouseEvent event) {
+        final Consumer<MouseEvent> handler = clickHandler;
+        if (handler == null) {
+            return;
+        }
+        if (highlightState == HighlightState.SELECTED) {
+            setHighlight(HighlightState.SELECTABLE, handler);
+        }
+        handler.accept(event);
+    }
+
+    /**
+     * Returns whether the EdgeLine is highlighted with a click handler.
+     *
+     * @return true if the EdgeLine can be clicked, false otherwise
+     */
+    public boolean isSelectable() {
+        return clickHandler != null;
+    }
+
+    /**
+     * Returns whether the EdgeLine is highlighted as selected.
+     *
+     * @return true if the EdgeLine is selected, false otherwise
+     */
+    public boolean isSelected() {
+        return highlightState == HighlightState.HIGHLIGHTED || highlightState == HighlightState.SELECTED;
+    }
+
+    /**
+     * Returns the text of the label if it is shown.
+     *
+     * @return the text of the label or null if no label is shown
+     */
+    public String getLabelText() {
+        return label.isVisible() && !label.getText().isEmpty() ? label.getText() : null;
+    }
+
+    /**
+     * Calls the click handler of the EdgeLine, if there is one.
+     *
+     * @param event the event to pass to the handler
+     */
+    public void fireMouseClicked(final MouseEvent event) {
+        handleClick(event);
+    }
+
+    /**
+     * Sets the listener that is called whenever the rails, the highlight or the
+     * label of the EdgeLine were rendered. Used by renderers that draw the
+     * EdgeLine without adding it to the scene.
+     *
+     * @param listener the listener to call
+     */
+    public void setChangeListener(final Runnable listener) {
+        changeListener = listener;
     }
 }
@@ -30,6 +30,8 @@ public class GameBoardBuilder implements Builder<Region> {
     private Region confirmationOverlay;
     private Pane confirmationOverlayContainer;
     private HBox bottomCenterContainer;
+    private Region diagnosticsOverlay;
+    private Consumer<ActionEvent> saveMapAction;
 
     /**
      * Creates a new game board builder.
@@ -66,11 +68,18 @@ public class GameBoardBuilder implements Builder<Region> {
         // Debug Button
         Button endScreenButton = new Button("Stop Game");
         endScreenButton.setOnAction(endButtonAction::accept);
-        endScreenButton.getStylesheets().add(getClass().getResource("/css/setupgamemenu.css").toExternalForm());
+        endScreenButton.getStylesheets().add(ResourceCache.getStylesheet("/css/setupgamemenu.css"));
         endScreenButton.getStyleClass().add("button");
 
         // Wrap the button in a VBox for padding and alignment
-        VBox topRightContainer = new VBox(endScreenButton);
+        VBox topRightContainer = new VBox(10, endScreenButton);
+        if (saveMapAction != null) {
+            Button saveMapButton = new Button("Save Map");
+            saveMapButton.setOnAction(saveMapAction::accept);
+            saveMapButton.getStylesheets().add(ResourceCache.getStylesheet("/css/setupgamemenu.css"));
+            saveMapButton.getStyleClass().add("button");
+            topRightContainer.getChildren().add(saveMapButton);
+        }
         topRightContainer.setPadding(new Insets(10));
         topRightContainer.setAlignment(Pos.TOP_RIGHT); // Ensure alignment within the VBox
         topRightContainer.setMaxWidth(Region.USE_PREF_SIZE); // Prevent stretching
@@ -122,6 +131,16 @@ public class GameBoardBuilder implements Builder<Region> {
         StackPane.setAlignment(spinCityOverlay, Pos.BOTTOM_RIGHT);
         StackPane.setAlignment(bottomCenterContainer, Pos.BOTTOM_CENTER); // Change to BOTTOM_CENTER
 
+        if (diagnosticsOverlay != null) {
+            VBox diagnosticsOverlayContainer = new VBox(diagnosticsOverlay);
+            diagnosticsOverlayContainer.setPadding(new Insets(10));
+            diagnosticsOverlayContainer.setMaxHeight(Region.USE_PREF_SIZE);
+            diagnosticsOverlayContainer.setMaxWidth(Region.USE_PREF_SIZE);
+            diagnosticsOverlayContainer.setMouseTransparent(true);
+            root.getChildren().add(diagnosticsOverlayContainer);
+            StackPane.setAlignment(diagnosticsOverlayContainer, Pos.BOTTOM_LEFT);
+        }
+
         // Allow the map to process mouse events when overlays don't consume them
         makeOverlayTransparentForMouseEvents(playerOverlayContainer);
         makeOverlayTransparentForMouseEvents(cityOverlayContainer);
@@ -145,6 +164,27 @@ public class GameBoardBuilder implements Builder<Region> {
         node.setPickOnBounds(false); // Ensures only visible parts react to mouse events
     }
 
+    /**
+     * Sets the overlay for performance diagnostics, it is shown in the bottom left
+     * corner if it is set before the game board is built.
+     *
+     * @param diagnosticsOverlay the overlay for performance diagnostics
+     */
+    public void setDiagnosticsOverlay(final Region diagnosticsOverlay) {
+        this.diagnosticsOverlay = diagnosticsOverlay;
+    }
+
+    /**
+     * Sets the action of the save map button, the button is shown below the end
+     * button if the action is set before the game board is built.
+     *
+     * @param saveMapAction the action to execute when the save map button is
+     *                      pressed
+     */
+    public void setSaveMapAction(final Consumer<ActionEvent> saveMapAction) {
+        this.saveMapAction = saveMapAction;
+    }
+
     /**
      * Adds the confirmation overlay to the bottom center of the screen.
      */
@@ -1,5 +1,11 @@
 package hProjekt.view;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -11,24 +17,43 @@ import hProjekt.model.City;
 import hProjekt.model.HexGrid;
 import hProjekt.model.Tile;
 import hProjekt.model.TilePosition;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.event.Event;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
+import javafx.scene.transform.Scale;
 import javafx.util.Builder;
+import javafx.util.Subscription;
 
 /**
  * The builder for the {@link HexGrid}.
  * It creates a pane with the hex grid and handles the placement of the tiles
  * and edges.
  * The hex grid pane can be zoomed, panned and centered.
+ * Only the tiles, edges and cities inside the viewport are part of the scene,
+ * and the {@link DetailLevel} follows the zoom. The nodes are sorted into
+ * buckets of {@link #BUCKET_TILES} by {@link #BUCKET_TILES} tiles, so moving
+ * the viewport only visits the nodes of the buckets that enter or leave it.
+ * <p>
+ * The map is laid out once for the tile size at creation. Later changes of the
+ * tile size only update a single {@link Scale} on the hex grid pane, so no node
+ * of the map has to be moved or resized. The detail level follows the
+ * combined scale of the zoom and the tile size, see {@link #getMapScale()}.
  */
 public class HexGridBuilder implements Builder<Region> {
+    private static final int BUCKET_TILES = 4;
+
     private final HexGrid grid;
     private final BiConsumer<ScrollEvent, Region> scrollHandler;
     private final Consumer<MouseEvent> pressedHandler;
@@ -39,8 +64,27 @@ public class HexGridBuilder implements Builder<Region> {
     private final Set<EdgeLine> edgeLines;
     private final Set<TileBuilder> tileBuilders;
     private final Set<CityBuilder> cityBuilders;
+    private final double layoutTileSize;
+    private final double layoutTileWidth;
+    private final double layoutTileHeight;
 
     private final Pane hexGridPane = new Pane();
+    private final Scale tileScale = new Scale(1, 1);
+    private final Group tileLayer = new Group();
+    private final Group outlineLayer = new Group();
+    private final Group railLayer = new Group();
+    private final Group labelLayer = new Group();
+    private final Group cityLayer = new Group();
+    private final Map<Node, Group> culledNodes = new LinkedHashMap<>();
+    private final Map<Node, BucketRange> culledBuckets = new HashMap<>();
+    private final Map<Long, List<Node>> buckets = new HashMap<>();
+    private final Set<Node> shownNodes = new HashSet<>();
+    private BucketRange allBuckets;
+    private BucketRange shownBuckets;
+    private Subscription tileSizeSubscription = Subscription.EMPTY;
+    private Subscription viewportSubscription = Subscription.EMPTY;
+    private DetailLevel detailLevel = DetailLevel.FULL;
+    private boolean viewportUpdateScheduled = false;
 
     /**
      * Creates a new hex grid builder with the given hex grid, intersection
@@ -73,6 +117,9 @@ public class HexGridBuilder implements Builder<Region> {
         this.pressedHandler = pressedHandler;
         this.draggedHandler = draggedHandler;
         this.centerButtonHandler = centerButtonHandler;
+        this.layoutTileSize = grid.getTileSize();
+        this.layoutTileWidth = grid.getTileWidth();
+        this.layoutTileHeight = grid.getTileHeight();
 
         final BiFunction<ToIntFunction<TilePosition>, IntBinaryOperator, Integer> reduceTiles = (
                 positionFunction,
@@ -95,24 +142,23 @@ public class HexGridBuilder implements Builder<Region> {
     public Region build() {
         hexGridPane.getChildren().clear();
 
-        hexGridPane.getChildren().addAll(tileBuilders.stream().map(this::placeTile).toList());
-
-        hexGridPane.maxWidthProperty().bind(Bindings
-                .createDoubleBinding(
-                        () -> Math.abs(minPoint.getX()) + maxPoint.getX() + grid.getTileWidth(),
-                        grid.tileSizeProperty()));
-        hexGridPane.maxHeightProperty().bind(Bindings
-                .createDoubleBinding(
-                        () -> Math.abs(minPoint.getY()) + maxPoint.getX() + grid.getTileHeight(),
-                        grid.tileSizeProperty()));
-        hexGridPane.minWidthProperty().bind(hexGridPane.maxWidthProperty());
-        hexGridPane.minHeightProperty().bind(hexGridPane.maxHeightProperty());
-
-        edgeLines.forEach(this::placeEdge);
-        hexGridPane.getChildren().addAll(cityBuilders.stream().map(this::placeCity).toList());
+        final double width = Math.abs(minPoint.getX()) + maxPoint.getX() + layoutTileWidth;
+        final double height = Math.abs(minPoint.getY()) + maxPoint.getX() + layoutTileHeight;
+        hexGridPane.setMinSize(width, height);
+        hexGridPane.setMaxSize(width, height);
+        tileScale.setPivotX(width / 2);
+        tileScale.setPivotY(height / 2);
+        hexGridPane.getTransforms().setAll(tileScale);
+        // a rebuilt map replaces the subscriptions of the previous one
+        tileSizeSubscription.unsubscribe();
+        tileSizeSubscription = grid.tileSizeProperty().subscribe(size -> {
+            tileScale.setX(size.doubleValue() / layoutTileSize);
+            tileScale.setY(size.doubleValue() / layoutTileSize);
+        });
 
         final StackPane mapPane = new StackPane(hexGridPane);
-        mapPane.getStylesheets().add("css/hexmap.css");
+        placeMap(mapPane);
+        mapPane.getStylesheets().add(ResourceCache.getStylesheet("/css/hexmap.css"));
         mapPane.getStyleClass().add("hex-grid");
         mapPane.setOnScroll(event -> scrollHandler.accept(event, hexGridPane));
         mapPane.setOnMousePressed(pressedHandler::accept);
@@ -134,6 +180,227 @@ public class HexGridBuilder implements Builder<Region> {
         return mapPane;
     }
 
+    /**
+     * Places the tiles, edges and cities on the hex grid.
+     *
+     * @param mapPane the pane containing the hex grid pane
+     */
+    protected void placeMap(final StackPane mapPane) {
+        culledNodes.clear();
+        culledBuckets.clear();
+        buckets.clear();
+        shownNodes.clear();
+        allBuckets = null;
+        shownBuckets = null;
+        for (Group layer : List.of(tileLayer, outlineLayer, railLayer, labelLayer, cityLayer)) {
+            layer.getChildren().clear();
+        }
+        hexGridPane.getChildren().addAll(tileLayer, outlineLayer, railLayer, labelLayer, cityLayer);
+
+        tileBuilders.forEach(this::placeTile);
+        edgeLines.forEach(this::placeEdge);
+        cityBuilders.forEach(this::placeCity);
+
+        viewportSubscription.unsubscribe();
+        viewportSubscription = hexGridPane.localToSceneTransformProperty().subscribe(this::scheduleViewportUpdate)
+                .and(mapPane.layoutBoundsProperty().subscribe(this::scheduleViewportUpdate));
+        scheduleViewportUpdate();
+    }
+
+    /**
+     * Adds a node that is only part of the scene while it is inside the viewport.
+     *
+     * @param node   The node.
+     * @param layer  The layer to add the node to.
+     * @param extent The region covered by the node.
+     */
+    private void addCulled(final Node node, final Group layer, final Bounds extent) {
+        final BucketRange range = bucketRange(extent);
+        culledNodes.put(node, layer);
+        culledBuckets.put(node, range);
+        for (int x = range.minX(); x <= range.maxX(); x++) {
+            for (int y = range.minY(); y <= range.maxY(); y++) {
+                buckets.computeIfAbsent(bucketKey(x, y), key -> new ArrayList<>()).add(node);
+            }
+        }
+        allBuckets = allBuckets == null ? range : allBuckets.union(range);
+    }
+
+    /**
+     * Returns the buckets covered by the given region.
+     *
+     * @param region The region in layout coordinates.
+     * @return The buckets covered by the region.
+     */
+    private BucketRange bucketRange(final Bounds region) {
+        final double bucketWidth = BUCKET_TILES * layoutTileWidth;
+        final double bucketHeight = BUCKET_TILES * layoutTileHeight;
+        return new BucketRange((int) Math.floor(region.getMinX() / bucketWidth),
+                (int) Math.floor(region.getMinY() / bucketHeight), (int) Math.floor(region.getMaxX() / bucketWidth),
+                (int) Math.floor(region.getMaxY() / bucketHeight));
+    }
+
+    /**
+     * Returns the key of the bucket in the given column and row.
+     *
+     * @param x The column of the bucket.
+     * @param y The row of the bucket.
+     * @return The key of the bucket.
+     */
+    private static long bucketKey(final int x, final int y) {
+        return (long) x << 32 | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Schedules an update of the nodes in the viewport and of the detail level
+     * unless one is already scheduled.
+     */
+    private void scheduleViewportUpdate() {
+        if (!viewportUpdateScheduled) {
+            viewportUpdateScheduled = true;
+            Platform.runLater(this::updateViewport);
+        }
+    }
+
+    /**
+     * Adds the nodes that entered the viewport to the scene, removes the ones that
+     * left it and applies the detail level of the current zoom.
+     */
+    private void updateViewport() {
+        viewportUpdateScheduled = false;
+        final DetailLevel level = DetailLevel.forScale(getMapScale());
+        if (level != detailLevel) {
+            detailLevel = level;
+            edgeLines.forEach(edgeLine -> edgeLine.setSimplified(level != DetailLevel.FULL));
+            cityBuilders.forEach(builder -> builder.setLabelVisible(level != DetailLevel.MINIMAL));
+        }
+
+        if (allBuckets == null) {
+            return;
+        }
+        final Bounds visible = visibleRegion();
+        final BucketRange visibleBuckets = visible == null ? allBuckets
+                : bucketRange(visible).intersection(allBuckets);
+        if (visibleBuckets != null && visibleBuckets.equals(shownBuckets)) {
+            return;
+        }
+        final Map<Group, List<Node>> added = new HashMap<>();
+        final Map<Group, Set<Node>> removed = new HashMap<>();
+        forEachBucketOutside(visibleBuckets, shownBuckets, node -> {
+            if (shownNodes.add(node)) {
+                added.computeIfAbsent(culledNodes.get(node), group -> new ArrayList<>()).add(node);
+            }
+        });
+        forEachBucketOutside(shownBuckets, visibleBuckets, node -> {
+            // nodes covering several buckets stay while one of them is visible
+            if ((visibleBuckets == null || !culledBuckets.get(node).intersects(visibleBuckets))
+                    && shownNodes.remove(node)) {
+                removed.computeIfAbsent(culledNodes.get(node), group -> new HashSet<>()).add(node);
+            }
+        });
+        shownBuckets = visibleBuckets;
+        removed.forEach((layer, nodes) -> layer.getChildren().removeAll(nodes));
+        added.forEach((layer, nodes) -> layer.getChildren().addAll(nodes));
+    }
+
+    /**
+     * Passes the nodes of the buckets in the given range but outside the excluded
+     * range to the given action. Nodes covering several of these buckets are
+     * passed once per bucket.
+     *
+     * @param range    The buckets to visit or null for none.
+     * @param excluded The buckets to skip or null for none.
+     * @param action   The action to apply to the nodes.
+     */
+    private void forEachBucketOutside(final BucketRange range, final BucketRange excluded,
+            final Consumer<Node> action) {
+        if (range == null) {
+            return;
+        }
+        for (int x = range.minX(); x <= range.maxX(); x++) {
+            for (int y = range.minY(); y <= range.maxY(); y++) {
+                if (excluded == null || !excluded.contains(x, y)) {
+                    buckets.getOrDefault(bucketKey(x, y), List.of()).forEach(action);
+                }
+            }
+        }
+    }
+
+    /**
+     * A rectangle of buckets, including its bounds.
+     *
+     * @param minX The first column.
+     * @param minY The first row.
+     * @param maxX The last column.
+     * @param maxY The last row.
+     */
+    private record BucketRange(int minX, int minY, int maxX, int maxY) {
+
+        /**
+         * Returns whether the bucket in the given column and row is in this range.
+         *
+         * @param x The column of the bucket.
+         * @param y The row of the bucket.
+         * @return Whether the bucket is in this range.
+         */
+        private boolean contains(final int x, final int y) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+
+        /**
+         * Returns whether this range and the given range share a bucket.
+         *
+         * @param other The other range.
+         * @return Whether the ranges share a bucket.
+         */
+        private boolean intersects(final BucketRange other) {
+            return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+        }
+
+        /**
+         * Returns the buckets in both ranges.
+         *
+         * @param other The other range.
+         * @return The shared buckets or null if there are none.
+         */
+        private BucketRange intersection(final BucketRange other) {
+            return intersects(other) ? new BucketRange(Math.max(minX, other.minX), Math.max(minY, other.minY),
+                    Math.min(maxX, other.maxX), Math.min(maxY, other.maxY)) : null;
+        }
+
+        /**
+         * Returns the smallest range containing both ranges.
+         *
+         * @param other The other range.
+         * @return The union of the ranges.
+         */
+        private BucketRange union(final BucketRange other) {
+            return new BucketRange(Math.min(minX, other.minX), Math.min(minY, other.minY),
+                    Math.max(maxX, other.maxX), Math.max(maxY, other.maxY));
+        }
+    }
+
+    /**
+     * Returns the part of the hex grid pane inside the window, with a margin of one
+     * tile.
+     *
+     * @return The visible region in the coordinates of the hex grid pane or null
+     *         if the map is not shown yet.
+     */
+    private Bounds visibleRegion() {
+        final Scene scene = hexGridPane.getScene();
+        if (scene == null) {
+            return null;
+        }
+        final Bounds visible = hexGridPane.sceneToLocal(new BoundingBox(0, 0, scene.getWidth(), scene.getHeight()));
+        if (visible == null) {
+            return null;
+        }
+        final double margin = layoutTileWidth;
+        return new BoundingBox(visible.getMinX() - margin, visible.getMinY() - margin,
+                visible.getWidth() + 2 * margin, visible.getHeight() + 2 * margin);
+    }
+
     /**
      * Draws the tiles on the hex grid.
      */
@@ -145,25 +412,25 @@ public class HexGridBuilder implements Builder<Region> {
      * Places a tile on the hex grid.
      *
      * @param builder The tile builder.
-     * @return The region of the tile.
      */
-    private Region placeTile(final TileBuilder builder) {
+    private void placeTile(final TileBuilder builder) {
         final Region tileView = builder.build();
         final Tile tile = builder.getTile();
         final TilePosition position = tile.getPosition();
         final Point2D translatedPoint = calculatePositionTranslationOffset(position);
-        tileView.translateXProperty().bind(
-                Bindings.createDoubleBinding(() -> (translatedPoint.getX()), tile.widthProperty()));
-        tileView.translateYProperty().bind(
-                Bindings.createDoubleBinding(() -> translatedPoint.getY(), tile.heightProperty()));
-        return tileView;
+        builder.setSize(layoutTileWidth, layoutTileHeight);
+        tileView.setTranslateX(translatedPoint.getX());
+        tileView.setTranslateY(translatedPoint.getY());
+        addCulled(tileView, tileLayer, new BoundingBox(translatedPoint.getX(), translatedPoint.getY(),
+                layoutTileWidth, layoutTileHeight));
     }
 
     /**
-     * Draws the edges on the hex grid.
+     * Draws the edges on the hex grid. Only edges whose rails changed are drawn
+     * again.
      */
     public void drawEdges() {
-        edgeLines.forEach(EdgeLine::init);
+        edgeLines.forEach(EdgeLine::updateRails);
     }
 
     /**
@@ -179,8 +446,14 @@ public class HexGridBuilder implements Builder<Region> {
         edgeLine.setEndX(translatedEnd.getX());
         edgeLine.setEndY(translatedEnd.getY());
         edgeLine.init();
-        hexGridPane.getChildren().addAll(edgeLine.getOutline());
-        hexGridPane.getChildren().add(edgeLine);
+        final Bounds extent = new BoundingBox(
+                Math.min(translatedStart.getX(), translatedEnd.getX()),
+                Math.min(translatedStart.getY(), translatedEnd.getY()),
+                Math.abs(translatedStart.getX() - translatedEnd.getX()),
+                Math.abs(translatedStart.getY() - translatedEnd.getY()));
+        edgeLine.getOutline().forEach(
+                node -> addCulled(node, node == edgeLine.getLabel() ? labelLayer : outlineLayer, extent));
+        addCulled(edgeLine, railLayer, extent);
     }
 
     /**
@@ -194,33 +467,31 @@ public class HexGridBuilder implements Builder<Region> {
      * Places a city on the hex grid.
      *
      * @param builder The city builder.
-     * @return The region of the city.
      */
-    private Region placeCity(final CityBuilder builder) {
+    private void placeCity(final CityBuilder builder) {
         final Region cityView = builder.build();
         final City city = builder.getCity();
         final TilePosition position = city.getPosition();
         final Point2D translatedPoint = calculatePositionCenterOffset(position);
-        cityView.translateXProperty().bind(
-                Bindings.createDoubleBinding(() -> translatedPoint.getX() - cityView.getWidth() / 2,
-                        cityView.widthProperty()));
-        cityView.translateYProperty().bind(
-                Bindings.createDoubleBinding(
-                        () -> translatedPoint.getY() - builder.getMarkerHeight() / 2,
-                        cityView.heightProperty()));
-        return cityView;
+        // the city is centered once its own size is known, tile size changes don't affect it
+        cityView.widthProperty().subscribe(
+                width -> cityView.setTranslateX(translatedPoint.getX() - width.doubleValue() / 2));
+        cityView.heightProperty().subscribe(
+                height -> cityView.setTranslateY(translatedPoint.getY() - builder.getMarkerHeight() / 2));
+        addCulled(cityView, cityLayer, new BoundingBox(translatedPoint.getX() - layoutTileWidth,
+                translatedPoint.getY() - layoutTileHeight / 2, 2 * layoutTileWidth, layoutTileHeight));
     }
 
     /**
-     * Calculates the upper left corner of the tile region.
+     * Calculates the upper left corner of the tile region in layout coordinates.
      *
      * @param position The position of the tile.
      * @return The point of the upper left corner.
      */
     private Point2D calculatePositionTranslation(final TilePosition position) {
         return new Point2D(
-                grid.getTileSize() * (Math.sqrt(3) * position.q() + Math.sqrt(3) / 2 * position.r()),
-                grid.getTileSize() * (3.0 / 2 * position.r()));
+                layoutTileSize * (Math.sqrt(3) * position.q() + Math.sqrt(3) / 2 * position.r()),
+                layoutTileSize * (3.0 / 2 * position.r()));
     }
 
     /**
@@ -236,13 +507,24 @@ public class HexGridBuilder implements Builder<Region> {
 
     /**
      * Calculates the center of the tile region with an offset to move the
-     * coordinate system center to the center of the hex grid.
+     * coordinate system center to the center of the hex grid. The point is in the
+     * layout coordinates of the hex grid pane.
      *
      * @param position The position of the tile.
      * @return The point of the center.
      */
     public Point2D calculatePositionCenterOffset(final TilePosition position) {
-        return calculatePositionTranslationOffset(position).add(grid.getTileWidth() / 2, grid.getTileHeight() / 2);
+        return calculatePositionTranslationOffset(position).add(layoutTileWidth / 2, layoutTileHeight / 2);
+    }
+
+    /**
+     * Returns the scale the map is shown with, the zoom of the hex grid pane
+     * combined with the scale for the current tile size.
+     *
+     * @return The scale of the map.
+     */
+    public double getMapScale() {
+        return hexGridPane.getScaleX() * tileScale.getX();
     }
 
     /**
@@ -254,4 +536,68 @@ public class HexGridBuilder implements Builder<Region> {
         return hexGridPane;
     }
 
+    /**
+     * Returns the hex grid.
+     *
+     * @return The hex grid.
+     */
+    protected HexGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the tile size the map is laid out for. The hex grid pane is scaled
+     * to the current tile size.
+     *
+     * @return The tile size in layout coordinates.
+     */
+    protected double getLayoutTileSize() {
+        return layoutTileSize;
+    }
+
+    /**
+     * Returns the width of a tile in layout coordinates.
+     *
+     * @return The tile width in layout coordinates.
+     */
+    protected double getLayoutTileWidth() {
+        return layoutTileWidth;
+    }
+
+    /**
+     * Returns the height of a tile in layout coordinates.
+     *
+     * @return The tile height in layout coordinates.
+     */
+    protected double getLayoutTileHeight() {
+        return layoutTileHeight;
+    }
+
+    /**
+     * Returns the tile builders.
+     *
+     * @return The tile builders.
+     */
+    protected Set<TileBuilder> getTileBuilders() {
+        return tileBuilders;
+    }
+
+    /**
+     * Returns the edge lines.
+     *
+     * @return The edge lines.
+     */
+    protected Set<EdgeLine> getEdgeLines() {
+        return edgeLines;
+    }
+
+    /**
+     * Returns the city builders.
+     *
+     * @return The city builders.
+     */
+    protected Set<CityBuilder> getCityBuilders() {
+        return cityBuilders;
+    }
+
 }
@@ -0,0 +1,84 @@
+package hProjekt.view;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+
+/**
+ * Collects elements whose rendered state is out of date and renders each of
+ * them once before the next pulse.
+ * <p>
+ * Invalidating an element that is already waiting to be rendered costs
+ * nothing, so many state changes between two pulses result in a single render
+ * per element and only the invalidated elements are touched.
+ *
+ * @param <T> the type of the elements
+ */
+public class RenderQueue<T> {
+    private final Consumer<T> renderer;
+    private final Set<T> dirty = new LinkedHashSet<>();
+    private boolean flushScheduled = false;
+
+    /**
+     * Creates a new render queue.
+     *
+     * @param renderer renders a single element, is called on the JavaFX
+     *                 application thread
+     */
+    public RenderQueue(final Consumer<T> renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Marks the given element as out of date and schedules a flush if none is
+     * pending.
+     *
+     * @param element the element to render again
+     */
+    public void invalidate(final T element) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> invalidate(element));
+            return;
+        }
+        if (dirty.add(element) && !flushScheduled) {
+            flushScheduled = true;
+            Platform.runLater(this::flush);
+        }
+    }
+
+    /**
+     * Removes the given element from the queue, used when it was rendered
+     * directly.
+     *
+     * @param element the element that is up to date
+     */
+    public void remove(final T element) {
+        dirty.remove(element);
+    }
+
+    /**
+     * Renders all invalidated elements. Elements invalidated while rendering are
+     * rendered in the same flush.
+     */
+    public void flush() {
+        flushScheduled = false;
+        while (!dirty.isEmpty()) {
+            final List<T> elements = new ArrayList<>(dirty);
+            dirty.clear();
+            elements.forEach(renderer);
+        }
+    }
+
+    /**
+     * Returns the number of elements waiting to be rendered.
+     *
+     * @return the number of invalidated elements
+     */
+    public int size() {
+        return dirty.size();
+    }
+}
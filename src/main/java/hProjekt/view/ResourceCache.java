@@ -0,0 +1,146 @@
+package hProjekt.view;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.scene.image.Image;
+import javafx.scene.text.Font;
+
+/**
+ * The shared cache of the images, fonts and stylesheets of the game.
+ * <p>
+ * Every resource is loaded at most once per process and then shared by all
+ * scenes. Loading happens on virtual threads, so {@link #preload()} can decode
+ * everything in the background while the main menu is shown and later scenes
+ * only wait for resources that are not loaded yet.
+ */
+public final class ResourceCache {
+    /**
+     * The images loaded by {@link #preload()}.
+     */
+    private static final List<String> PRELOADED_IMAGES = List.of("/images/stage-icon.png",
+            "/images/dampfross_logo_white.png", "/images/train.png", "/images/trash.png",
+            "/images/dice/dice1.png", "/images/dice/dice2.png", "/images/dice/dice3.png", "/images/dice/dice4.png",
+            "/images/dice/dice5.png", "/images/dice/dice6.png", "/images/gold_medal.png",
+            "/images/silver_medal.png", "/images/bronze_medal.png");
+
+    /**
+     * The fonts loaded by {@link #preload()}.
+     */
+    private static final List<String> PRELOADED_FONTS = List.of("/fonts/Roboto-Merged-Icons.ttf",
+            "/fonts/Roboto-Merged-Icons-Black.ttf");
+
+    private static final ExecutorService LOADER = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("resource-loader-", 0).factory());
+    private static final Map<String, CompletableFuture<Image>> IMAGES = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Font>> FONTS = new ConcurrentHashMap<>();
+    private static final Map<String, String> STYLESHEETS = new ConcurrentHashMap<>();
+
+    /**
+     * This class only has static members.
+     */
+    private ResourceCache() {
+    }
+
+    /**
+     * Starts loading all images and fonts of the game in the background and
+     * returns immediately.
+     */
+    public static void preload() {
+        PRELOADED_IMAGES.forEach(ResourceCache::getImageAsync);
+        PRELOADED_FONTS.forEach(ResourceCache::getFontAsync);
+    }
+
+    /**
+     * Returns the image with the given resource path, waiting for it to be
+     * decoded if it is not loaded yet.
+     *
+     * @param path the absolute resource path of the image
+     * @return the image
+     */
+    public static Image getImage(final String path) {
+        return getImageAsync(path).join();
+    }
+
+    /**
+     * Returns the image with the given resource path once it is decoded.
+     *
+     * @param path the absolute resource path of the image
+     * @return a future completed with the image
+     */
+    public static CompletableFuture<Image> getImageAsync(final String path) {
+        return IMAGES.computeIfAbsent(path,
+                p -> CompletableFuture.supplyAsync(() -> new Image(getResource(p).toExternalForm()), LOADER));
+    }
+
+    /**
+     * Loads the font with the given resource path, so its family can be used by
+     * name, waiting for it if it is not loaded yet.
+     *
+     * @param path the absolute resource path of the font
+     * @return the font in the default size or null if it couldn't be loaded
+     */
+    public static Font getFont(final String path) {
+        return getFontAsync(path).join();
+    }
+
+    /**
+     * Loads the font with the given resource path in the background.
+     *
+     * @param path the absolute resource path of the font
+     * @return a future completed with the font in the default size or null if it
+     *         couldn't be loaded
+     */
+    public static CompletableFuture<Font> getFontAsync(final String path) {
+        return FONTS.computeIfAbsent(path, p -> CompletableFuture.supplyAsync(() -> loadFont(p), LOADER));
+    }
+
+    /**
+     * Returns the URL of the stylesheet with the given resource path, as expected
+     * by {@link javafx.scene.Parent#getStylesheets()}.
+     *
+     * @param path the absolute resource path of the stylesheet
+     * @return the URL of the stylesheet
+     */
+    public static String getStylesheet(final String path) {
+        return STYLESHEETS.computeIfAbsent(path, p -> getResource(p).toExternalForm());
+    }
+
+    /**
+     * Loads the font with the given resource path.
+     *
+     * @param path the absolute resource path of the font
+     * @return the font in the default size or null if it couldn't be loaded
+     */
+    private static Font loadFont(final String path) {
+        try (InputStream in = getResource(path).openStream()) {
+            return Font.loadFont(in, Font.getDefault().getSize());
+        } catch (IOException e) {
+            System.out.println("Couldn't load font " + path + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the URL of the given resource.
+     *
+     * @param path the absolute resource path
+     * @return the URL of the resource
+     * @throws IllegalArgumentException if there is no such resource
+     */
+    private static URL getResource(final String path) {
+        final URL url = ResourceCache.class.getResource(path);
+        if (url == null) {
+            throw new IllegalArgumentException("Resource not found: " + path);
+        }
+        return url;
+    }
+}
@@ -22,6 +22,9 @@ public class TileBuilder implements Builder<Region> {
     private final Tile tile;
     private final StackPane pane = new StackPane();
     private boolean hasMouseClickedHandler = false;
+    private boolean highlighted = false;
+    private Runnable changeListener = () -> {
+    };
 
     /**
      * Creates a new TileBuilder for the given {@link Tile}.
@@ -30,7 +33,7 @@ public class TileBuilder implements Builder<Region> {
      */
     public TileBuilder(final Tile tile) {
         this.tile = tile;
-        styleAndSizeTile(pane);
+        styleTile(pane);
     }
 
     /**
@@ -61,20 +64,28 @@ public class TileBuilder implements Builder<Region> {
     }
 
     /**
-     * Styles and resizes the tile so it is rendered as a hexagon via CSS.
+     * Styles the tile so it is rendered as a hexagon via CSS. The stylesheet is
+     * inherited from the map.
      *
      * @param stackPane the pane to style
      */
-    private void styleAndSizeTile(final StackPane stackPane) {
-        stackPane.getStylesheets().add("css/hexmap.css");
+    private void styleTile(final StackPane stackPane) {
         stackPane.getStyleClass().add("hex-tile");
-        stackPane.maxHeightProperty().bind(tile.heightProperty());
-        stackPane.maxWidthProperty().bind(tile.widthProperty());
-        stackPane.minHeightProperty().bind(tile.heightProperty());
-        stackPane.minWidthProperty().bind(tile.widthProperty());
         stackPane.setBackground(Background.fill(tile.getType().color));
     }
 
+    /**
+     * Sets the size of the tile. The map scales all tiles together when the tile
+     * size changes, so this is only set once when the tile is placed.
+     *
+     * @param width  the width of the tile
+     * @param height the height of the tile
+     */
+    public void setSize(final double width, final double height) {
+        pane.setMinSize(width, height);
+        pane.setMaxSize(width, height);
+    }
+
     /**
      * Creates a label displaying the tile's position in the format (q, r, s).
      *
@@ -107,6 +118,8 @@ public class TileBuilder implements Builder<Region> {
     public void highlight(final Runnable handler) {
         pane.getStyleClass().addAll("selectable");
         setMouseClickedHandler(e -> handler.run());
+        highlighted = true;
+        changeListener.run();
     }
 
     /**
@@ -115,6 +128,27 @@ public class TileBuilder implements Builder<Region> {
     public void unhighlight() {
         pane.getStyleClass().removeAll("selectable");
         removeMouseClickedHandler();
+        highlighted = false;
+        changeListener.run();
+    }
+
+    /**
+     * Returns whether the tile is highlighted.
+     *
+     * @return true if the tile is highlighted, false otherwise
+     */
+    public boolean isHighlighted() {
+        return highlighted;
+    }
+
+    /**
+     * Sets the listener that is called whenever the highlight of the tile changes.
+     * Used by renderers that draw the tile without adding its pane to the scene.
+     *
+     * @param listener the listener to call
+     */
+    public void setChangeListener(final Runnable listener) {
+        changeListener = listener;
     }
 
     /**
@@ -151,6 +185,28 @@ public class TileBuilder implements Builder<Region> {
         pane.setOnMouseClicked(null);
     }
 
+    /**
+     * Calls the handler for when the mouse enters the tile, if there is one.
+     *
+     * @param event the event to pass to the handler
+     */
+    public void fireMouseEntered(final MouseEvent event) {
+        if (pane.getOnMouseEntered() != null) {
+            pane.getOnMouseEntered().handle(event);
+        }
+    }
+
+    /**
+     * Calls the handler for when the tile is clicked, if there is one.
+     *
+     * @param event the event to pass to the handler
+     */
+    public void fireMouseClicked(final MouseEvent event) {
+        if (pane.getOnMouseClicked() != null) {
+            pane.getOnMouseClicked().handle(event);
+        }
+    }
+
     /**
      * Returns whether the tile has a handler for mouse clicks.
      *
@@ -0,0 +1,225 @@
+package hProjekt.view;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+
+/**
+ * Moves any number of trains along polylines with a single
+ * {@link AnimationTimer}.
+ * <p>
+ * Every drive pulses the train, moves it along its polyline with
+ * {@link Interpolator#EASE_BOTH} by arc length and pulses it again, like a
+ * sequence of a {@code ScaleTransition}, a {@code PathTransition} and another
+ * {@code ScaleTransition} would. The lengths of the polyline are computed once
+ * when the drive starts, so advancing a train only costs a binary search per
+ * frame and no scene graph objects are created for its path. The timer only
+ * runs while at least one train is moving.
+ * <p>
+ * All methods must be called on the JavaFX application thread.
+ */
+public class TrainAnimationEngine {
+    private static final double PULSE_SECONDS = 0.2;
+    private static final double PULSE_SCALE = 1.8;
+    private static final double DRIVE_SECONDS = 1;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final Map<Node, TrainAnimation> active = new LinkedHashMap<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(final long now) {
+            advance(now);
+        }
+    };
+
+    /**
+     * Starts moving the given node along the given polyline, replacing any drive
+     * of the node that is still running.
+     *
+     * @param node the node to move, it is centered on the polyline
+     * @param xs   the x coordinates of the points of the polyline
+     * @param ys   the y coordinates of the points of the polyline
+     * @return the started drive
+     * @throws IllegalArgumentException if the polyline has less than two points
+     */
+    public TrainAnimation animate(final Node node, final double[] xs, final double[] ys) {
+        if (xs.length < 2 || xs.length != ys.length) {
+            throw new IllegalArgumentException("A polyline needs at least two points with two coordinates each.");
+        }
+        final TrainAnimation animation = new TrainAnimation(node, xs, ys);
+        active.put(node, animation);
+        animation.apply(0);
+        timer.start();
+        return animation;
+    }
+
+    /**
+     * Returns the number of trains that are currently moving.
+     *
+     * @return the number of moving trains
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Advances all moving trains to the given time and finishes the drives that
+     * are over.
+     *
+     * @param now the time of the current frame in nanoseconds
+     */
+    private void advance(final long now) {
+        List<TrainAnimation> finished = null;
+        for (Iterator<TrainAnimation> iterator = active.values().iterator(); iterator.hasNext();) {
+            final TrainAnimation animation = iterator.next();
+            if (animation.startNanos < 0) {
+                animation.startNanos = now;
+            }
+            final double seconds = (now - animation.startNanos) / NANOS_PER_SECOND;
+            animation.apply(seconds);
+            if (seconds >= TrainAnimation.TOTAL_SECONDS) {
+                iterator.remove();
+                if (finished == null) {
+                    finished = new ArrayList<>();
+                }
+                finished.add(animation);
+            }
+        }
+        if (active.isEmpty()) {
+            timer.stop();
+        }
+        if (finished != null) {
+            // handlers may start new drives, so they run after the iteration
+            finished.forEach(TrainAnimation::finish);
+        }
+    }
+
+    /**
+     * A single drive of a train along a polyline.
+     */
+    public final class TrainAnimation {
+        private static final double TOTAL_SECONDS = 2 * 2 * PULSE_SECONDS + DRIVE_SECONDS;
+
+        private final Node node;
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] distances;
+        private long startNanos = -1;
+        private EventHandler<ActionEvent> onFinished;
+
+        /**
+         * Creates a new drive and precomputes the arc length at every point of the
+         * polyline.
+         *
+         * @param node the node to move
+         * @param xs   the x coordinates of the points of the polyline
+         * @param ys   the y coordinates of the points of the polyline
+         */
+        private TrainAnimation(final Node node, final double[] xs, final double[] ys) {
+            this.node = node;
+            this.xs = xs.clone();
+            this.ys = ys.clone();
+            this.distances = new double[xs.length];
+            for (int i = 1; i < xs.length; i++) {
+                distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+            }
+        }
+
+        /**
+         * Sets the handler that is called once the drive is over. It is not called if
+         * the drive is stopped or replaced.
+         *
+         * @param onFinished the handler to call
+         */
+        public void setOnFinished(final EventHandler<ActionEvent> onFinished) {
+            this.onFinished = onFinished;
+        }
+
+        /**
+         * Stops the drive and leaves the train where it is.
+         */
+        public void stop() {
+            if (active.remove(node, this) && active.isEmpty()) {
+                timer.stop();
+            }
+        }
+
+        /**
+         * Moves and scales the train to its state at the given time of the drive.
+         *
+         * @param seconds the time since the start of the drive in seconds
+         */
+        private void apply(final double seconds) {
+            final double driveStart = 2 * PULSE_SECONDS;
+            final double driveEnd = driveStart + DRIVE_SECONDS;
+            final double scale;
+            final double progress;
+            if (seconds < driveStart) {
+                scale = pulse(seconds);
+                progress = 0;
+            } else if (seconds < driveEnd) {
+                scale = 1;
+                progress = Interpolator.EASE_BOTH.interpolate(0.0, 1.0, (seconds - driveStart) / DRIVE_SECONDS);
+            } else {
+                scale = pulse(Math.min(seconds - driveEnd, 2 * PULSE_SECONDS));
+                progress = 1;
+            }
+            node.setScaleX(scale);
+            node.setScaleY(scale);
+            moveTo(progress * distances[distances.length - 1]);
+        }
+
+        /**
+         * Returns the scale of a pulse, which grows the train and shrinks it back.
+         *
+         * @param seconds the time since the start of the pulse in seconds
+         * @return the scale of the train
+         */
+        private double pulse(final double seconds) {
+            final double fraction = seconds < PULSE_SECONDS ? seconds / PULSE_SECONDS
+                    : 2 - seconds / PULSE_SECONDS;
+            return Interpolator.EASE_BOTH.interpolate(1.0, PULSE_SCALE, Math.max(fraction, 0));
+        }
+
+        /**
+         * Centers the train on the point at the given arc length of the polyline.
+         *
+         * @param distance the arc length from the first point
+         */
+        private void moveTo(final double distance) {
+            int low = 1;
+            int high = distances.length - 1;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (distances[middle] < distance) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            final double length = distances[low] - distances[low - 1];
+            final double t = length == 0 ? 1 : (distance - distances[low - 1]) / length;
+            final Bounds bounds = node.getLayoutBounds();
+            node.setTranslateX(xs[low - 1] + t * (xs[low] - xs[low - 1]) - bounds.getMinX() - bounds.getWidth() / 2);
+            node.setTranslateY(ys[low - 1] + t * (ys[low] - ys[low - 1]) - bounds.getMinY() - bounds.getHeight() / 2);
+        }
+
+        /**
+         * Calls the handler of the finished drive.
+         */
+        private void finish() {
+            if (onFinished != null) {
+                onFinished.handle(new ActionEvent());
+            }
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package hProjekt.view.menus;
 
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
@@ -34,7 +34,7 @@ public class AboutBuilder implements Builder<Region> {
         root.setAlignment(Pos.CENTER);
 
         // Logo
-        ImageView logo = new ImageView(new Image(getClass().getResourceAsStream("/images/dampfross_logo_white.png")));
+        ImageView logo = new ImageView(ResourceCache.getImage("/images/dampfross_logo_white.png"));
         logo.setFitWidth(300);
         logo.setPreserveRatio(true);
 
@@ -68,7 +68,7 @@ public class AboutBuilder implements Builder<Region> {
         root.getChildren().addAll(logo, gameDescription, developerInfo, licenseInfo, legalInfo, backButton);
 
         // Add css style
-        root.getStylesheets().add(getClass().getResource("/css/about.css").toExternalForm());
+        root.getStylesheets().add(ResourceCache.getStylesheet("/css/about.css"));
 
         return root;
     }
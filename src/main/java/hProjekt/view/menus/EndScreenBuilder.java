@@ -8,11 +8,11 @@ import hProjekt.controller.LeaderboardController;
 import hProjekt.controller.LeaderboardEntry;
 import hProjekt.model.Player;
 import hProjekt.view.Confetti;
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -124,9 +124,9 @@ public class EndScreenBuilder implements Builder<Region> {
                 medal.setFitHeight(40);
                 medal.setFitWidth(40);
                 switch (i) {
-                    case 0 -> medal.setImage(new Image(getClass().getResourceAsStream("/images/gold_medal.png")));
-                    case 1 -> medal.setImage(new Image(getClass().getResourceAsStream("/images/silver_medal.png")));
-                    case 2 -> medal.setImage(new Image(getClass().getResourceAsStream("/images/bronze_medal.png")));
+                    case 0 -> medal.setImage(ResourceCache.getImage("/images/gold_medal.png"));
+                    case 1 -> medal.setImage(ResourceCache.getImage("/images/silver_medal.png"));
+                    case 2 -> medal.setImage(ResourceCache.getImage("/images/bronze_medal.png"));
                 }
                 rankBox.getChildren().add(medal);
             } else {
@@ -4,6 +4,7 @@ import java.util.List;
 
 import hProjekt.controller.LeaderboardController;
 import hProjekt.controller.LeaderboardEntry;
+import hProjekt.view.ResourceCache;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -83,7 +84,7 @@ public class LeaderboardBuilder implements Builder<Region> {
         root.setCenter(contentContainer);
 
         // Load external CSS styles
-        root.getStylesheets().add(getClass().getResource("/css/leaderboard.css").toExternalForm());
+        root.getStylesheets().add(ResourceCache.getStylesheet("/css/leaderboard.css"));
 
         return root;
     }
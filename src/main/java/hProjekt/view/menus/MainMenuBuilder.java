@@ -1,5 +1,6 @@
 package hProjekt.view.menus;
 
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -54,7 +55,7 @@ public class MainMenuBuilder implements Builder<Region> {
         // Use Image Logo instead of Text Font (as font is not loading...)
         ImageView logo;
         try {
-            logo = new ImageView(new Image(getClass().getResourceAsStream("/images/dampfross_logo_white.png")));
+            logo = new ImageView(ResourceCache.getImage("/images/dampfross_logo_white.png"));
             logo.setFitWidth(500);
             logo.setPreserveRatio(true);
         } catch (NullPointerException e) {
@@ -121,7 +122,7 @@ public class MainMenuBuilder implements Builder<Region> {
         root.getChildren().add(layout);
 
         // Add CSS style
-        root.getStylesheets().add(getClass().getResource("/css/mainmenu.css").toExternalForm());
+        root.getStylesheets().add(ResourceCache.getStylesheet("/css/mainmenu.css"));
 
         // Ensure no button is initially focused
         root.sceneProperty().addListener((observable, oldScene, newScene) -> {
@@ -1,6 +1,7 @@
 package hProjekt.view.menus;
 
 import hProjekt.controller.gui.SettingsController;
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -109,7 +110,7 @@ public class SettingsBuilder implements Builder<Region> {
         bottomButtons.getChildren().addAll(saveButton);
         root.setBottom(bottomButtons);
 
-        root.getStylesheets().add(getClass().getResource("/css/settings.css").toExternalForm());
+        root.getStylesheets().add(ResourceCache.getStylesheet("/css/settings.css"));
         return root;
     }
 
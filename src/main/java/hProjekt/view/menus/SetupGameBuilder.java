@@ -6,6 +6,8 @@ import java.util.List;
 import hProjekt.Config;
 import hProjekt.controller.AiController;
 import hProjekt.model.GameSetup;
+import hProjekt.model.MapType;
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -14,7 +16,6 @@ import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
@@ -135,9 +136,11 @@ public class SetupGameBuilder implements Builder<Region> {
         mapLabel.getStyleClass().add("label");
 
         ComboBox<String> mapSelector = new ComboBox<>();
-        mapSelector.getItems().addAll("Generate Random Map"); // No other maps implemented yet
+        for (MapType mapType : MapType.values()) {
+            mapSelector.getItems().add(mapType.displayName);
+        }
         mapSelector.setMaxWidth(200);
-        mapSelector.setValue("Generate Random Map");
+        mapSelector.setValue(MapType.RANDOM_WALK.displayName);
         mapSelector.getStyleClass().add("combo-box");
         mapSelector.setOnAction(event -> {
             if (gameSetup != null) {
@@ -152,7 +155,7 @@ public class SetupGameBuilder implements Builder<Region> {
         mainContent.getChildren().addAll(titleLabel, playerContainer, addPlayerButton, mapSelectionWrapper);
         root.setTop(topBar);
         root.setCenter(mainContent);
-        root.getStylesheets().add(getClass().getResource("/css/setupgamemenu.css").toExternalForm());
+        root.getStylesheets().add(ResourceCache.getStylesheet("/css/setupgamemenu.css"));
 
         return root;
     }
@@ -170,7 +173,7 @@ public class SetupGameBuilder implements Builder<Region> {
         HBox playerBox = new HBox(5);
         playerBox.setAlignment(Pos.CENTER_LEFT);
 
-        ImageView trashIcon = new ImageView(new Image(getClass().getResourceAsStream("/images/trash.png")));
+        ImageView trashIcon = new ImageView(ResourceCache.getImage("/images/trash.png"));
         trashIcon.setFitWidth(20);
         trashIcon.setFitHeight(20);
         trashIcon.setPreserveRatio(true);
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 
 import hProjekt.model.City;
 import hProjekt.model.GameState;
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -63,7 +64,7 @@ public class CityOverlayView extends VBox {
         cityListContainer.setPadding(new Insets(10));
         cityListContainer.setAlignment(Pos.TOP_LEFT);
         this.getChildren().add(cityListContainer);
-        this.getStylesheets().add(getClass().getResource("/css/toggle.css").toExternalForm());
+        this.getStylesheets().add(ResourceCache.getStylesheet("/css/toggle.css"));
 
         visitedButton.setOnAction(e -> updateCityList(true));
         unvisitedButton.setOnAction(e -> updateCityList(false));
@@ -1,5 +1,6 @@
 package hProjekt.view.menus.overlays;
 
+import hProjekt.view.ResourceCache;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -27,7 +28,7 @@ public class ConfirmationOverlayView extends VBox {
      */
     public ConfirmationOverlayView() {
         configureOverlayStyle();
-        this.getStylesheets().add(ConfirmationOverlayView.class.getResource("/css/confirmation.css").toExternalForm());
+        this.getStylesheets().add(ResourceCache.getStylesheet("/css/confirmation.css"));
         // Label for the message
         messageLabel = new Label();
         messageLabel.getStyleClass().add("label-message");
@@ -0,0 +1,70 @@
+package hProjekt.view.menus.overlays;
+
+import hProjekt.util.Diagnostics;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Overlay for displaying performance diagnostics.
+ * Contains the pulse and frame times, the latency of the
+ * {@code Platform.runLater} queue and the game loop and the size of the map.
+ */
+public class DiagnosticsOverlayView extends VBox {
+
+    private final Label pulseLabel;
+    private final Label frameLabel;
+    private final Label runLaterLabel;
+    private final Label actionLabel;
+    private final Label nodeCountLabel;
+
+    /**
+     * Constructor for the DiagnosticsOverlayView.
+     */
+    public DiagnosticsOverlayView() {
+        this.setSpacing(2);
+        this.setPadding(new Insets(10));
+        this.setBackground(
+                new Background(new BackgroundFill(Color.rgb(0, 0, 0, 0.5), new CornerRadii(10), Insets.EMPTY)));
+        this.setMouseTransparent(true);
+
+        pulseLabel = createStyledLabel();
+        frameLabel = createStyledLabel();
+        runLaterLabel = createStyledLabel();
+        actionLabel = createStyledLabel();
+        nodeCountLabel = createStyledLabel();
+
+        this.getChildren().addAll(pulseLabel, frameLabel, runLaterLabel, actionLabel, nodeCountLabel);
+        update(Diagnostics.snapshot());
+    }
+
+    /**
+     * Creates a styled label for one measurement.
+     *
+     * @return the styled label
+     */
+    private Label createStyledLabel() {
+        Label label = new Label();
+        label.setTextFill(Color.WHITE);
+        label.setFont(new Font("Monospaced", 12));
+        return label;
+    }
+
+    /**
+     * Updates the labels with the given measurements.
+     *
+     * @param snapshot the measurements to show
+     */
+    public void update(Diagnostics.Snapshot snapshot) {
+        pulseLabel.setText("Pulse      " + snapshot.pulseDuration());
+        frameLabel.setText("Frame      " + snapshot.frameTime());
+        runLaterLabel.setText("runLater   " + snapshot.runLaterLatency());
+        actionLabel.setText("Action     " + snapshot.actionLatency());
+        nodeCountLabel.setText("Map nodes  " + snapshot.mapNodeCount());
+    }
+}
@@ -3,6 +3,7 @@ package hProjekt.view.menus.overlays;
 import java.util.Random;
 import java.util.function.Consumer;
 
+import hProjekt.view.ResourceCache;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.event.ActionEvent;
@@ -10,7 +11,6 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
 import javafx.scene.control.Button;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -49,7 +49,7 @@ public class RollDiceOverlayView extends StackPane {
         diceImageView.setFitWidth(50);
         diceImageView.setFitHeight(50);
         diceImageView.setPreserveRatio(true);
-        diceImageView.setImage(new Image(getClass().getResourceAsStream("/images/dice/dice1.png")));
+        diceImageView.setImage(ResourceCache.getImage("/images/dice/dice1.png"));
 
         // Button to trigger dice roll
         rollDiceButton = new Button("Roll Dice!");
@@ -84,14 +84,14 @@ public class RollDiceOverlayView extends StackPane {
             int randomDice = random.nextInt(6) + 1; // Random number between 1 and 6
             timeline.getKeyFrames().add(new KeyFrame(Duration.millis(i * 50), event -> {
                 String diceImagePath = "/images/dice/dice" + randomDice + ".png";
-                diceImageView.setImage(new Image(getClass().getResourceAsStream(diceImagePath)));
+                diceImageView.setImage(ResourceCache.getImage(diceImagePath));
             }));
         }
 
         // Final frame to set the actual dice roll
         timeline.getKeyFrames().add(new KeyFrame(Duration.millis(750), event -> {
             String finalDiceImagePath = "/images/dice/dice" + rolledNumber + ".png";
-            diceImageView.setImage(new Image(getClass().getResourceAsStream(finalDiceImagePath)));
+            diceImageView.setImage(ResourceCache.getImage(finalDiceImagePath));
         }));
 
         timeline.play();
@@ -0,0 +1,137 @@
+package hProjekt.controller.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import hProjekt.model.Edge;
+import hProjekt.model.HexGrid;
+import hProjekt.model.HexGridImpl;
+import hProjekt.model.Player;
+import hProjekt.model.PlayerImpl;
+import hProjekt.model.TilePosition;
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the legal actions of a {@link BoardSnapshot} match the building
+ * rules of the grid it was taken of while rails are built.
+ */
+public class BoardSnapshotTest {
+
+    @Test
+    public void testLegalActionsMatchGrid() {
+        final Random random = new Random(9);
+        for (int game = 0; game < 10; game++) {
+            final HexGrid grid = new HexGridImpl(3, 8, NgramModel.townNames(), new Random(game));
+            final List<Player> players = List.of(new PlayerImpl.Builder(1).build(grid),
+                    new PlayerImpl.Builder(2).build(grid), new PlayerImpl.Builder(3).build(grid));
+            final Player me = players.getFirst();
+            for (Edge edge : grid.getEdges().values()) {
+                for (Player other : players.subList(1, players.size())) {
+                    if (random.nextInt(8) == 0) {
+                        placeRail(grid, other, edge);
+                    }
+                }
+            }
+            players.forEach(player -> player.addCredits(random.nextInt(30)));
+            final BoardSnapshot snapshot = BoardSnapshot.of(grid, players, me, 10 + random.nextInt(30));
+
+            int steps = 0;
+            while (true) {
+                final Set<Edge> expected = expectedActions(grid, me, snapshot.getBudget(), snapshot.getCredits());
+                final int[] actions = snapshot.getLegalActions();
+                assertEquals(expected, Arrays.stream(actions).mapToObj(snapshot::getEdge).collect(Collectors.toSet()));
+                assertEquals(actions.length == 0, snapshot.isTerminal());
+                assertEquals(reachedCities(grid, me), snapshot.getReachedCities());
+                if (actions.length == 0) {
+                    break;
+                }
+                final int action = actions[random.nextInt(actions.length)];
+                final BoardSnapshot before = snapshot.copy();
+                snapshot.apply(action);
+                assertEquals(before.getBudget() - snapshot.getEdge(action).getBaseBuildingCost(),
+                        snapshot.getBudget());
+                placeRail(grid, me, snapshot.getEdge(action));
+                steps++;
+            }
+            assertTrue(steps > 0, "every game should build at least one rail");
+        }
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        final HexGrid grid = new HexGridImpl(3, 8, NgramModel.townNames(), new Random(2));
+        final Player me = new PlayerImpl.Builder(1).build(grid);
+        final BoardSnapshot snapshot = BoardSnapshot.of(grid, List.of(me), me, 30);
+        final BoardSnapshot copy = snapshot.copy();
+        final int[] actions = snapshot.getLegalActions();
+
+        copy.apply(actions[0]);
+        assertArrayEquals(actions, snapshot.getLegalActions());
+        assertEquals(30, snapshot.getBudget());
+        assertNotEquals(snapshot.getHash(), copy.getHash());
+        assertEquals(actions[0], snapshot.getAction(snapshot.getEdge(actions[0])));
+    }
+
+    /**
+     * Returns the edges the given player could build on by the rules of the
+     * grid, with the given budget and credits.
+     *
+     * @param grid    the grid
+     * @param player  the building player
+     * @param budget  the remaining building budget
+     * @param credits the credits of the player
+     * @return the edges the player could build on
+     */
+    private static Set<Edge> expectedActions(final HexGrid grid, final Player player, final int budget,
+            final int credits) {
+        final Set<TilePosition> connected = new HashSet<>();
+        grid.getRails(player).values().forEach(rail -> connected.addAll(rail.getAdjacentTilePositions()));
+        if (connected.isEmpty()) {
+            connected.addAll(grid.getStartingCities().keySet());
+        }
+        return connected.stream()
+                .flatMap(position -> grid.getTileAt(position).getEdges().stream())
+                .filter(edge -> !edge.getRailOwners().contains(player))
+                .filter(edge -> edge.getBaseBuildingCost() <= budget)
+                .filter(edge -> edge.getTotalParallelCost(player) <= credits)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the number of cities the rails of the given player reach.
+     *
+     * @param grid   the grid
+     * @param player the player
+     * @return the number of reached cities
+     */
+    private static int reachedCities(final HexGrid grid, final Player player) {
+        final Set<TilePosition> reached = new HashSet<>();
+        grid.getRails(player).values().forEach(rail -> reached.addAll(rail.getAdjacentTilePositions()));
+        reached.retainAll(grid.getCities().keySet());
+        return reached.size();
+    }
+
+    /**
+     * Adds a rail of the given player to the given edge without checking the
+     * building rules.
+     *
+     * @param grid   the grid of the edge
+     * @param player the owner of the rail
+     * @param edge   the edge
+     */
+    private static void placeRail(final HexGrid grid, final Player player, final Edge edge) {
+        final List<Player> owners = new ArrayList<>(edge.getRailOwners());
+        owners.add(player);
+        edge.getRailOwnersProperty().setValue(owners);
+        grid.getZobristHash().toggleRail(edge, player);
+    }
+}
@@ -0,0 +1,256 @@
+package hProjekt.controller.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hProjekt.controller.PlayerObjective;
+import hProjekt.model.HexGrid;
+import hProjekt.model.HexGridImpl;
+import hProjekt.model.Player;
+import hProjekt.model.PlayerImpl;
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the binary layout of a {@link GameRecord} and how a
+ * {@link GameRecordWriter} rotates its files and handles a full queue.
+ */
+public class GameRecordTest {
+    private static final int DECISIONS_PER_GAME = 3;
+    private static final int GAME_SIZE = DECISIONS_PER_GAME * GameRecord.RECORD_SIZE;
+
+    private final HexGrid grid = new HexGridImpl(2, 2, NgramModel.townNames(), new Random(1));
+    private final List<Player> players = List.of(new PlayerImpl.Builder(1).build(grid),
+            new PlayerImpl.Builder(2).build(grid));
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("game-records");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testRecordLayoutRoundTrip() {
+        final Player first = players.get(0);
+        final Player second = players.get(1);
+        first.addCredits(7);
+        second.addCredits(40_000);
+        final GameRecord record = new GameRecord(123_456);
+        record.addDecision(first, PlayerObjective.PLACE_RAIL, 12, -5, 4, 3);
+        record.addDecision(second, PlayerObjective.DRIVE, 100_000, 1 << 20, 6, 40_000);
+        assertEquals(2, record.size());
+
+        final ByteBuffer buffer = record.finish(players);
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+        assertEquals(0, buffer.position());
+        assertEquals(2 * GameRecord.RECORD_SIZE, buffer.remaining());
+
+        assertEquals(123_456, buffer.getInt());
+        assertEquals(3, buffer.getShort());
+        assertEquals(1, buffer.get());
+        assertEquals(PlayerObjective.PLACE_RAIL.ordinal(), buffer.get());
+        assertEquals(12, buffer.getShort());
+        assertEquals(-5, buffer.getInt());
+        assertEquals(4, buffer.get());
+        assertEquals(2, buffer.get());
+        assertEquals(first.getCredits(), buffer.getInt());
+        assertEquals(GameRecord.RECORD_SIZE, buffer.position());
+
+        // rounds and action counts saturate instead of wrapping around
+        assertEquals(123_456, buffer.getInt());
+        assertEquals(Short.MAX_VALUE, buffer.getShort());
+        assertEquals(2, buffer.get());
+        assertEquals(PlayerObjective.DRIVE.ordinal(), buffer.get());
+        assertEquals(Short.MAX_VALUE, buffer.getShort());
+        assertEquals(1 << 20, buffer.getInt());
+        assertEquals(6, buffer.get());
+        assertEquals(1, buffer.get());
+        assertEquals(second.getCredits(), buffer.getInt());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testRecordGrows() {
+        final GameRecord record = new GameRecord(0);
+        for (int i = 0; i < 1000; i++) {
+            record.addDecision(players.getFirst(), PlayerObjective.ROLL_DICE, 1, i, 1, i);
+        }
+        final ByteBuffer buffer = record.finish(players);
+        assertEquals(1000 * GameRecord.RECORD_SIZE, buffer.remaining());
+        assertEquals(999, buffer.getInt(999 * GameRecord.RECORD_SIZE + 10));
+    }
+
+    @Test
+    public void testWriterRotatesFilesBetweenGames() throws IOException, InterruptedException {
+        // two games fit into a file, the third starts the next one
+        final GameRecordWriter writer = new GameRecordWriter(directory, "test",
+                GameRecordWriter.HEADER_SIZE + 2 * GAME_SIZE + GAME_SIZE / 2, 16);
+        for (int game = 0; game < 5; game++) {
+            assertTrue(writer.submit(game(game)));
+        }
+        writer.close();
+        assertEquals(5L * GAME_SIZE, writer.getWrittenBytes());
+
+        final List<Path> files = files();
+        assertEquals(List.of("test-00000.bin", "test-00001.bin", "test-00002.bin"),
+                files.stream().map(file -> file.getFileName().toString()).toList());
+        final int[] gamesPerFile = { 2, 2, 1 };
+        int game = 0;
+        for (int index = 0; index < files.size(); index++) {
+            final ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(files.get(index)))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(GameRecordWriter.HEADER_SIZE + gamesPerFile[index] * GAME_SIZE, content.remaining());
+            assertEquals(GameRecordWriter.MAGIC, content.getInt());
+            assertEquals(1, content.getShort());
+            assertEquals(GameRecord.RECORD_SIZE, content.getShort());
+            assertEquals(index, content.getInt());
+            assertEquals(0, content.getInt());
+            for (int i = 0; i < gamesPerFile[index] * DECISIONS_PER_GAME; i++) {
+                assertEquals(game + i / DECISIONS_PER_GAME, content.getInt(content.position() + i
+                        * GameRecord.RECORD_SIZE));
+            }
+            game += gamesPerFile[index];
+        }
+    }
+
+    @Test
+    public void testDropModeDropsWhenQueueIsFull() throws IOException, InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final GameRecordWriter writer = new GameRecordWriter(directory, "test", Long.MAX_VALUE, 2, true,
+                stalledThreads(release));
+        assertTrue(writer.submit(game(0)));
+        assertTrue(writer.submit(game(1)));
+        assertFalse(writer.submit(game(2)));
+        assertFalse(writer.submit(game(3)));
+        assertEquals(2, writer.getDroppedGames());
+
+        release.countDown();
+        writer.close();
+        assertEquals(2L * GAME_SIZE, writer.getWrittenBytes());
+    }
+
+    @Test
+    public void testBlockingModeWaitsWhenQueueIsFull() throws IOException, InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final GameRecordWriter writer = new GameRecordWriter(directory, "test", Long.MAX_VALUE, 1, false,
+                stalledThreads(release));
+        assertTrue(writer.submit(game(0)));
+
+        final AtomicBoolean submitted = new AtomicBoolean();
+        final Thread submitter = new Thread(() -> submitted.set(writer.submit(game(1))));
+        submitter.start();
+        awaitWaiting(submitter);
+        assertFalse(submitted.get());
+
+        release.countDown();
+        submitter.join();
+        assertTrue(submitted.get());
+        writer.close();
+        assertEquals(0, writer.getDroppedGames());
+        assertEquals(2L * GAME_SIZE, writer.getWrittenBytes());
+    }
+
+    @Test
+    public void testInterruptedSubmitDropsGame() throws IOException, InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final GameRecordWriter writer = new GameRecordWriter(directory, "test", Long.MAX_VALUE, 1, false,
+                stalledThreads(release));
+        assertTrue(writer.submit(game(0)));
+
+        final AtomicBoolean submitted = new AtomicBoolean(true);
+        final Thread submitter = new Thread(() -> submitted.set(writer.submit(game(1))));
+        submitter.start();
+        awaitWaiting(submitter);
+        submitter.interrupt();
+        submitter.join();
+        assertFalse(submitted.get());
+        assertEquals(1, writer.getDroppedGames());
+
+        release.countDown();
+        writer.close();
+        assertEquals(GAME_SIZE, writer.getWrittenBytes());
+    }
+
+    /**
+     * Returns the finished records of a game with {@link #DECISIONS_PER_GAME}
+     * decisions.
+     *
+     * @param index the index of the game
+     * @return the records of the game
+     */
+    private ByteBuffer game(final int index) {
+        final GameRecord record = new GameRecord(index);
+        for (int i = 0; i < DECISIONS_PER_GAME; i++) {
+            record.addDecision(players.get(i % players.size()), PlayerObjective.PLACE_RAIL, 5, i, 1, i);
+        }
+        return record.finish(players);
+    }
+
+    /**
+     * Returns the record files in the directory, sorted by name.
+     *
+     * @return the record files
+     * @throws IOException if the directory cannot be listed
+     */
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Returns a factory of threads that only start to run once the given latch
+     * is released, so the queue of a writer fills up.
+     *
+     * @param release the latch to wait for
+     * @return the thread factory
+     */
+    private static ThreadFactory stalledThreads(final CountDownLatch release) {
+        return runnable -> new Thread(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            runnable.run();
+        });
+    }
+
+    /**
+     * Waits until the given thread is blocked waiting.
+     *
+     * @param thread the thread
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void awaitWaiting(final Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(thread.isAlive());
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package hProjekt.controller.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import hProjekt.model.Edge;
+import hProjekt.model.HexGrid;
+import hProjekt.model.HexGridImpl;
+import hProjekt.model.Player;
+import hProjekt.model.PlayerImpl;
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the limits, determinism and merged statistics of the
+ * {@link MonteCarloSearch} in all {@link SearchMode}s.
+ */
+public class MonteCarloSearchTest {
+    private static final int WORKERS = 3;
+    private static final long NO_DEADLINE = 60_000;
+
+    private final ForkJoinPool pool = new ForkJoinPool(WORKERS);
+
+    @AfterEach
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testFixedSeedIsDeterministic() {
+        final BoardSnapshot snapshot = snapshot(4);
+        for (SearchMode mode : List.of(SearchMode.SEQUENTIAL, SearchMode.ROOT_PARALLEL)) {
+            final SearchResult first = new MonteCarloSearch(mode, pool, NO_DEADLINE, 300, 17).search(snapshot);
+            final SearchResult second = new MonteCarloSearch(mode, pool, NO_DEADLINE, 300, 17).search(snapshot);
+            assertEquals(first, second, mode.name());
+            assertFalse(first.statistics().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSearchDoesNotModifyRoot() {
+        final BoardSnapshot snapshot = snapshot(5);
+        final long hash = snapshot.getHash();
+        final int[] actions = snapshot.getLegalActions();
+        for (SearchMode mode : SearchMode.values()) {
+            new MonteCarloSearch(mode, pool, NO_DEADLINE, 100, 1).search(snapshot);
+        }
+        assertEquals(hash, snapshot.getHash());
+        assertArrayEquals(actions, snapshot.getLegalActions());
+    }
+
+    @Test
+    public void testRootParallelRespectsMaxIterations() {
+        final SearchResult result = new MonteCarloSearch(SearchMode.ROOT_PARALLEL, pool, NO_DEADLINE, 200, 3,
+                new TranspositionTable(1 << 10)).search(snapshot(6));
+        assertEquals(WORKERS * 200, result.iterations());
+        assertEquals(200, result.minWorkerIterations());
+        // every iteration of every worker adds one visit to a root action
+        assertEquals(result.iterations(), totalVisits(result));
+    }
+
+    @Test
+    public void testLeafParallelRespectsMaxIterations() {
+        final SearchResult result = new MonteCarloSearch(SearchMode.LEAF_PARALLEL, pool, NO_DEADLINE, 200, 3,
+                new TranspositionTable(1 << 10)).search(snapshot(6));
+        assertEquals(200, result.iterations());
+        assertEquals(200, result.minWorkerIterations());
+        // every iteration runs one rollout per worker for the expanded leaf
+        assertEquals(WORKERS * 200, totalVisits(result));
+    }
+
+    @Test
+    public void testAllModesRespectDeadline() {
+        final BoardSnapshot snapshot = snapshot(7);
+        for (SearchMode mode : SearchMode.values()) {
+            final long start = System.nanoTime();
+            final SearchResult result = new MonteCarloSearch(mode, pool, 50, Integer.MAX_VALUE, 3)
+                    .search(snapshot);
+            final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(elapsedMillis < 2_000, mode + " took " + elapsedMillis + " ms");
+            assertTrue(result.minWorkerIterations() > 0, mode.name());
+        }
+        final SearchResult expired = new MonteCarloSearch(SearchMode.ROOT_PARALLEL, pool, 0, Integer.MAX_VALUE, 3)
+                .search(snapshot);
+        assertEquals(0, expired.iterations());
+        assertEquals(-1, expired.bestAction());
+    }
+
+    @Test
+    public void testMergeSumsStatisticsOfEqualActions() {
+        final SearchResult merged = SearchResult.merge(List.of(
+                SearchResult.of(List.of(new ActionStatistics(1, 10, 4), new ActionStatistics(2, 5, 5)), 15),
+                SearchResult.of(List.of(new ActionStatistics(2, 8, 2), new ActionStatistics(3, 1, 1)), 9)));
+        assertEquals(List.of(new ActionStatistics(2, 13, 7), new ActionStatistics(1, 10, 4),
+                new ActionStatistics(3, 1, 1)), merged.statistics());
+        assertEquals(24, merged.iterations());
+        assertEquals(9, merged.minWorkerIterations());
+        assertEquals(2, merged.bestAction());
+    }
+
+    @Test
+    public void testRootParallelMergesWorkerStatistics() {
+        final BoardSnapshot snapshot = snapshot(8);
+        final SearchResult parallel = new MonteCarloSearch(SearchMode.ROOT_PARALLEL, pool, NO_DEADLINE, 150, 11)
+                .search(snapshot);
+        final int[] actions = snapshot.getLegalActions();
+        assertEquals(actions.length, parallel.statistics().size());
+        for (int i = 1; i < parallel.statistics().size(); i++) {
+            assertTrue(parallel.statistics().get(i - 1).visits() >= parallel.statistics().get(i).visits());
+        }
+        for (ActionStatistics statistics : parallel.statistics()) {
+            assertTrue(statistics.meanReward() >= 0 && statistics.meanReward() <= 1);
+        }
+    }
+
+    /**
+     * Returns the sum of the visits of all root actions of the given result.
+     *
+     * @param result the result
+     * @return the visits of all root actions
+     */
+    private static long totalVisits(final SearchResult result) {
+        return result.statistics().stream().mapToLong(ActionStatistics::visits).sum();
+    }
+
+    /**
+     * Creates a snapshot of a small generated map for the first of two players.
+     * The other player already has a rail at a starting city, so some actions
+     * cost parallel fees.
+     *
+     * @param seed the seed of the map
+     * @return the snapshot
+     */
+    private static BoardSnapshot snapshot(final long seed) {
+        final HexGrid grid = new HexGridImpl(3, 8, NgramModel.townNames(), new Random(seed));
+        final List<Player> players = List.of(new PlayerImpl.Builder(1).build(grid),
+                new PlayerImpl.Builder(2).build(grid));
+        players.forEach(player -> player.addCredits(20));
+        final Player rival = players.get(1);
+        final Edge rail = grid.getTileAt(grid.getStartingCities().keySet().iterator().next()).getEdges().iterator()
+                .next();
+        rail.getRailOwnersProperty().setValue(new ArrayList<>(List.of(rival)));
+        grid.getZobristHash().toggleRail(rail, rival);
+        return BoardSnapshot.of(grid, players, players.getFirst(), 20);
+    }
+}
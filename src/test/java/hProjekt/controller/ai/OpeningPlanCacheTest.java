@@ -0,0 +1,169 @@
+package hProjekt.controller.ai;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hProjekt.Config;
+import hProjekt.model.TilePosition;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link OpeningPlanCache} and the iteration count an opening search
+ * is compared to before its opening is cached.
+ */
+public class OpeningPlanCacheTest {
+    private static final List<Set<TilePosition>> PLAN = List.of(
+            Set.of(new TilePosition(0, 0), new TilePosition(1, 0)),
+            Set.of(new TilePosition(1, 0), new TilePosition(1, 1)));
+    private static final List<Set<TilePosition>> OTHER_PLAN = List.of(
+            Set.of(new TilePosition(-2, 1), new TilePosition(-2, 2)));
+
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("opening-plans");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testPutAndGet() {
+        final OpeningPlanCache cache = new OpeningPlanCache(directory.resolve("plans.bin"), 4);
+        assertNull(cache.get(42, 0));
+        cache.put(42, 0, PLAN);
+        cache.put(42, 1, OTHER_PLAN);
+        assertEquals(PLAN, cache.get(42, 0));
+        assertEquals(OTHER_PLAN, cache.get(42, 1));
+        assertNull(cache.get(43, 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedPlan() {
+        final OpeningPlanCache cache = new OpeningPlanCache(directory.resolve("plans.bin"), 2);
+        cache.put(1, 0, PLAN);
+        cache.put(2, 0, PLAN);
+        cache.get(1, 0);
+        cache.put(3, 0, OTHER_PLAN);
+        assertEquals(2, cache.size());
+        assertEquals(PLAN, cache.get(1, 0));
+        assertNull(cache.get(2, 0));
+        assertEquals(OTHER_PLAN, cache.get(3, 0));
+    }
+
+    @Test
+    public void testPlansSurviveReload() {
+        final Path file = directory.resolve("plans.bin");
+        final OpeningPlanCache cache = new OpeningPlanCache(file, 2);
+        cache.put(1, 0, PLAN);
+        cache.put(2, 0, PLAN);
+        cache.get(1, 0);
+        cache.put(3, 1, OTHER_PLAN);
+
+        final OpeningPlanCache reloaded = new OpeningPlanCache(file, 2);
+        assertEquals(2, reloaded.size());
+        assertEquals(OTHER_PLAN, reloaded.get(3, 1));
+        reloaded.put(4, 0, PLAN);
+        // the plan of map 1 was used less recently than the one of map 3 before the reload
+        assertNull(reloaded.get(1, 0));
+        assertEquals(OTHER_PLAN, reloaded.get(3, 1));
+    }
+
+    @Test
+    public void testCorruptFileGivesEmptyCache() throws IOException {
+        final Path file = directory.resolve("plans.bin");
+        Files.write(file, new byte[] { 1, 2, 3 });
+        assertEquals(0, new OpeningPlanCache(file, 2).size());
+    }
+
+    @Test
+    public void testCutoffCountsIterationsPerWorker() {
+        final int workers = 4;
+        final ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            final SearchResult cutShort = new MonteCarloSearch(SearchMode.ROOT_PARALLEL, pool, 60_000,
+                    Config.OPENING_PLAN_MIN_ITERATIONS - 1, 5).search(new CountingState());
+            assertEquals((long) workers * (Config.OPENING_PLAN_MIN_ITERATIONS - 1), cutShort.iterations());
+            assertTrue(cutShort.iterations() >= Config.OPENING_PLAN_MIN_ITERATIONS);
+            assertTrue(cutShort.minWorkerIterations() < Config.OPENING_PLAN_MIN_ITERATIONS);
+
+            final SearchResult full = new MonteCarloSearch(SearchMode.ROOT_PARALLEL, pool, 60_000,
+                    Config.OPENING_PLAN_MIN_ITERATIONS, 5).search(new CountingState());
+            assertEquals(Config.OPENING_PLAN_MIN_ITERATIONS, full.minWorkerIterations());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCutoffAfterDeadline() {
+        final SearchResult result = new MonteCarloSearch(SearchMode.SEQUENTIAL, ForkJoinPool.commonPool(), 0,
+                Config.OPENING_PLAN_MIN_ITERATIONS, 5).search(new CountingState());
+        assertTrue(result.minWorkerIterations() < Config.OPENING_PLAN_MIN_ITERATIONS);
+        assertEquals(result.iterations(), result.minWorkerIterations());
+    }
+
+    /**
+     * A small game that adds up to {@link #DEPTH} digits, rewarding larger sums.
+     */
+    private static final class CountingState implements SearchState {
+        private static final int DEPTH = 4;
+        private static final int[] ACTIONS = { 0, 1, 2 };
+
+        private int depth;
+        private int sum;
+
+        @Override
+        public SearchState copy() {
+            final CountingState copy = new CountingState();
+            copy.depth = depth;
+            copy.sum = sum;
+            return copy;
+        }
+
+        @Override
+        public int[] getLegalActions() {
+            return isTerminal() ? new int[0] : ACTIONS.clone();
+        }
+
+        @Override
+        public void apply(final int action) {
+            depth++;
+            sum += action;
+        }
+
+        @Override
+        public boolean isTerminal() {
+            return depth == DEPTH;
+        }
+
+        @Override
+        public double getReward() {
+            return sum / (2.0 * DEPTH);
+        }
+
+        @Override
+        public long getHash() {
+            return depth * 31L + sum;
+        }
+    }
+}
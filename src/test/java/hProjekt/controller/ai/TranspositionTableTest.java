@@ -0,0 +1,105 @@
+package hProjekt.controller.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the lookup, key check and replacement policy of the
+ * {@link TranspositionTable}.
+ */
+public class TranspositionTableTest {
+    private static final long HASH = 0x1234_5678_9abc_def0L;
+    /**
+     * A hash that maps to the same entry as {@link #HASH}: the entry only depends
+     * on the lowest bits of both halves of the hash.
+     */
+    private static final long COLLIDING_HASH = HASH ^ 1L << 20;
+
+    @Test
+    public void testProbeMissing() {
+        final TranspositionTable table = new TranspositionTable(16);
+        assertEquals(TranspositionTable.MISSING, table.probe(HASH));
+        assertEquals(TranspositionTable.MISSING, table.probe(0));
+    }
+
+    @Test
+    public void testStoreAndProbe() {
+        final TranspositionTable table = new TranspositionTable(16);
+        table.store(HASH, 4, 3);
+        final long data = table.probe(HASH);
+        assertNotEquals(TranspositionTable.MISSING, data);
+        assertEquals(4, TranspositionTable.getVisits(data));
+        assertEquals(0.75, TranspositionTable.getMeanReward(data), 1e-6);
+    }
+
+    @Test
+    public void testStoreAccumulatesSameState() {
+        final TranspositionTable table = new TranspositionTable(16);
+        table.store(HASH, 4, 3);
+        table.store(HASH, 6, 1);
+        final long data = table.probe(HASH);
+        assertEquals(10, TranspositionTable.getVisits(data));
+        assertEquals(0.4, TranspositionTable.getMeanReward(data), 1e-6);
+    }
+
+    @Test
+    public void testKeyCheckRejectsCollidingHash() {
+        final TranspositionTable table = new TranspositionTable(16);
+        table.store(HASH, 4, 3);
+        assertEquals(TranspositionTable.MISSING, table.probe(COLLIDING_HASH));
+        assertEquals(4, TranspositionTable.getVisits(table.probe(HASH)));
+    }
+
+    @Test
+    public void testEveryIndexIsUsable() {
+        final TranspositionTable table = new TranspositionTable(64);
+        for (long i = 0; i < 64; i++) {
+            table.store(i << 1, i + 1, 0);
+        }
+        for (long i = 0; i < 64; i++) {
+            assertEquals(i + 1, TranspositionTable.getVisits(table.probe(i << 1)));
+        }
+    }
+
+    @Test
+    public void testReplacementKeepsEntryWithMoreVisits() {
+        final TranspositionTable table = new TranspositionTable(16);
+        table.store(HASH, 10, 5);
+        table.store(COLLIDING_HASH, 3, 3);
+        assertEquals(TranspositionTable.MISSING, table.probe(COLLIDING_HASH));
+        assertEquals(10, TranspositionTable.getVisits(table.probe(HASH)));
+
+        table.store(COLLIDING_HASH, 10, 10);
+        assertEquals(TranspositionTable.MISSING, table.probe(HASH));
+        assertEquals(10, TranspositionTable.getVisits(table.probe(COLLIDING_HASH)));
+    }
+
+    @Test
+    public void testReplacementPrefersNewGeneration() {
+        final TranspositionTable table = new TranspositionTable(16);
+        table.store(HASH, 10, 5);
+        table.newGeneration();
+        table.store(COLLIDING_HASH, 1, 1);
+        assertEquals(TranspositionTable.MISSING, table.probe(HASH));
+        assertEquals(1, TranspositionTable.getVisits(table.probe(COLLIDING_HASH)));
+    }
+
+    @Test
+    public void testVisitsSaturate() {
+        final TranspositionTable table = new TranspositionTable(16);
+        table.store(HASH, (1 << 24) - 2, 0);
+        table.store(HASH, 10, 0);
+        assertEquals((1 << 24) - 1, TranspositionTable.getVisits(table.probe(HASH)));
+    }
+
+    @Test
+    public void testGenerationsWrapAround() {
+        final TranspositionTable table = new TranspositionTable(16);
+        for (int i = 0; i < 300; i++) {
+            table.newGeneration();
+            table.store(HASH + i, 1, 1);
+            assertEquals(1, TranspositionTable.getVisits(table.probe(HASH + i)));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package hProjekt.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link HexGrid#findRoutes} against a brute force enumeration of all
+ * simple paths in a small region of a grid.
+ */
+public class FindRoutesTest {
+    private static final int RADIUS = 2;
+
+    @Test
+    public void testFrontierMatchesBruteForce() {
+        final Random random = new Random(3);
+        final HexGrid grid = new HexGridImpl(2, 3, NgramModel.townNames(), new Random(11));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final List<Player> others = List.of(new PlayerImpl.Builder(2).build(grid),
+                new PlayerImpl.Builder(3).build(grid));
+        for (Edge edge : grid.getEdges().values()) {
+            final List<Player> owners = new ArrayList<>();
+            if (random.nextInt(3) == 0) {
+                owners.add(player);
+            }
+            for (Player other : others) {
+                if (random.nextInt(3) == 0) {
+                    owners.add(other);
+                }
+            }
+            edge.getRailOwnersProperty().setValue(owners);
+        }
+        final Set<Edge> availableEdges = new HashSet<>();
+        final Set<TilePosition> region = new HashSet<>();
+        for (Edge edge : grid.getEdges().values()) {
+            if (edge.getAdjacentTilePositions().stream().allMatch(position -> distanceToCenter(position) <= RADIUS)
+                    && random.nextInt(4) != 0) {
+                availableEdges.add(edge);
+                region.addAll(edge.getAdjacentTilePositions());
+            }
+        }
+        final List<TilePosition> positions = new ArrayList<>(region);
+
+        int compared = 0;
+        for (int i = 0; i < 20; i++) {
+            final TilePosition start = positions.get(random.nextInt(positions.size()));
+            final TilePosition end = positions.get(random.nextInt(positions.size()));
+            if (start.equals(end)) {
+                continue;
+            }
+            for (int[] limits : new int[][] { { Integer.MAX_VALUE, Integer.MAX_VALUE }, { 2, 3 }, { 0, 0 } }) {
+                final List<Route> routes = grid.findRoutes(start, end, availableEdges, player, limits[0], limits[1]);
+                assertEquals(bruteForceFrontier(grid, start, end, availableEdges, player, limits[0], limits[1]),
+                        routes.stream().map(route -> List.of(route.drivingCost(), route.rentingCost())).toList());
+                routes.forEach(route -> assertRoute(route, start, end, player));
+                compared += routes.size();
+            }
+        }
+        assertTrue(compared > 0, "at least one route should be compared");
+    }
+
+    /**
+     * Returns the distance of the given position to the center of the grid.
+     *
+     * @param position the position
+     * @return the number of edges between the position and the center
+     */
+    private static int distanceToCenter(final TilePosition position) {
+        return Math.max(Math.abs(position.q()),
+                Math.max(Math.abs(position.r()), Math.abs(position.q() + position.r())));
+    }
+
+    /**
+     * Asserts that the given route leads from start to end and has the costs it
+     * claims.
+     *
+     * @param route  the route to check
+     * @param start  the start position
+     * @param end    the end position
+     * @param player the player driving the route
+     */
+    private static void assertRoute(final Route route, final TilePosition start, final TilePosition end,
+            final Player player) {
+        TilePosition position = start;
+        int drivingCost = 0;
+        int rentingCost = 0;
+        for (Edge edge : route.edges()) {
+            assertTrue(edge.getAdjacentTilePositions().contains(position));
+            drivingCost += edge.getDrivingCost(position);
+            rentingCost += edge.getRentingCost(player).values().stream().mapToInt(Integer::intValue).sum();
+            position = edge.getPosition1().equals(position) ? edge.getPosition2() : edge.getPosition1();
+        }
+        assertEquals(end, position);
+        assertEquals(route.drivingCost(), drivingCost);
+        assertEquals(route.rentingCost(), rentingCost);
+    }
+
+    /**
+     * Enumerates all simple paths from start to end within the limits and returns
+     * the Pareto optimal pairs of driving and renting cost, sorted by ascending
+     * driving cost.
+     *
+     * @param grid           the grid to search
+     * @param start          the start position
+     * @param end            the end position
+     * @param availableEdges the edges the paths may use
+     * @param player         the player driving the paths
+     * @param maxRentedEdges the maximum number of rented edges of a path
+     * @param maxRentingCost the maximum renting cost of a path
+     * @return the Pareto optimal pairs of driving and renting cost
+     */
+    private static List<List<Integer>> bruteForceFrontier(final HexGrid grid, final TilePosition start,
+            final TilePosition end, final Set<Edge> availableEdges, final Player player, final int maxRentedEdges,
+            final int maxRentingCost) {
+        final List<int[]> costs = new ArrayList<>();
+        enumerate(grid, start, end, availableEdges, player, new HashSet<>(Set.of(start)), 0, 0, 0, costs);
+        return costs.stream()
+                .filter(cost -> cost[2] <= maxRentedEdges && cost[1] <= maxRentingCost)
+                .filter(cost -> costs.stream().noneMatch(other -> other[2] <= maxRentedEdges
+                        && other[1] <= maxRentingCost && other[0] <= cost[0] && other[1] <= cost[1]
+                        && (other[0] < cost[0] || other[1] < cost[1])))
+                .map(cost -> List.of(cost[0], cost[1])).distinct()
+                .sorted((a, b) -> Integer.compare(a.get(0), b.get(0))).toList();
+    }
+
+    /**
+     * Adds the driving cost, renting cost and number of rented edges of every
+     * simple path from the given position to end to the given list.
+     *
+     * @param grid           the grid to search
+     * @param position       the current position
+     * @param end            the end position
+     * @param availableEdges the edges the paths may use
+     * @param player         the player driving the paths
+     * @param visited        the positions of the path so far
+     * @param drivingCost    the driving cost of the path so far
+     * @param rentingCost    the renting cost of the path so far
+     * @param rentedEdges    the number of rented edges of the path so far
+     * @param costs          the list to add the costs to
+     */
+    private static void enumerate(final HexGrid grid, final TilePosition position, final TilePosition end,
+            final Set<Edge> availableEdges, final Player player, final Set<TilePosition> visited,
+            final int drivingCost, final int rentingCost, final int rentedEdges, final List<int[]> costs) {
+        if (position.equals(end)) {
+            costs.add(new int[] { drivingCost, rentingCost, rentedEdges });
+            return;
+        }
+        for (Tile next : grid.getTileAt(position).getConnectedNeighbours(availableEdges)) {
+            if (!visited.add(next.getPosition())) {
+                continue;
+            }
+            final Edge edge = grid.getEdge(position, next.getPosition());
+            final int renting = edge.getRentingCost(player).values().stream().mapToInt(Integer::intValue).sum();
+            enumerate(grid, next.getPosition(), end, availableEdges, player, visited,
+                    drivingCost + edge.getDrivingCost(position), rentingCost + renting,
+                    rentedEdges + (edge.getRentingCost(player).isEmpty() ? 0 : 1), costs);
+            visited.remove(next.getPosition());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package hProjekt.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import hProjekt.Config;
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a grid in the lazy edge mode behaves like the same grid with all
+ * edges created eagerly.
+ */
+public class LazyEdgesTest {
+    private final int lazyEdgesMinTiles = Config.LAZY_EDGES_MIN_TILES;
+
+    @AfterEach
+    public void restoreConfig() {
+        Config.LAZY_EDGES_MIN_TILES = lazyEdgesMinTiles;
+    }
+
+    @Test
+    public void testLazyAndEagerEdgesAreEqual() {
+        Config.LAZY_EDGES_MIN_TILES = Integer.MAX_VALUE;
+        final HexGrid eager = new HexGridImpl(5, 10, NgramModel.townNames(), new Random(13));
+        Config.LAZY_EDGES_MIN_TILES = 0;
+        final HexGrid lazy = new HexGridImpl(5, 10, NgramModel.townNames(), new Random(13));
+
+        assertEquals(eager.getTiles().keySet(), lazy.getTiles().keySet());
+        assertEquals(eager.getCities().keySet(), lazy.getCities().keySet());
+        assertTrue(lazy.getRails().isEmpty());
+        assertEquals(eager.getEdges().size(), lazy.getEdges().size());
+        assertEquals(eager.getEdges().keySet(), lazy.getEdges().keySet());
+
+        for (Map.Entry<Set<TilePosition>, Edge> entry : eager.getEdges().entrySet()) {
+            final Edge eagerEdge = entry.getValue();
+            final Edge lazyEdge = lazy.getEdges().get(entry.getKey());
+            assertNotNull(lazyEdge);
+            assertEquals(eagerEdge.getAdjacentTilePositions(), lazyEdge.getAdjacentTilePositions());
+            assertEquals(eagerEdge.getBaseBuildingCost(), lazyEdge.getBaseBuildingCost());
+            assertEquals(eagerEdge.getDrivingCost(eagerEdge.getPosition1()),
+                    lazyEdge.getDrivingCost(eagerEdge.getPosition1()));
+            assertEquals(positions(eagerEdge.getConnectedEdges()), positions(lazyEdge.getConnectedEdges()));
+        }
+        for (TilePosition position : eager.getTiles().keySet()) {
+            assertEquals(positions(eager.getTileAt(position).getEdges()),
+                    positions(lazy.getTileAt(position).getEdges()));
+        }
+    }
+
+    @Test
+    public void testLazyAndEagerRailsAreEqual() {
+        Config.LAZY_EDGES_MIN_TILES = Integer.MAX_VALUE;
+        final HexGrid eager = new HexGridImpl(5, 10, NgramModel.townNames(), new Random(17));
+        Config.LAZY_EDGES_MIN_TILES = 0;
+        final HexGrid lazy = new HexGridImpl(5, 10, NgramModel.townNames(), new Random(17));
+        final Player eagerPlayer = new PlayerImpl.Builder(1).build(eager);
+        final Player lazyPlayer = new PlayerImpl.Builder(1).build(lazy);
+
+        final TilePosition start = eager.getStartingCities().keySet().iterator().next();
+        final Edge firstRail = eager.getTileAt(start).getEdges().iterator().next();
+        placeFirstRail(eager, eagerPlayer, firstRail);
+        placeFirstRail(lazy, lazyPlayer, lazy.getEdges().get(firstRail.getAdjacentTilePositions()));
+        for (TilePosition position : firstRail.getAdjacentTilePositions()) {
+            for (Tile neighbour : eager.getTileAt(position).getNeighbours()) {
+                assertEquals(eager.getEdge(position, neighbour.getPosition()).addRail(eagerPlayer),
+                        lazy.getEdge(position, neighbour.getPosition()).addRail(lazyPlayer));
+            }
+        }
+
+        assertTrue(eager.getRails(eagerPlayer).size() > 1);
+        assertEquals(eager.getRails().keySet(), lazy.getRails().keySet());
+        assertEquals(eager.getRails(eagerPlayer).keySet(), lazy.getRails(lazyPlayer).keySet());
+        assertEquals(eager.getZobristHash().get(), lazy.getZobristHash().get());
+
+        final TilePosition end = eager.getCities().keySet().stream().filter(position -> !position.equals(start))
+                .findFirst().orElseThrow();
+        assertEquals(routeCosts(eager.findRoutes(start, end, new HashSet<>(eager.getEdges().values()), eagerPlayer,
+                2, 10)),
+                routeCosts(lazy.findRoutes(start, end, new HashSet<>(lazy.getEdges().values()), lazyPlayer, 2, 10)));
+    }
+
+    @Test
+    public void testSearchesDoNotStoreEdges() {
+        Config.LAZY_EDGES_MIN_TILES = 0;
+        final HexGrid grid = new HexGridImpl(5, 10, NgramModel.townNames(), new Random(19));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final TilePosition start = grid.getStartingCities().keySet().iterator().next();
+        final TilePosition end = grid.getCities().keySet().stream().filter(position -> !position.equals(start))
+                .findFirst().orElseThrow();
+        final Set<Edge> availableEdges = new HashSet<>(grid.getEdges().values());
+
+        assertFalse(grid.findPath(start, end, availableEdges, grid::getDrivingCost).isEmpty());
+        assertFalse(grid.findRoutes(start, end, availableEdges, player, 2, 10).isEmpty());
+        assertFalse(grid.findShortestPathTree(start, (from, to) -> true, grid::getDrivingCost).pathTo(end)
+                .isEmpty());
+        for (Edge edge : grid.getTileAt(start).getEdges()) {
+            edge.getConnectedEdges();
+            edge.getRailOwners();
+        }
+
+        for (Set<TilePosition> key : grid.getEdges().keySet()) {
+            assertNotSame(grid.getEdges().get(key), grid.getEdges().get(key));
+        }
+    }
+
+    @Test
+    public void testEdgeInstancesShareRailOwners() {
+        Config.LAZY_EDGES_MIN_TILES = 0;
+        final HexGrid grid = new HexGridImpl(5, 10, NgramModel.townNames(), new Random(23));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final TilePosition start = grid.getStartingCities().keySet().iterator().next();
+        final Edge first = grid.getTileAt(start).getEdges().iterator().next();
+        final Edge second = grid.getEdges().get(first.getAdjacentTilePositions());
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        placeFirstRail(grid, player, first);
+        assertEquals(List.of(player), second.getRailOwners());
+        final Edge stored = grid.getEdges().get(first.getAdjacentTilePositions());
+        assertSame(stored, grid.getEdge(first.getPosition1(), first.getPosition2()));
+        assertEquals(Set.of(first.getAdjacentTilePositions()), grid.getRails().keySet());
+
+        final Edge next = first.getConnectedEdges().stream().filter(edge -> !edge.hasRail()).findFirst()
+                .orElseThrow();
+        assertTrue(next.addRail(player));
+        assertSame(grid.getEdges().get(next.getAdjacentTilePositions()),
+                grid.getEdges().get(next.getAdjacentTilePositions()));
+        assertTrue(second.removeRail(player));
+        assertFalse(first.hasRail());
+        assertEquals(Set.of(next.getAdjacentTilePositions()), grid.getRails().keySet());
+    }
+
+    /**
+     * Places the first rail of the given player on the given edge, like
+     * {@link MapFile#placeRails(List)} does. {@link Edge#addRail(Player)} only
+     * builds rails connected to the player's network.
+     *
+     * @param grid   the grid of the edge
+     * @param player the player to build for
+     * @param edge   the edge to build on
+     */
+    private static void placeFirstRail(final HexGrid grid, final Player player, final Edge edge) {
+        final List<Player> owners = new ArrayList<>(edge.getRailOwners());
+        owners.add(player);
+        edge.getRailOwnersProperty().setValue(owners);
+        grid.getZobristHash().toggleRail(edge, player);
+    }
+
+    /**
+     * Returns the positions of the given edges, which can be compared across
+     * grids unlike the edges themselves.
+     *
+     * @param edges the edges
+     * @return the positions of every edge
+     */
+    private static Set<Set<TilePosition>> positions(final Set<Edge> edges) {
+        return edges.stream().map(Edge::getAdjacentTilePositions).collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the driving and renting cost of every given route.
+     *
+     * @param routes the routes
+     * @return the costs of every route in the same order
+     */
+    private static List<List<Integer>> routeCosts(final List<Route> routes) {
+        return routes.stream().map(route -> List.of(route.drivingCost(), route.rentingCost())).toList();
+    }
+}
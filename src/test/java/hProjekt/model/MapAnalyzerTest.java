@@ -0,0 +1,97 @@
+package hProjekt.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the connectivity and fairness a {@link MapAnalyzer} finds on small
+ * hand-built maps.
+ * <p>
+ * The maps are a row of tiles {@code PP M PPPP} from q = 0 to q = 6, so the
+ * mountain at q = 2 splits the plains into two regions, and a separate island of
+ * two plains at q = 10 and q = 11.
+ */
+public class MapAnalyzerTest {
+    private static final Tile.Type[] ROW = { Tile.Type.PLAIN, Tile.Type.PLAIN, Tile.Type.MOUNTAIN, Tile.Type.PLAIN,
+            Tile.Type.PLAIN, Tile.Type.PLAIN, Tile.Type.PLAIN };
+    private static final List<Integer> ISLAND = List.of(10, 11);
+
+    private final MapAnalyzer analyzer = new MapAnalyzer(ForkJoinPool.commonPool());
+
+    @Test
+    public void testCountsLandmassesAndPlainRegions() {
+        final MapAnalysis analysis = analyzer.analyze(grid(Map.of(0, true, 6, true)));
+        assertEquals(2, analysis.landmasses());
+        assertEquals(3, analysis.plainRegions());
+    }
+
+    @Test
+    public void testFairness() {
+        final MapAnalysis analysis = analyzer.analyze(grid(Map.of(0, true, 3, false, 4, false, 6, true)));
+
+        // a plain next to a mountain costs 3, two plains cost 1
+        assertEquals(Map.of(at(0), 0, at(3), 7, at(4), 8, at(6), 10), analysis.distances().get(at(0)));
+        assertEquals(Map.of(at(0), 10, at(3), 3, at(4), 2, at(6), 0), analysis.distances().get(at(6)));
+        assertEquals(Map.of(at(0), at(0), at(3), at(6), at(4), at(6), at(6), at(6)), analysis.nearestStarting());
+
+        // the city at q = 0 is the only one west of the mountain
+        assertEquals(1, analysis.isolatedCities());
+        assertEquals(25 / 3.0, analysis.access().get(at(0)), 1e-9);
+        assertEquals(5, analysis.access().get(at(6)), 1e-9);
+        assertEquals(5 / (25 / 3.0) * 3 / 4, analysis.fairness(), 1e-9);
+    }
+
+    @Test
+    public void testUnreachableCityScoresZero() {
+        final MapAnalysis analysis = analyzer.analyze(grid(Map.of(0, true, 6, true, ISLAND.getFirst(), false)));
+        assertEquals(0, analysis.fairness(), 1e-9);
+        assertFalse(analysis.distances().get(at(0)).containsKey(at(ISLAND.getFirst())));
+    }
+
+    /**
+     * Returns the position with the given q coordinate in the row of the map.
+     *
+     * @param q the q coordinate
+     * @return the position
+     */
+    private static TilePosition at(final int q) {
+        return new TilePosition(q, 0);
+    }
+
+    /**
+     * Builds the map with cities at the given positions.
+     *
+     * @param cities whether the city at every q coordinate is a starting city
+     * @return the map
+     */
+    private static HexGrid grid(final Map<Integer, Boolean> cities) {
+        final Map<TilePosition, Tile> tiles = new HashMap<>();
+        for (int q = 0; q < ROW.length; q++) {
+            tiles.put(at(q), new TileImpl(at(q), ROW[q], null, null, null));
+        }
+        ISLAND.forEach(q -> tiles.put(at(q), new TileImpl(at(q), Tile.Type.PLAIN, null, null, null)));
+
+        final Map<Set<TilePosition>, Edge> edges = new HashMap<>();
+        for (TilePosition position : tiles.keySet()) {
+            final TilePosition east = TilePosition.neighbour(position, TilePosition.EdgeDirection.EAST);
+            if (tiles.containsKey(east)) {
+                edges.put(Set.of(position, east),
+                        new EdgeImpl(null, position, east, new SimpleObjectProperty<>(new ArrayList<>())));
+            }
+        }
+
+        final Map<TilePosition, City> cityMap = new HashMap<>();
+        cities.forEach((q, startingCity) -> cityMap.put(at(q), new CityImpl(at(q), "City " + q, startingCity, null)));
+        return new HexGridImpl(tiles, edges, cityMap);
+    }
+}
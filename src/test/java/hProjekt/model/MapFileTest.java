@@ -0,0 +1,86 @@
+package hProjekt.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a {@link MapFile} restores the grid it was written from.
+ */
+public class MapFileTest {
+
+    @Test
+    public void testWriteReadRoundTrip() throws IOException {
+        final HexGrid grid = new HexGridImpl(4, 8, NgramModel.townNames(), new Random(5));
+        final List<Player> players = List.of(new PlayerImpl.Builder(1).build(grid),
+                new PlayerImpl.Builder(2).build(grid));
+        final Random random = new Random(9);
+        for (Edge edge : grid.getEdges().values()) {
+            if (random.nextInt(4) == 0) {
+                final List<Player> owners = new ArrayList<>(players.subList(0, random.nextInt(3)));
+                edge.getRailOwnersProperty().setValue(owners);
+                owners.forEach(owner -> grid.getZobristHash().toggleRail(edge, owner));
+            }
+        }
+
+        final Path file = Files.createTempFile("map", ".map");
+        try {
+            MapFile.write(grid, file);
+            final MapFile map = MapFile.read(file);
+            final HexGrid read = map.getGrid();
+            final List<Player> readPlayers = List.of(new PlayerImpl.Builder(1).build(read),
+                    new PlayerImpl.Builder(2).build(read));
+            map.placeRails(readPlayers);
+
+            assertEquals(tileTypes(grid), tileTypes(read));
+            assertEquals(grid.getEdges().keySet(), read.getEdges().keySet());
+            assertEquals(grid.getCities().keySet(), read.getCities().keySet());
+            grid.getCities().forEach((position, city) -> {
+                assertEquals(city.getName(), read.getCityAt(position).getName());
+                assertEquals(city.isStartingCity(), read.getCityAt(position).isStartingCity());
+            });
+            assertEquals(railOwnerIds(grid), railOwnerIds(read));
+            assertEquals(grid.getZobristHash().getRailHash(), read.getZobristHash().getRailHash());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Returns the type of every tile of the given grid.
+     *
+     * @param grid the grid
+     * @return the type of every tile by its position
+     */
+    private static Map<TilePosition, Tile.Type> tileTypes(final HexGrid grid) {
+        final Map<TilePosition, Tile.Type> types = new HashMap<>();
+        grid.getTiles().forEach((position, tile) -> types.put(position, tile.getType()));
+        return types;
+    }
+
+    /**
+     * Returns the ids of the rail owners of every edge with rails of the given
+     * grid.
+     *
+     * @param grid the grid
+     * @return the ids of the rail owners by the positions of their edge
+     */
+    private static Map<Set<TilePosition>, List<Integer>> railOwnerIds(final HexGrid grid) {
+        final Map<Set<TilePosition>, List<Integer>> ids = new HashMap<>();
+        grid.getRails().forEach((positions, edge) -> ids.put(positions,
+                edge.getRailOwners().stream().map(Player::getID).toList()));
+        return ids;
+    }
+}
@@ -0,0 +1,52 @@
+package hProjekt.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the {@link NoiseTerrainGenerator} generates the same terrain no
+ * matter on how many threads its chunks are computed.
+ */
+public class NoiseTerrainGeneratorTest {
+    // a map of this scale covers several chunks in every direction
+    private static final int SCALE = 20;
+
+    @Test
+    public void testTerrainDoesNotDependOnPool() {
+        final ForkJoinPool singleThread = new ForkJoinPool(1);
+        final ForkJoinPool manyThreads = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            for (long seed = 0; seed < 4; seed++) {
+                final List<Map.Entry<TilePosition, Tile.Type>> expected = entries(
+                        new NoiseTerrainGenerator(seed).generate(SCALE));
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, entries(new NoiseTerrainGenerator(seed, singleThread).generate(SCALE)));
+                assertEquals(expected, entries(new NoiseTerrainGenerator(seed, manyThreads).generate(SCALE)));
+            }
+        } finally {
+            singleThread.shutdown();
+            manyThreads.shutdown();
+        }
+    }
+
+    @Test
+    public void testSeedsGiveDifferentTerrain() {
+        assertNotEquals(new NoiseTerrainGenerator(1).generate(SCALE), new NoiseTerrainGenerator(2).generate(SCALE));
+    }
+
+    /**
+     * Returns the entries of the given terrain in its iteration order, so two
+     * terrains are only equal if they are iterated in the same order.
+     *
+     * @param terrain the terrain
+     * @return the entries of the terrain
+     */
+    private static List<Map.Entry<TilePosition, Tile.Type>> entries(final Map<TilePosition, Tile.Type> terrain) {
+        return List.copyOf(terrain.entrySet());
+    }
+}
@@ -0,0 +1,138 @@
+package hProjekt.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import hProjekt.util.NgramModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the incrementally updated {@link ZobristHash} always equals the
+ * hash computed from scratch.
+ */
+public class ZobristHashTest {
+
+    @Test
+    public void testIncrementalHashEqualsHashFromScratch() {
+        final Random random = new Random(42);
+        final HexGrid grid = new HexGridImpl(4, 8, NgramModel.townNames(), new Random(7));
+        final List<Player> players = List.of(new PlayerImpl.Builder(1).build(grid),
+                new PlayerImpl.Builder(2).build(grid));
+        final List<TilePosition> startingCities = new ArrayList<>(grid.getStartingCities().keySet());
+        final List<Edge> firstRails = new ArrayList<>();
+        for (int i = 0; i < players.size(); i++) {
+            final Edge firstRail = grid.getTileAt(startingCities.get(i)).getEdges().iterator().next();
+            placeFirstRail(grid, players.get(i), firstRail);
+            firstRails.add(firstRail);
+        }
+        assertHashes(grid, players);
+
+        int added = 0;
+        int removed = 0;
+        for (int step = 0; step < 300; step++) {
+            final Player player = players.get(random.nextInt(players.size()));
+            final int choice = random.nextInt(4);
+            final List<Edge> rails = new ArrayList<>(player.getRails().values());
+            rails.removeAll(firstRails);
+            if (choice == 0 && !rails.isEmpty()) {
+                assertTrue(rails.get(random.nextInt(rails.size())).removeRail(player));
+                removed++;
+            } else if (choice == 1) {
+                final int credits = random.nextInt(10);
+                if (random.nextBoolean()) {
+                    player.addCredits(credits);
+                } else {
+                    player.removeCredits(credits);
+                }
+            } else if (addRandomRail(grid, player, random)) {
+                added++;
+            }
+            assertHashes(grid, players);
+        }
+        assertTrue(added > 0 && removed > 0, "the sequence should add and remove rails");
+    }
+
+    @Test
+    public void testAddingAndRemovingRailRestoresHash() {
+        final HexGrid grid = new HexGridImpl(4, 8, NgramModel.townNames(), new Random(7));
+        final Player player = new PlayerImpl.Builder(1).build(grid);
+        final TilePosition startingCity = grid.getStartingCities().keySet().iterator().next();
+        final Edge firstRail = grid.getTileAt(startingCity).getEdges().iterator().next();
+        placeFirstRail(grid, player, firstRail);
+        final long hash = grid.getZobristHash().get();
+        final long railHash = grid.getZobristHash().getRailHash();
+
+        assertTrue(addRandomRail(grid, player, new Random(1)));
+        assertNotEquals(railHash, grid.getZobristHash().getRailHash());
+        final Set<Edge> rails = new HashSet<>(player.getRails().values());
+        rails.remove(firstRail);
+        assertTrue(rails.iterator().next().removeRail(player));
+
+        assertEquals(hash, grid.getZobristHash().get());
+        assertEquals(railHash, grid.getZobristHash().getRailHash());
+    }
+
+    /**
+     * Places the first rail of the given player on the given edge, like
+     * {@link MapFile#placeRails(List)} does. {@link Edge#addRail(Player)} only
+     * builds rails connected to the player's network.
+     *
+     * @param grid   the grid of the edge
+     * @param player the player to build for
+     * @param edge   the edge to build on
+     */
+    private static void placeFirstRail(final HexGrid grid, final Player player, final Edge edge) {
+        final List<Player> owners = new ArrayList<>(edge.getRailOwners());
+        owners.add(player);
+        edge.getRailOwnersProperty().setValue(owners);
+        grid.getZobristHash().toggleRail(edge, player);
+    }
+
+    /**
+     * Builds a rail of the given player on a random edge it may build on.
+     *
+     * @param grid   the grid to build on
+     * @param player the player to build for
+     * @param random the random number generator to pick the edge with
+     * @return whether a rail was built
+     */
+    private static boolean addRandomRail(final HexGrid grid, final Player player, final Random random) {
+        final List<Edge> edges = new ArrayList<>(grid.getEdges().values());
+        Collections.shuffle(edges, random);
+        for (Edge edge : edges) {
+            if (edge.addRail(player)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Asserts that the hashes of the given grid equal the hashes computed from its
+     * rails and the credits of the given players.
+     *
+     * @param grid    the grid to check
+     * @param players all players of the grid
+     */
+    private static void assertHashes(final HexGrid grid, final List<Player> players) {
+        long railHash = 0;
+        for (Edge edge : grid.getRails().values()) {
+            for (Player owner : edge.getRailOwners()) {
+                railHash ^= ZobristHash.railKey(edge, owner.getID());
+            }
+        }
+        long hash = railHash;
+        for (Player player : players) {
+            hash ^= ZobristHash.creditsKey(player.getID(), player.getCredits());
+        }
+        assertEquals(railHash, grid.getZobristHash().getRailHash());
+        assertEquals(hash, grid.getZobristHash().get());
+    }
+}
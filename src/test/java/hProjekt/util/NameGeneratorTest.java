@@ -0,0 +1,62 @@
+package hProjekt.util;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a {@link NameGenerator} keeps its names unique when asked for more
+ * names than its model can produce.
+ */
+public class NameGeneratorTest {
+    // the model can only produce the names "Ab" and "Ac"
+    private static final NgramModel TWO_NAMES = NgramModel.train(new String[] { "Ab", "Ac" }, 1);
+
+    @Test
+    public void testMoreNamesThanModelCanProduce() {
+        final List<String> names = new NameGenerator(TWO_NAMES, new Random(3)).generateUniqueNames(20, 10);
+        assertEquals(20, names.size());
+        assertEquals(20, Set.copyOf(names).size());
+        assertTrue(names.containsAll(List.of("Ab", "Ac")));
+        for (String name : names) {
+            assertTrue(name.matches("A[bc]( [0-9]+)?"), name);
+        }
+        assertEquals(18, names.stream().filter(name -> name.contains(" ")).count());
+        // every base name is numbered from 2 on without gaps
+        for (String base : List.of("Ab", "Ac")) {
+            final long count = names.stream().filter(name -> name.startsWith(base + " ")).count();
+            for (int suffix = 2; suffix < count + 2; suffix++) {
+                assertTrue(names.contains(base + " " + suffix), base + " " + suffix);
+            }
+        }
+    }
+
+    @Test
+    public void testUsedNamesAreSkipped() {
+        final Set<String> usedNames = new HashSet<>(Set.of("Ab", "Ac", "Ab 2", "Ac 2"));
+        final String name = new NameGenerator(TWO_NAMES, new Random(5)).generateUniqueName(10, usedNames);
+        assertTrue(name.equals("Ab 3") || name.equals("Ac 3"), name);
+        assertTrue(usedNames.contains(name));
+        assertEquals(5, usedNames.size());
+    }
+
+    @Test
+    public void testParallelGeneratorsSharingSetStayUnique() {
+        final Set<String> usedNames = ConcurrentHashMap.newKeySet();
+        final List<String> names = IntStream.range(0, 8).parallel()
+                .mapToObj(seed -> new NameGenerator(TWO_NAMES, new Random(seed)).generateUniqueNames(25, 10,
+                        usedNames))
+                .flatMap(List::stream)
+                .toList();
+        assertEquals(200, names.size());
+        assertEquals(200, Set.copyOf(names).size());
+        assertEquals(Set.copyOf(names), usedNames);
+    }
+}
@@ -0,0 +1,91 @@
+package hProjekt.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import hProjekt.Config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a {@link NgramModel} samples names with the trained frequencies and
+ * generates the same names after it was written and read again.
+ */
+public class NgramModelTest {
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void testSamplingMatchesTrainedDistribution() {
+        // after the 'A' of every name, the i-th letter from 'b' on follows i times
+        final List<String> names = new ArrayList<>();
+        int total = 0;
+        for (int i = 1; i <= 10; i++) {
+            for (int count = 0; count < i; count++) {
+                names.add("A" + (char) ('a' + i));
+            }
+            total += i;
+        }
+        final NgramModel model = NgramModel.train(names.toArray(String[]::new), 1);
+
+        final Random random = new Random(42);
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            counts.merge(model.generate(5, random), 1, Integer::sum);
+        }
+        assertEquals(10, counts.size());
+        for (int i = 1; i <= 10; i++) {
+            final String name = "A" + (char) ('a' + i);
+            assertEquals((double) i / total, counts.getOrDefault(name, 0) / (double) SAMPLES, 0.005, name);
+        }
+    }
+
+    @Test
+    public void testReadModelGeneratesSameNames() throws IOException {
+        final NgramModel trained = NgramModel.train(Config.TOWN_NAMES, Config.NAME_GENERATOR_ORDER);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trained.write(out);
+        final NgramModel read = NgramModel.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(trained.getOrder(), read.getOrder());
+        assertEquals(trained.getStateCount(), read.getStateCount());
+        assertEquals(names(trained, 7), names(read, 7));
+    }
+
+    @Test
+    public void testShippedModelMatchesTrainedModel() {
+        final NgramModel trained = NgramModel.train(Config.TOWN_NAMES, Config.NAME_GENERATOR_ORDER);
+        assertEquals(trained.getStateCount(), NgramModel.townNames().getStateCount());
+        assertEquals(names(trained, 3), names(NgramModel.townNames(), 3));
+    }
+
+    @Test
+    public void testReadRejectsOtherData() {
+        assertThrows(IOException.class, () -> NgramModel.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4,
+                5, 6, 7, 8 })));
+    }
+
+    /**
+     * Generates a fixed number of names with a random number generator with the
+     * given seed.
+     *
+     * @param model the model to generate the names with
+     * @param seed  the seed
+     * @return the generated names
+     */
+    private static List<String> names(final NgramModel model, final long seed) {
+        final Random random = new Random(seed);
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add(model.generate(10, random));
+        }
+        return names;
+    }
+}